@@ -23,6 +23,11 @@ public class Main {
      */
     private static final Logger logger = LoggerFactory.getLogger(Main.class);
 
+    /**
+     * Maximum time player changes may stay unsaved before the background flush
+     */
+    private static final long PLAYER_FLUSH_DELAY_MILLIS = 1000;
+
     /**
      * Application entry point.
      * Initializes repositories, services, and starts the console UI.
@@ -37,8 +42,9 @@ public class Main {
             var players = "src/main/resources/data/players.json";//ConfigLoader.getPath("players");
             var items = "src/main/resources/data/items.json";//ConfigLoader.getPath("items");
             GameRepository gameRepository = new GameRepository(gameMap);
-            PlayerRepository playerRepository = new PlayerRepository(players);
             ItemRepository itemRepository = new ItemRepository(items);
+            PlayerRepository playerRepository = new PlayerRepository(players, itemRepository.getCatalog());
+            playerRepository.enableWriteBehind(PLAYER_FLUSH_DELAY_MILLIS);
             AuthService authService = new AuthService(playerRepository);
 
             ConsoleUI ui = new ConsoleUI(authService, gameRepository, itemRepository);
@@ -1,14 +1,30 @@
 package main.java.com.spaceexplorer.model;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 /**
  * Represents the game map containing all sectors in the Space Explorer game.
  * The map is organized into sectors, each containing various space objects
  * that players can explore.
  *
+ * The map keeps a sector-ID index and a (sector ID, object name) index so that
+ * locations can be resolved in constant time without allocating. The indexes are
+ * built when sectors are set or added and updated when sectors are removed; a
+ * sector whose ID or objects change after it was added must be re-added (or the
+ * sectors set again) for the indexes to reflect the change. The same applies
+ * to the {@link ResourceIndex} answering "where can I find X" queries.
+ *
+ * {@link #getSectors()} returns a defensive copy; hot paths should use the
+ * allocation-free {@link #sectorsView()}, {@link #sectorCount()},
+ * {@link #sectorAt(int)} and {@link #forEachSector(Consumer)} instead.
+ *
  * @author Space Explorer Development Team
  * @version 1.0
  * @since 1.0
@@ -17,11 +33,24 @@ public class GameMap {
     /** List of all sectors in the game map */
     private List<Sector> sectors;
 
+    /** Read-only view of the sectors list */
+    private List<Sector> sectorsView;
+
+    /** Index of sectors by ID */
+    private final Map<String, Sector> sectorsById = new HashMap<>();
+
+    /** Index of space objects by sector ID, then by object name */
+    private final Map<String, Map<String, SpaceObject>> objectsBySector = new HashMap<>();
+
+    /** Inverted index of locations by resource type */
+    private final ResourceIndex resourceIndex = new ResourceIndex();
+
     /**
      * Constructs a new empty GameMap with no sectors.
      */
     public GameMap() {
         this.sectors = new ArrayList<>();
+        this.sectorsView = Collections.unmodifiableList(sectors);
     }
 
     /**
@@ -33,6 +62,45 @@ public class GameMap {
         return new ArrayList<>(sectors);
     }
 
+    /**
+     * Returns a read-only view of the sectors list.
+     * The view reflects later changes to the map and does not allocate.
+     *
+     * @return Unmodifiable view of all sectors
+     */
+    public List<Sector> sectorsView() {
+        return sectorsView;
+    }
+
+    /**
+     * Returns the number of sectors in the map.
+     *
+     * @return The sector count
+     */
+    public int sectorCount() {
+        return sectors.size();
+    }
+
+    /**
+     * Returns the sector at the given position.
+     *
+     * @param index Position of the sector, from 0 to {@link #sectorCount()} - 1
+     * @return The sector at that position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public Sector sectorAt(int index) {
+        return sectors.get(index);
+    }
+
+    /**
+     * Performs the given action for each sector, in map order.
+     *
+     * @param action The action to perform
+     */
+    public void forEachSector(Consumer<? super Sector> action) {
+        sectors.forEach(action);
+    }
+
     /**
      * Sets the list of sectors for this game map.
      * Creates a defensive copy of the provided list.
@@ -42,6 +110,11 @@ public class GameMap {
      */
     public void setSectors(List<Sector> sectors) {
         this.sectors = new ArrayList<>(Objects.requireNonNull(sectors, "Sectors list cannot be null"));
+        this.sectorsView = Collections.unmodifiableList(this.sectors);
+        sectorsById.clear();
+        objectsBySector.clear();
+        resourceIndex.clear();
+        this.sectors.forEach(this::index);
     }
 
     /**
@@ -53,6 +126,7 @@ public class GameMap {
     public void addSector(Sector sector) {
         Objects.requireNonNull(sector, "Sector cannot be null");
         sectors.add(sector);
+        index(sector);
     }
 
     /**
@@ -61,7 +135,106 @@ public class GameMap {
      * @param sector The sector to remove
      */
     public void removeSector(Sector sector) {
-        sectors.remove(sector);
+        if (!sectors.remove(sector) || sector.getId() == null || sectorsById.get(sector.getId()) != sector) {
+            return;
+        }
+        sectorsById.remove(sector.getId());
+        objectsBySector.remove(sector.getId());
+        resourceIndex.remove(sector);
+        // Another sector with the same ID may now become the indexed one
+        for (Sector remaining : sectors) {
+            if (sector.getId().equals(remaining.getId())) {
+                index(remaining);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Finds a sector by its ID.
+     *
+     * @param sectorId The ID of the sector
+     * @return The sector, or null if no sector has that ID
+     */
+    public Sector getSector(String sectorId) {
+        return sectorId == null ? null : sectorsById.get(sectorId);
+    }
+
+    /**
+     * Finds a space object by the ID of its sector and its name.
+     *
+     * @param sectorId The ID of the sector containing the object
+     * @param objectName The name of the space object
+     * @return The space object, or null if it doesn't exist
+     */
+    public SpaceObject getSpaceObject(String sectorId, String objectName) {
+        if (sectorId == null || objectName == null) {
+            return null;
+        }
+        Map<String, SpaceObject> objects = objectsBySector.get(sectorId);
+        return objects == null ? null : objects.get(objectName);
+    }
+
+    /**
+     * Returns the inverted index of locations by resource type.
+     *
+     * @return The resource index of this map
+     */
+    public ResourceIndex resourceIndex() {
+        return resourceIndex;
+    }
+
+    /**
+     * Finds all locations offering a resource.
+     *
+     * @param resource The resource to look for
+     * @return Unmodifiable view of the matching locations
+     */
+    public List<ResourceLocation> findResourceLocations(ResourceType resource) {
+        return resourceIndex.find(resource);
+    }
+
+    /**
+     * Finds the locations offering all of the given resources.
+     *
+     * @param resources The required resources
+     * @return List of matching locations
+     */
+    public List<ResourceLocation> findLocationsWithAll(Collection<ResourceType> resources) {
+        return resourceIndex.findWithAll(resources);
+    }
+
+    /**
+     * Finds the locations offering at least one of the given resources.
+     *
+     * @param resources The wanted resources
+     * @return List of matching locations, each reported once
+     */
+    public List<ResourceLocation> findLocationsWithAny(Collection<ResourceType> resources) {
+        return resourceIndex.findWithAny(resources);
+    }
+
+    /**
+     * Adds a sector and its space objects to the lookup indexes.
+     * If several sectors share an ID, or several objects in a sector share a name,
+     * the first one is indexed.
+     *
+     * @param sector The sector to index
+     */
+    private void index(Sector sector) {
+        if (sector.getId() == null || sectorsById.putIfAbsent(sector.getId(), sector) != null) {
+            return;
+        }
+        Map<String, SpaceObject> objects = new HashMap<>();
+        if (sector.getObjects() != null) {
+            for (SpaceObject object : sector.getObjects()) {
+                if (object.getName() != null) {
+                    objects.putIfAbsent(object.getName(), object);
+                }
+            }
+        }
+        objectsBySector.put(sector.getId(), objects);
+        resourceIndex.add(sector);
     }
 
     /**
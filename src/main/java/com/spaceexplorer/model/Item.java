@@ -7,6 +7,10 @@ import java.util.Objects;
  * Items can be collected, stored in inventory, and used by players.
  * Each item has a name, type, and optional description.
  *
+ * Items handed out by an item catalog are immutable flyweights shared by
+ * every inventory that holds them; their setters throw
+ * {@link UnsupportedOperationException}. See {@link #immutableCopy()}.
+ *
  * @author Space Explorer Development Team
  * @version 1.0
  * @since 1.0
@@ -15,12 +19,15 @@ public class Item {
     /** The unique name of the item */
     private String name;
 
-    /** The type of the item (e.g., "RESOURCE", "TOOL", "ARTIFACT") */
-    private String type;
+    /** The type of the item */
+    private ItemType type;
 
     /** Optional description providing more details about the item */
     private String description;
 
+    /** Whether this item is a shared flyweight that must not change */
+    private boolean immutable;
+
     /**
      * Default constructor for Item.
      * Required for JSON deserialization.
@@ -39,6 +46,34 @@ public class Item {
         setType(type);
     }
 
+    /**
+     * Constructs a new Item with the specified name and type.
+     *
+     * @param name The name of the item
+     * @param type The type of the item
+     * @throws IllegalArgumentException if name is null or empty, or type is null
+     */
+    public Item(String name, ItemType type) {
+        setName(name);
+        setItemType(type);
+    }
+
+    /**
+     * Returns an immutable item with the same name, type and description.
+     * An item that is already immutable is returned as is.
+     *
+     * @return An immutable equivalent of this item
+     */
+    public Item immutableCopy() {
+        if (immutable) {
+            return this;
+        }
+        Item copy = new Item(name, type);
+        copy.description = description;
+        copy.immutable = true;
+        return copy;
+    }
+
     /**
      * Gets the name of the item.
      *
@@ -55,18 +90,38 @@ public class Item {
      * @throws IllegalArgumentException if name is null or empty
      */
     public void setName(String name) {
+        checkMutable();
         if (name == null || name.trim().isEmpty()) {
             throw new IllegalArgumentException("Item name cannot be empty");
         }
         this.name = name.trim();
     }
 
+    /**
+     * Gets the name of the item's type.
+     *
+     * @return The item's type name, e.g. {@code "RESOURCE"}
+     */
+    public String getType() {
+        return type != null ? type.name() : null;
+    }
+
+    /**
+     * Sets the type of the item from its name.
+     *
+     * @param type The name of the new type, case-insensitive
+     * @throws IllegalArgumentException if type is null, empty or not a known item type
+     */
+    public void setType(String type) {
+        setItemType(ItemType.fromString(type));
+    }
+
     /**
      * Gets the type of the item.
      *
      * @return The item's type
      */
-    public String getType() {
+    public ItemType itemType() {
         return type;
     }
 
@@ -74,13 +129,14 @@ public class Item {
      * Sets the type of the item.
      *
      * @param type The new type for the item
-     * @throws IllegalArgumentException if type is null or empty
+     * @throws IllegalArgumentException if type is null
      */
-    public void setType(String type) {
-        if (type == null || type.trim().isEmpty()) {
+    public void setItemType(ItemType type) {
+        checkMutable();
+        if (type == null) {
             throw new IllegalArgumentException("Item type cannot be empty");
         }
-        this.type = type.trim();
+        this.type = type;
     }
 
     /**
@@ -100,9 +156,16 @@ public class Item {
      * @param description The new description for the item
      */
     public void setDescription(String description) {
+        checkMutable();
         this.description = description != null ? description.trim() : null;
     }
 
+    private void checkMutable() {
+        if (immutable) {
+            throw new UnsupportedOperationException("Catalog item '" + name + "' is immutable");
+        }
+    }
+
     /**
      * Checks if this Item is equal to another object.
      * Items are considered equal if they have the same name.
@@ -0,0 +1,88 @@
+package main.java.com.spaceexplorer.model;
+
+import java.util.Objects;
+
+/**
+ * A quantity of one item in a player's inventory.
+ * Stacks are immutable snapshots; the inventory itself keeps the counts.
+ *
+ * @author Space Explorer Development Team
+ * @version 1.0
+ * @since 1.1
+ */
+public final class ItemStack {
+    /** The stacked item */
+    private final Item item;
+
+    /** Number of units of the item */
+    private final int count;
+
+    /**
+     * Creates a stack of the given item.
+     *
+     * @param item The item
+     * @param count Number of units, at least 1
+     * @throws NullPointerException if item is null
+     * @throws IllegalArgumentException if count is less than 1
+     */
+    public ItemStack(Item item, int count) {
+        this.item = Objects.requireNonNull(item, "Item cannot be null");
+        if (count < 1) {
+            throw new IllegalArgumentException("Stack count must be positive");
+        }
+        this.count = count;
+    }
+
+    /**
+     * Gets the stacked item.
+     *
+     * @return The item
+     */
+    public Item getItem() {
+        return item;
+    }
+
+    /**
+     * Gets the number of units in the stack.
+     *
+     * @return The unit count
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Checks if this ItemStack is equal to another object.
+     * Stacks are equal if they hold the same number of the same item.
+     *
+     * @param o The object to compare with
+     * @return true if the objects are equal, false otherwise
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ItemStack)) return false;
+        ItemStack stack = (ItemStack) o;
+        return count == stack.count && item.equals(stack.item);
+    }
+
+    /**
+     * Generates a hash code for this ItemStack.
+     *
+     * @return The hash code value
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(item, count);
+    }
+
+    /**
+     * Returns a string representation of the stack.
+     *
+     * @return A string such as {@code "Water x12"}
+     */
+    @Override
+    public String toString() {
+        return item.getName() + " x" + count;
+    }
+}
@@ -0,0 +1,80 @@
+package main.java.com.spaceexplorer.model;
+
+import java.util.Locale;
+
+/**
+ * Enumeration of item categories in the game.
+ *
+ * @author Space Explorer Development Team
+ * @version 1.0
+ * @since 1.1
+ */
+public enum ItemType {
+    /**
+     * A raw material collected from space objects, such as water or minerals.
+     */
+    RESOURCE("Resource", 99),
+
+    /**
+     * Equipment that helps the player, such as a space map.
+     */
+    TOOL("Tool", 1),
+
+    /**
+     * A rare object found while exploring.
+     */
+    ARTIFACT("Artifact", 1);
+
+    /** Human-readable description of the item type */
+    private final String description;
+
+    /** Maximum number of units of one item that fit in a single inventory slot */
+    private final int maxStack;
+
+    /**
+     * Constructs a new ItemType with the specified description and stack size.
+     *
+     * @param description A human-readable description of the item type
+     * @param maxStack Maximum number of units per inventory slot
+     */
+    ItemType(String description, int maxStack) {
+        this.description = description;
+        this.maxStack = maxStack;
+    }
+
+    /**
+     * Returns the human-readable description of the item type.
+     *
+     * @return The description of the item type
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Returns how many units of one item of this type fit in a single inventory slot.
+     *
+     * @return The maximum stack size, at least 1
+     */
+    public int getMaxStack() {
+        return maxStack;
+    }
+
+    /**
+     * Parses an item type name, ignoring case and surrounding whitespace.
+     *
+     * @param name The type name, e.g. {@code "RESOURCE"}
+     * @return The matching item type
+     * @throws IllegalArgumentException if the name is empty or not a known type
+     */
+    public static ItemType fromString(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Item type cannot be empty");
+        }
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown item type: " + name.trim());
+        }
+    }
+}
@@ -2,15 +2,25 @@ package main.java.com.spaceexplorer.model;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 /**
  * Represents a player in the Space Explorer game.
  * Players can explore sectors, collect resources, manage inventory,
  * and interact with various space objects in the game world.
  *
+ * The inventory stacks units of the same item: it maps each item name to a
+ * count, so adding, removing and counting items takes constant time however
+ * many units a player carries. Capacity is counted in slots, each holding up
+ * to {@link ItemType#getMaxStack()} units of one item.
+ *
  * @author Space Explorer Development Team
  * @version 1.0
  * @since 1.0
@@ -36,7 +46,7 @@ public class Player {
     /** Current health level (0-100) */
     private int health;
 
-    /** Maximum number of items the player can carry */
+    /** Maximum number of inventory slots the player can use */
     private int inventorySize;
 
     /** Current sector location */
@@ -45,8 +55,17 @@ public class Player {
     /** Current planet or object location */
     private String currentPlanet;
 
-    /** List of items in player's inventory */
-    private List<Item> inventory;
+    /** Inventory stacks keyed by item name, in the order the items were first added */
+    private final Map<String, Slot> inventory = new LinkedHashMap<>();
+
+    /** Total number of item units in the inventory */
+    private int itemCount;
+
+    /** Number of inventory slots the stacks occupy */
+    private int usedSlots;
+
+    /** Read-only view of the inventory with one entry per item unit */
+    private final List<Item> inventoryView = new InventoryView();
 
     /**
      * Creates a new Player with default health and inventory size.
@@ -54,7 +73,6 @@ public class Player {
     public Player() {
         this.health = DEFAULT_HEALTH;
         this.inventorySize = DEFAULT_INVENTORY_SIZE;
-        this.inventory = new ArrayList<>();
     }
 
     /**
@@ -69,6 +87,26 @@ public class Player {
         this.password = password;
     }
 
+    /**
+     * Returns a copy of this player with its own inventory, so changes to one
+     * do not affect the other. Immutable inventory items, such as shared
+     * catalog items, are shared by both; other items are copied.
+     *
+     * @return A copy of this player
+     */
+    public Player copy() {
+        Player copy = new Player(username, password);
+        copy.id = id;
+        copy.health = health;
+        copy.inventorySize = inventorySize;
+        copy.currentSector = currentSector;
+        copy.currentPlanet = currentPlanet;
+        for (Slot slot : inventory.values()) {
+            copy.putItem(slot.item.immutableCopy(), slot.count);
+        }
+        return copy;
+    }
+
     /**
      * Gets the player's unique identifier.
      *
@@ -160,7 +198,7 @@ public class Player {
     /**
      * Gets the player's maximum inventory size.
      *
-     * @return The maximum number of items the player can carry
+     * @return The maximum number of inventory slots the player can use
      */
     public int getInventorySize() {
         return inventorySize;
@@ -216,53 +254,321 @@ public class Player {
     }
 
     /**
-     * Gets a copy of the player's inventory.
+     * Gets a copy of the player's inventory, with one entry per item unit.
      *
      * @return A new ArrayList containing all items in the inventory
      */
     public List<Item> getInventory() {
-        return new ArrayList<>(inventory);
+        List<Item> items = new ArrayList<>(itemCount);
+        forEachInventoryItem(items::add);
+        return items;
     }
 
     /**
-     * Sets the player's inventory contents.
+     * Sets the player's inventory contents. Equal items in the list are
+     * combined into one stack.
      *
-     * @param inventory The new inventory list
+     * @param inventory The new inventory list, with one entry per item unit
      * @throws NullPointerException if inventory is null
      */
     public void setInventory(List<Item> inventory) {
-        this.inventory = new ArrayList<>(Objects.requireNonNull(inventory, "Inventory cannot be null"));
+        Objects.requireNonNull(inventory, "Inventory cannot be null");
+        clearInventory();
+        for (Item item : inventory) {
+            putItem(Objects.requireNonNull(item, "Item cannot be null"), 1);
+        }
+    }
+
+    /**
+     * Returns the player's inventory as stacks, in the order the items were first added.
+     *
+     * @return A new list with one stack per distinct item
+     */
+    public List<ItemStack> inventoryStacks() {
+        List<ItemStack> stacks = new ArrayList<>(inventory.size());
+        for (Slot slot : inventory.values()) {
+            stacks.add(new ItemStack(slot.item, slot.count));
+        }
+        return stacks;
+    }
+
+    /**
+     * Sets the player's inventory from stacks. Stacks of equal items are combined.
+     *
+     * @param stacks The new inventory stacks
+     * @throws NullPointerException if stacks is null
+     */
+    public void setInventoryStacks(List<ItemStack> stacks) {
+        Objects.requireNonNull(stacks, "Inventory cannot be null");
+        clearInventory();
+        for (ItemStack stack : stacks) {
+            putItem(stack.getItem(), stack.getCount());
+        }
+    }
+
+    /**
+     * Returns a read-only view of the player's inventory, with one entry per item unit.
+     * Unlike {@link #getInventory()} this does not copy the items.
+     *
+     * @return Unmodifiable view of the inventory
+     */
+    public List<Item> inventoryView() {
+        return inventoryView;
     }
 
     /**
-     * Adds an item to the player's inventory.
+     * Returns the number of item units in the player's inventory.
+     *
+     * @return The item count
+     */
+    public int inventoryCount() {
+        return itemCount;
+    }
+
+    /**
+     * Returns the number of inventory slots in use. Each slot holds up to
+     * {@link ItemType#getMaxStack()} units of one item; the player can use
+     * up to {@link #getInventorySize()} slots.
+     *
+     * @return The used slot count
+     */
+    public int usedInventorySlots() {
+        return usedSlots;
+    }
+
+    /**
+     * Returns how many units of an item the player carries.
+     *
+     * @param item The item, matched by name
+     * @return The unit count, 0 if the player has none
+     */
+    public int itemCount(Item item) {
+        Slot slot = inventory.get(item.getName());
+        return slot != null ? slot.count : 0;
+    }
+
+    /**
+     * Checks if the player carries at least one unit of an item.
+     *
+     * @param item The item, matched by name
+     * @return true if the item is in the inventory
+     */
+    public boolean hasItem(Item item) {
+        return inventory.containsKey(item.getName());
+    }
+
+    /**
+     * Checks if units of an item fit into the inventory, either on top of a
+     * stack of the same item or into free slots.
+     *
+     * @param item The item to add
+     * @param quantity Number of units to add
+     * @return true if {@link #addItem(Item, int)} would succeed; false also if
+     *         the unit counts would exceed {@link Integer#MAX_VALUE}
+     */
+    public boolean hasRoomFor(Item item, int quantity) {
+        Slot slot = inventory.get(item.getName());
+        int current = slot != null ? slot.count : 0;
+        long total = (long) current + quantity;
+        if (total > Integer.MAX_VALUE || (long) itemCount + quantity > Integer.MAX_VALUE) {
+            return false;
+        }
+        int maxStack = maxStack(slot != null ? slot.item : item);
+        long neededSlots = slotsFor(total, maxStack) - slotsFor(current, maxStack);
+        return usedSlots + neededSlots <= inventorySize;
+    }
+
+    /**
+     * Returns the inventory item at the given position of the expanded inventory.
+     * Takes time proportional to the number of stacks.
+     *
+     * @param index Position of the item, from 0 to {@link #inventoryCount()} - 1
+     * @return The item at that position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public Item inventoryItemAt(int index) {
+        if (index < 0 || index >= itemCount) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + itemCount);
+        }
+        int remaining = index;
+        for (Slot slot : inventory.values()) {
+            if (remaining < slot.count) {
+                return slot.item;
+            }
+            remaining -= slot.count;
+        }
+        throw new IllegalStateException("Inventory count out of sync");
+    }
+
+    /**
+     * Performs the given action for each item unit in the player's inventory.
+     *
+     * @param action The action to perform
+     */
+    public void forEachInventoryItem(Consumer<? super Item> action) {
+        for (Slot slot : inventory.values()) {
+            for (int i = 0; i < slot.count; i++) {
+                action.accept(slot.item);
+            }
+        }
+    }
+
+    /**
+     * Adds one unit of an item to the player's inventory.
      *
      * @param item The item to add
      * @throws NullPointerException if item is null
      * @throws IllegalStateException if the inventory is full
      */
     public void addItem(Item item) {
+        addItem(item, 1);
+    }
+
+    /**
+     * Adds units of an item to the player's inventory, stacking them with
+     * units of the same item already carried.
+     *
+     * @param item The item to add
+     * @param quantity Number of units to add
+     * @throws NullPointerException if item is null
+     * @throws IllegalArgumentException if quantity is less than 1
+     * @throws IllegalStateException if the units do not fit into the free slots
+     */
+    public void addItem(Item item, int quantity) {
         Objects.requireNonNull(item, "Item cannot be null");
-        if (inventory.size() >= inventorySize) {
+        if (quantity < 1) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        if (!hasRoomFor(item, quantity)) {
             logger.warn("Cannot add item '{}': Inventory is full", item.getName());
             throw new IllegalStateException("Inventory is full");
         }
-        inventory.add(item);
-        logger.debug("Added item '{}' to player '{}'s inventory", item.getName(), username);
+        putItem(item, quantity);
+        logger.debug("Added {} x '{}' to player '{}'s inventory", quantity, item.getName(), username);
     }
 
     /**
-     * Removes an item from the player's inventory.
+     * Removes one unit of an item from the player's inventory.
      *
-     * @param item The item to remove
+     * @param item The item to remove, matched by name
      * @throws NullPointerException if item is null
      */
     public void removeItem(Item item) {
+        removeItem(item, 1);
+    }
+
+    /**
+     * Removes up to the given number of units of an item from the player's inventory.
+     *
+     * @param item The item to remove, matched by name
+     * @param quantity Number of units to remove
+     * @return Number of units actually removed
+     * @throws NullPointerException if item is null
+     * @throws IllegalArgumentException if quantity is less than 1
+     */
+    public int removeItem(Item item, int quantity) {
         Objects.requireNonNull(item, "Item cannot be null");
-        if (inventory.remove(item)) {
-            logger.debug("Removed item '{}' from player '{}'s inventory", item.getName(), username);
-        } else {
+        if (quantity < 1) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        Slot slot = inventory.get(item.getName());
+        if (slot == null) {
             logger.warn("Item '{}' not found in player '{}'s inventory", item.getName(), username);
+            return 0;
+        }
+        int removed = Math.min(quantity, slot.count);
+        int maxStack = maxStack(slot.item);
+        usedSlots -= slotsFor(slot.count, maxStack) - slotsFor(slot.count - removed, maxStack);
+        itemCount -= removed;
+        slot.count -= removed;
+        if (slot.count == 0) {
+            inventory.remove(item.getName());
+        }
+        logger.debug("Removed {} x '{}' from player '{}'s inventory", removed, item.getName(), username);
+        return removed;
+    }
+
+    /**
+     * Adds units of an item without checking capacity, as when restoring a saved inventory.
+     *
+     * @throws ArithmeticException if the unit count would exceed {@link Integer#MAX_VALUE}
+     */
+    private void putItem(Item item, int quantity) {
+        // A stack never holds more units than the whole inventory, so this also bounds it
+        int newItemCount = Math.addExact(itemCount, quantity);
+        Slot slot = inventory.get(item.getName());
+        if (slot == null) {
+            slot = new Slot(item);
+            inventory.put(item.getName(), slot);
+        }
+        int maxStack = maxStack(slot.item);
+        usedSlots += slotsFor(slot.count + quantity, maxStack) - slotsFor(slot.count, maxStack);
+        itemCount = newItemCount;
+        slot.count += quantity;
+    }
+
+    private void clearInventory() {
+        inventory.clear();
+        itemCount = 0;
+        usedSlots = 0;
+    }
+
+    private static int maxStack(Item item) {
+        return item.itemType() != null ? item.itemType().getMaxStack() : 1;
+    }
+
+    private static int slotsFor(long count, int maxStack) {
+        return (int) ((count + maxStack - 1) / maxStack);
+    }
+
+    /**
+     * Units of one item held in the inventory.
+     */
+    private static final class Slot {
+        private final Item item;
+        private int count;
+
+        Slot(Item item) {
+            this.item = item;
+        }
+    }
+
+    /**
+     * Read-only list view of the inventory with one entry per item unit.
+     */
+    private final class InventoryView extends AbstractList<Item> {
+        @Override
+        public Item get(int index) {
+            return inventoryItemAt(index);
+        }
+
+        @Override
+        public int size() {
+            return itemCount;
+        }
+
+        @Override
+        public Iterator<Item> iterator() {
+            Iterator<Slot> slots = inventory.values().iterator();
+            return new Iterator<Item>() {
+                private Slot slot;
+                private int remaining;
+
+                @Override
+                public boolean hasNext() {
+                    return remaining > 0 || slots.hasNext();
+                }
+
+                @Override
+                public Item next() {
+                    if (remaining == 0) {
+                        slot = slots.next();
+                        remaining = slot.count;
+                    }
+                    remaining--;
+                    return slot.item;
+                }
+            };
         }
     }
 
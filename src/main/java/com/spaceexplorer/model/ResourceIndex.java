@@ -0,0 +1,164 @@
+package main.java.com.spaceexplorer.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inverted index from resource types to the locations that offer them.
+ * Each resource type maps to a posting list of {@link ResourceLocation}s in
+ * the order their sectors were indexed, so "where can I find X" is answered
+ * without walking the map.
+ *
+ * Multi-resource queries use the resource bitmask of each space object
+ * (see {@link SpaceObject#resourceMask()}): an AND query walks only the
+ * shortest posting list among the requested types, and an OR query merges the
+ * posting lists, reporting each location once.
+ *
+ * The index is maintained by {@link GameMap} and is not thread-safe.
+ *
+ * @author Space Explorer Development Team
+ * @version 1.0
+ * @since 1.1
+ */
+public class ResourceIndex {
+    /** Posting lists keyed by resource type */
+    private final Map<ResourceType, List<ResourceLocation>> locations = new EnumMap<>(ResourceType.class);
+
+    /**
+     * Adds every space object of a sector to the posting lists of its
+     * resources, once per resource type.
+     *
+     * @param sector The sector to add
+     */
+    void add(Sector sector) {
+        if (sector.getObjects() == null) {
+            return;
+        }
+        for (SpaceObject object : sector.getObjects()) {
+            if (object == null) {
+                continue;
+            }
+            ResourceLocation location = new ResourceLocation(sector, object);
+            // The mask lists a resource once even if the object's list repeats it
+            for (ResourceType resource : ResourceType.fromMask(object.resourceMask())) {
+                locations.computeIfAbsent(resource, r -> new ArrayList<>()).add(location);
+            }
+        }
+    }
+
+    /**
+     * Removes every location in a sector from the posting lists.
+     *
+     * @param sector The sector to remove
+     */
+    void remove(Sector sector) {
+        if (sector.getObjects() == null) {
+            return;
+        }
+        long mask = 0;
+        for (SpaceObject object : sector.getObjects()) {
+            if (object != null) {
+                mask |= object.resourceMask();
+            }
+        }
+        for (ResourceType resource : ResourceType.fromMask(mask)) {
+            List<ResourceLocation> list = locations.get(resource);
+            if (list != null) {
+                list.removeIf(location -> location.getSector() == sector);
+                if (list.isEmpty()) {
+                    locations.remove(resource);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all locations from the index.
+     */
+    void clear() {
+        locations.clear();
+    }
+
+    /**
+     * Finds all locations offering a resource.
+     *
+     * @param resource The resource to look for
+     * @return Unmodifiable view of the matching locations, empty if none
+     */
+    public List<ResourceLocation> find(ResourceType resource) {
+        List<ResourceLocation> list = resource == null ? null : locations.get(resource);
+        return list == null ? List.of() : Collections.unmodifiableList(list);
+    }
+
+    /**
+     * Returns the number of locations offering a resource.
+     *
+     * @param resource The resource to count
+     * @return The number of matching locations
+     */
+    public int count(ResourceType resource) {
+        List<ResourceLocation> list = resource == null ? null : locations.get(resource);
+        return list == null ? 0 : list.size();
+    }
+
+    /**
+     * Finds the locations offering all of the given resources.
+     *
+     * @param resources The required resources
+     * @return New list of matching locations; empty if resources is empty
+     */
+    public List<ResourceLocation> findWithAll(Collection<ResourceType> resources) {
+        long mask = ResourceType.maskOf(resources);
+        if (mask == 0) {
+            return new ArrayList<>();
+        }
+        List<ResourceLocation> shortest = null;
+        for (ResourceType resource : ResourceType.fromMask(mask)) {
+            List<ResourceLocation> list = locations.get(resource);
+            if (list == null) {
+                return new ArrayList<>();
+            }
+            if (shortest == null || list.size() < shortest.size()) {
+                shortest = list;
+            }
+        }
+        List<ResourceLocation> result = new ArrayList<>();
+        for (ResourceLocation location : shortest) {
+            if (location.getSpaceObject().hasAllResources(mask)) {
+                result.add(location);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the locations offering at least one of the given resources.
+     * Each location is reported once, grouped by the first requested resource
+     * (in declaration order) that it offers.
+     *
+     * @param resources The wanted resources
+     * @return New list of matching locations; empty if resources is empty
+     */
+    public List<ResourceLocation> findWithAny(Collection<ResourceType> resources) {
+        long mask = ResourceType.maskOf(resources);
+        List<ResourceLocation> result = new ArrayList<>();
+        for (ResourceType resource : ResourceType.fromMask(mask)) {
+            List<ResourceLocation> list = locations.get(resource);
+            if (list == null) {
+                continue;
+            }
+            long lowerBits = mask & (resource.mask() - 1);
+            for (ResourceLocation location : list) {
+                // Skip locations already reported under a lower requested resource
+                if (!location.getSpaceObject().hasAnyResource(lowerBits)) {
+                    result.add(location);
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,93 @@
+package main.java.com.spaceexplorer.model;
+
+import java.util.Objects;
+
+/**
+ * Reference to a space object together with the sector that contains it.
+ * Returned by {@link ResourceIndex} queries so that callers know where a
+ * resource can be found without searching the map.
+ *
+ * @author Space Explorer Development Team
+ * @version 1.0
+ * @since 1.1
+ */
+public final class ResourceLocation {
+    /** The sector containing the space object */
+    private final Sector sector;
+
+    /** The space object offering the resources */
+    private final SpaceObject spaceObject;
+
+    /**
+     * Creates a new ResourceLocation.
+     *
+     * @param sector The sector containing the space object
+     * @param spaceObject The space object
+     * @throws NullPointerException if sector or spaceObject is null
+     */
+    public ResourceLocation(Sector sector, SpaceObject spaceObject) {
+        this.sector = Objects.requireNonNull(sector, "Sector cannot be null");
+        this.spaceObject = Objects.requireNonNull(spaceObject, "Space object cannot be null");
+    }
+
+    /**
+     * Gets the sector containing the space object.
+     *
+     * @return The sector
+     */
+    public Sector getSector() {
+        return sector;
+    }
+
+    /**
+     * Gets the ID of the sector containing the space object.
+     *
+     * @return The sector ID
+     */
+    public String getSectorId() {
+        return sector.getId();
+    }
+
+    /**
+     * Gets the space object.
+     *
+     * @return The space object
+     */
+    public SpaceObject getSpaceObject() {
+        return spaceObject;
+    }
+
+    /**
+     * Checks if this location refers to the same sector and space object as another.
+     *
+     * @param o The object to compare with
+     * @return true if both refer to the same instances, false otherwise
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ResourceLocation)) return false;
+        ResourceLocation that = (ResourceLocation) o;
+        return sector == that.sector && spaceObject == that.spaceObject;
+    }
+
+    /**
+     * Generates a hash code for this location.
+     *
+     * @return The hash code value for this location
+     */
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(sector) + System.identityHashCode(spaceObject);
+    }
+
+    /**
+     * Returns a string representation of this location.
+     *
+     * @return The sector ID and object name
+     */
+    @Override
+    public String toString() {
+        return getSectorId() + "/" + spaceObject.getName();
+    }
+}
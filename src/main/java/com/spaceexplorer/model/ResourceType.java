@@ -1,9 +1,14 @@
 package main.java.com.spaceexplorer.model;
 
+import java.util.Collection;
+import java.util.EnumSet;
+
 /**
  * Enumeration of available resource types in the game.
  * Resources can be collected by players from various space objects.
  * Each resource type has a description that provides more detail about the resource.
+ * Sets of resource types can be represented as a {@code long} bitmask with bit
+ * {@code ordinal()} set for each member, which supports up to 64 types.
  *
  * @author Space Explorer Development Team
  * @version 1.0
@@ -67,4 +72,43 @@ public enum ResourceType {
     public String getDescription() {
         return description;
     }
+
+    /**
+     * Returns the bitmask with only this resource type's bit set.
+     *
+     * @return {@code 1L << ordinal()}
+     */
+    public long mask() {
+        return 1L << ordinal();
+    }
+
+    /**
+     * Builds the bitmask of a collection of resource types.
+     *
+     * @param resources The resource types
+     * @return Bitmask with the bit of each given resource type set
+     */
+    public static long maskOf(Collection<ResourceType> resources) {
+        long mask = 0;
+        for (ResourceType resource : resources) {
+            mask |= resource.mask();
+        }
+        return mask;
+    }
+
+    /**
+     * Converts a bitmask back into a set of resource types.
+     *
+     * @param mask Bitmask of resource types
+     * @return A new set with the resource types whose bits are set
+     */
+    public static EnumSet<ResourceType> fromMask(long mask) {
+        EnumSet<ResourceType> resources = EnumSet.noneOf(ResourceType.class);
+        for (ResourceType resource : values()) {
+            if ((mask & resource.mask()) != 0) {
+                resources.add(resource);
+            }
+        }
+        return resources;
+    }
 }
\ No newline at end of file
@@ -2,13 +2,25 @@ package main.java.com.spaceexplorer.model;
 
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 /**
  * Represents a celestial object in the game such as a planet, asteroid, or space station.
  * Space objects are the primary entities that players can explore and interact with.
  * Each object can contain resources for collection and interesting facts for discovery.
  *
+ * The list getters return defensive copies; read-only views, counts and
+ * {@code forEach} visitors are available for allocation-free access.
+ *
+ * Resources are kept as the list they were set with, in the order of the
+ * game map data, together with their bitmask (see {@link ResourceType#mask()}),
+ * so membership and set queries are constant-time while the list, its order
+ * and the serialized JSON array of names stay as they were.
+ *
  * @author Space Explorer Development Team
  * @version 1.0
  * @since 1.0
@@ -26,15 +38,26 @@ public class SpaceObject {
     /** List of resources available for collection from this object */
     private List<ResourceType> resources;
 
+    /** Bitmask of {@link #resources}, for membership and set queries */
+    private long resourceMask;
+
     /** List of interesting facts about this space object */
     private List<String> facts;
 
+    /** Read-only view of the resources list */
+    private List<ResourceType> resourcesView;
+
+    /** Read-only view of the facts list */
+    private List<String> factsView;
+
     /**
      * Creates a new SpaceObject with empty resource and fact lists.
      */
     public SpaceObject() {
         this.resources = new ArrayList<>();
         this.facts = new ArrayList<>();
+        this.resourcesView = Collections.unmodifiableList(resources);
+        this.factsView = Collections.unmodifiableList(facts);
     }
 
     /**
@@ -107,12 +130,116 @@ public class SpaceObject {
 
     /**
      * Sets the list of resources available from this object.
+     * The list is kept in the given order, including any duplicates.
      *
      * @param resources The new list of resources
-     * @throws NullPointerException if resources is null
+     * @throws NullPointerException if resources is null or contains null
      */
     public void setResources(List<ResourceType> resources) {
-        this.resources = new ArrayList<>(Objects.requireNonNull(resources, "Resources list cannot be null"));
+        Objects.requireNonNull(resources, "Resources list cannot be null");
+        List<ResourceType> list = new ArrayList<>(resources.size());
+        for (ResourceType resource : resources) {
+            list.add(Objects.requireNonNull(resource, "Resource cannot be null"));
+        }
+        this.resources = list;
+        this.resourceMask = ResourceType.maskOf(list);
+        this.resourcesView = Collections.unmodifiableList(list);
+    }
+
+    /**
+     * Returns a read-only view of the resources available from this object.
+     *
+     * @return Unmodifiable view of the resources
+     */
+    public List<ResourceType> resourcesView() {
+        return resourcesView;
+    }
+
+    /**
+     * Returns the number of resources available from this object.
+     *
+     * @return The resource count
+     */
+    public int resourceCount() {
+        return resources.size();
+    }
+
+    /**
+     * Performs the given action for each resource available from this object.
+     *
+     * @param action The action to perform
+     */
+    public void forEachResource(Consumer<? super ResourceType> action) {
+        resources.forEach(action);
+    }
+
+    /**
+     * Checks whether a resource is available from this object.
+     *
+     * @param resource The resource to check
+     * @return true if the resource is available
+     */
+    public boolean hasResource(ResourceType resource) {
+        return resource != null && (resourceMask & resource.mask()) != 0;
+    }
+
+    /**
+     * Returns the bitmask of the resources available from this object.
+     *
+     * @return Bitmask with bit {@code ordinal()} set for each available resource
+     */
+    public long resourceMask() {
+        return resourceMask;
+    }
+
+    /**
+     * Checks whether all of the given resources are available from this object.
+     *
+     * @param mask Bitmask of the required resources
+     * @return true if every resource in the mask is available
+     */
+    public boolean hasAllResources(long mask) {
+        return (resourceMask & mask) == mask;
+    }
+
+    /**
+     * Checks whether all of the given resources are available from this object.
+     *
+     * @param required The required resources
+     * @return true if every required resource is available
+     */
+    public boolean hasAllResources(Collection<ResourceType> required) {
+        return hasAllResources(ResourceType.maskOf(required));
+    }
+
+    /**
+     * Checks whether at least one of the given resources is available from this object.
+     *
+     * @param mask Bitmask of the wanted resources
+     * @return true if any resource in the mask is available
+     */
+    public boolean hasAnyResource(long mask) {
+        return (resourceMask & mask) != 0;
+    }
+
+    /**
+     * Checks whether at least one of the given resources is available from this object.
+     *
+     * @param wanted The wanted resources
+     * @return true if any wanted resource is available
+     */
+    public boolean hasAnyResource(Collection<ResourceType> wanted) {
+        return hasAnyResource(ResourceType.maskOf(wanted));
+    }
+
+    /**
+     * Returns the resources available from both this object and another one.
+     *
+     * @param other The object to compare with
+     * @return A new set with the shared resources
+     */
+    public EnumSet<ResourceType> sharedResources(SpaceObject other) {
+        return ResourceType.fromMask(resourceMask & other.resourceMask);
     }
 
     /**
@@ -132,6 +259,34 @@ public class SpaceObject {
      */
     public void setFacts(List<String> facts) {
         this.facts = new ArrayList<>(Objects.requireNonNull(facts, "Facts list cannot be null"));
+        this.factsView = Collections.unmodifiableList(this.facts);
+    }
+
+    /**
+     * Returns a read-only view of the interesting facts about this object.
+     *
+     * @return Unmodifiable view of the facts
+     */
+    public List<String> factsView() {
+        return factsView;
+    }
+
+    /**
+     * Returns the number of facts about this object.
+     *
+     * @return The fact count
+     */
+    public int factCount() {
+        return facts.size();
+    }
+
+    /**
+     * Performs the given action for each fact about this object.
+     *
+     * @param action The action to perform
+     */
+    public void forEachFact(Consumer<? super String> action) {
+        facts.forEach(action);
     }
 
     /**
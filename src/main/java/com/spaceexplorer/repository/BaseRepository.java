@@ -1,16 +1,54 @@
 package main.java.com.spaceexplorer.repository;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Abstract base class for repositories providing common file I/O operations.
- * Implements JSON-based persistence using Jackson ObjectMapper.
+ * Implements JSON-based persistence using the shared Jackson mapper and the
+ * cached per-type readers and writers of {@link JsonMappers}.
+ *
+ * By default every mutation is written through to the file immediately.
+ * Repositories can opt in to write-behind mode with {@link #enableWriteBehind(long)}:
+ * mutations then only mark the repository dirty, bursts of changes are coalesced,
+ * and the latest state is flushed by a background scheduler within the configured delay.
+ *
+ * Files are encoded by a {@link StorageCodec} chosen from the file extension,
+ * JSON by default or the compact binary format for {@code .sxb} files.
+ *
+ * Collections are streamed in both directions: {@link #readArrayFromFile(Class, Consumer)}
+ * binds one array element at a time, and {@link #writeToFile(Object)} serializes
+ * any {@link Iterable} element by element through a fixed-size buffer, so neither
+ * side needs the whole document in memory at once.
  *
  * @param <T> The type of entity managed by this repository
  *
@@ -19,44 +57,339 @@ import java.io.IOException;
  * @since 1.0
  */
 public abstract class BaseRepository<T> {
-    /** Jackson ObjectMapper for JSON serialization/deserialization */
+    /** Shared Jackson ObjectMapper for JSON serialization/deserialization */
     protected final ObjectMapper mapper;
 
-    /** Path to the JSON file storing the repository data */
+    /** Path to the file storing the repository data */
     protected final String filePath;
 
+    /** Encoding of the repository file */
+    protected final StorageCodec codec;
+
     /** Logger instance for this repository */
     protected final Logger logger;
 
+    /** Scheduler shared by all repositories for write-behind flushes */
+    private static final ScheduledExecutorService FLUSH_SCHEDULER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "repository-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** Serializes writes so a background flush never races an explicit one */
+    private final Object writeLock = new Object();
+
+    /** Supplier of the latest unsaved state, or null if the repository is clean */
+    private final AtomicReference<Supplier<?>> pendingWrite = new AtomicReference<>();
+
+    /** Whether a background flush is already scheduled */
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    /** Maximum delay before dirty data is flushed; zero means write-through */
+    private volatile long writeBehindDelayMillis;
+
+    /** Hook flushing pending writes when the JVM shuts down */
+    private Thread shutdownHook;
+
+    /** How much fsync work each write performs */
+    private volatile Durability durability = Durability.DATA;
+
+    /** Write and fsync counters for this repository */
+    private final WriteMetrics writeMetrics = new WriteMetrics();
+
+    /** Size of the buffer between the JSON generator and the file channel */
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
     /**
      * Creates a new BaseRepository with the specified file path.
+     * The storage format is chosen from the file extension.
      *
-     * @param filePath Path to the JSON file for data storage
+     * @param filePath Path to the file for data storage
      */
     protected BaseRepository(String filePath) {
-        this.mapper = new ObjectMapper();
+        this(filePath, StorageCodec.forFile(filePath));
+    }
+
+    /**
+     * Creates a new BaseRepository with the specified file path and storage format.
+     *
+     * @param filePath Path to the file for data storage
+     * @param codec Encoding of the file
+     * @throws NullPointerException if codec is null
+     */
+    protected BaseRepository(String filePath, StorageCodec codec) {
+        this.mapper = JsonMappers.mapper();
         this.filePath = filePath;
+        this.codec = Objects.requireNonNull(codec, "Codec cannot be null");
         this.logger = LoggerFactory.getLogger(getClass());
     }
 
     /**
-     * Writes data to the repository's JSON file.
+     * Gets the encoding of the repository file.
+     *
+     * @return The storage codec
+     */
+    public StorageCodec getCodec() {
+        return codec;
+    }
+
+    /**
+     * Gets the durability level used for writes.
+     *
+     * @return The current durability level
+     */
+    public Durability getDurability() {
+        return durability;
+    }
+
+    /**
+     * Sets the durability level used for writes.
+     *
+     * @param durability The new durability level
+     * @throws NullPointerException if durability is null
+     */
+    public void setDurability(Durability durability) {
+        this.durability = Objects.requireNonNull(durability, "Durability cannot be null");
+    }
+
+    /**
+     * Gets the write and fsync counters for this repository.
+     *
+     * @return The write metrics
+     */
+    public WriteMetrics getWriteMetrics() {
+        return writeMetrics;
+    }
+
+    /**
+     * Switches this repository to write-behind mode.
+     * Mutations are coalesced and flushed at most {@code maxDelayMillis} after
+     * the first unsaved change. Pending data is also flushed on JVM shutdown.
+     *
+     * @param maxDelayMillis Maximum time dirty data may stay unsaved, in milliseconds
+     * @throws IllegalArgumentException if maxDelayMillis is not positive
+     */
+    public synchronized void enableWriteBehind(long maxDelayMillis) {
+        if (maxDelayMillis <= 0) {
+            throw new IllegalArgumentException("Write-behind delay must be positive");
+        }
+        writeBehindDelayMillis = maxDelayMillis;
+        if (shutdownHook == null) {
+            shutdownHook = new Thread(this::flush, "repository-flush-on-exit");
+            Runtime.getRuntime().addShutdownHook(shutdownHook);
+        }
+        logger.info("Write-behind enabled for {} with max delay {} ms", filePath, maxDelayMillis);
+    }
+
+    /**
+     * Switches this repository back to write-through mode, flushing any pending data first.
+     */
+    public synchronized void disableWriteBehind() {
+        writeBehindDelayMillis = 0;
+        flush();
+        if (shutdownHook != null) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // JVM is already shutting down; the hook will flush
+            }
+            shutdownHook = null;
+        }
+    }
+
+    /**
+     * Checks whether this repository is in write-behind mode.
+     *
+     * @return true if writes are deferred, false if they are written through
+     */
+    public boolean isWriteBehindEnabled() {
+        return writeBehindDelayMillis > 0;
+    }
+
+    /**
+     * Checks whether this repository has changes that are not yet written to disk.
+     *
+     * @return true if a write is pending
+     */
+    public boolean isDirty() {
+        return pendingWrite.get() != null;
+    }
+
+    /**
+     * Writes any pending changes to disk immediately.
+     * Does nothing if the repository is clean.
+     *
+     * @throws RuntimeException if an I/O error occurs during writing
+     */
+    public void flush() {
+        synchronized (writeLock) {
+            Supplier<?> snapshot = pendingWrite.getAndSet(null);
+            if (snapshot == null) {
+                return;
+            }
+            try {
+                writeToFile(snapshot.get());
+            } catch (RuntimeException e) {
+                // Keep the data dirty so the next flush retries, unless newer data replaced it
+                pendingWrite.compareAndSet(null, snapshot);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Persists the repository state produced by {@code snapshot}.
+     * In write-through mode the data is written immediately; in write-behind mode
+     * the repository is marked dirty and the snapshot is taken when the flush runs,
+     * so several mutations within the delay result in a single write.
+     *
+     * @param snapshot Supplier of the data to serialize
+     */
+    protected void scheduleWrite(Supplier<?> snapshot) {
+        long delay = writeBehindDelayMillis;
+        pendingWrite.set(snapshot);
+        if (delay <= 0) {
+            flush();
+            return;
+        }
+        if (flushScheduled.compareAndSet(false, true)) {
+            FLUSH_SCHEDULER.schedule(this::backgroundFlush, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Flush task run by the scheduler. Failures are logged and retried after another delay.
+     */
+    private void backgroundFlush() {
+        flushScheduled.set(false);
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.error("Background flush of {} failed, will retry: {}", filePath, e.getMessage());
+            if (isWriteBehindEnabled() && flushScheduled.compareAndSet(false, true)) {
+                FLUSH_SCHEDULER.schedule(this::backgroundFlush, writeBehindDelayMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Writes data to the repository's file.
+     * The data is written to a temporary file that atomically replaces the target.
+     * An {@link Iterable} is written as an array one element at a time.
      *
      * @param data The object to serialize and save
      * @throws RuntimeException if an I/O error occurs during writing
      */
     protected void writeToFile(Object data) {
+        Path target = Paths.get(filePath).toAbsolutePath();
+        Path temp = null;
         try {
-            mapper.writeValue(new File(filePath), data);
+            Path directory = target.getParent();
+            Files.createDirectories(directory);
+            temp = Files.createTempFile(directory, target.getFileName() + ".", ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), WRITE_BUFFER_SIZE);
+                try (JsonGenerator generator = codec.createGenerator(out)) {
+                    if (data instanceof Iterable) {
+                        writeArray(generator, (Iterable<?>) data);
+                    } else {
+                        JsonMappers.writer().writeValue(generator, data);
+                    }
+                }
+                out.flush();
+                force(channel);
+                writeMetrics.recordWrite(channel.size());
+            }
+            replace(temp, target);
+            temp = null;
             logger.info("Data successfully written to {}", filePath);
         } catch (IOException e) {
             logger.error("Error writing to file: {}", e.getMessage());
             throw new RuntimeException("Error saving data", e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    logger.warn("Could not remove temporary file {}: {}", temp, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Streams the elements of an iterable as an array, using the cached
+     * writer of each element's class. The shared mapper does not flush after
+     * each value, so elements only reach the channel when the buffer fills.
+     *
+     * @param generator The generator to write to
+     * @param elements The elements to write
+     * @throws IOException if an I/O error occurs during writing
+     */
+    private void writeArray(JsonGenerator generator, Iterable<?> elements) throws IOException {
+        generator.writeStartArray();
+        Class<?> lastType = null;
+        ObjectWriter writer = null;
+        for (Object element : elements) {
+            if (element == null) {
+                generator.writeNull();
+                continue;
+            }
+            if (element.getClass() != lastType) {
+                lastType = element.getClass();
+                writer = JsonMappers.writerFor(lastType);
+            }
+            writer.writeValue(generator, element);
         }
+        generator.writeEndArray();
     }
 
     /**
-     * Reads and deserializes data from the repository's JSON file.
+     * Forces the channel's contents to disk as required by the durability level,
+     * recording the time spent in the write metrics.
+     *
+     * @param channel The channel to force
+     * @throws IOException if the fsync fails
+     */
+    protected void force(FileChannel channel) throws IOException {
+        Durability level = durability;
+        if (level == Durability.NONE) {
+            return;
+        }
+        long start = System.nanoTime();
+        channel.force(level == Durability.DATA_AND_METADATA);
+        writeMetrics.recordFsync(System.nanoTime() - start);
+    }
+
+    /**
+     * Renames the temporary file over the target, atomically where the file system allows it.
+     * With {@link Durability#DATA_AND_METADATA} the directory is forced so the rename itself is durable.
+     *
+     * @param temp The fully written temporary file
+     * @param target The file to replace
+     * @throws IOException if the rename fails
+     */
+    private void replace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            logger.warn("Atomic rename not supported for {}, falling back to plain replace", target);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        if (durability == Durability.DATA_AND_METADATA) {
+            try (FileChannel dir = FileChannel.open(target.getParent(), StandardOpenOption.READ)) {
+                long start = System.nanoTime();
+                dir.force(true);
+                writeMetrics.recordFsync(System.nanoTime() - start);
+            } catch (IOException e) {
+                // Some platforms cannot open or sync directories
+                logger.debug("Could not sync directory of {}: {}", target, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Reads and deserializes data from the repository's file.
      *
      * @param <R> The type to deserialize the data into
      * @param type The class of the type to deserialize into
@@ -70,7 +403,7 @@ public abstract class BaseRepository<T> {
                 logger.warn("File {} does not exist", filePath);
                 return null;
             }
-            return mapper.readValue(file, type);
+            return readValue(file, JsonMappers.readerFor(type));
         } catch (IOException e) {
             logger.error("Error reading from file: {}", e.getMessage());
             throw new RuntimeException("Error loading data", e);
@@ -78,7 +411,7 @@ public abstract class BaseRepository<T> {
     }
 
     /**
-     * Reads and deserializes data from the repository's JSON file using a TypeReference.
+     * Reads and deserializes data from the repository's file using a TypeReference.
      * This method is useful for reading collections and generic types.
      *
      * @param <R> The type to deserialize the data into
@@ -93,10 +426,65 @@ public abstract class BaseRepository<T> {
                 logger.warn("File {} does not exist", filePath);
                 return null;
             }
-            return mapper.readValue(file, typeReference);
+            return readValue(file, JsonMappers.readerFor(typeReference));
+        } catch (IOException e) {
+            logger.error("Error reading from file: {}", e.getMessage());
+            throw new RuntimeException("Error loading data", e);
+        }
+    }
+
+    /**
+     * Decodes a whole file with the repository's codec and binds it with the given reader.
+     *
+     * @param file The file to read
+     * @param reader Reader bound to the target type
+     * @return The bound value
+     * @throws IOException if the file cannot be read or decoded
+     */
+    private <R> R readValue(File file, ObjectReader reader) throws IOException {
+        try (InputStream in = Files.newInputStream(file.toPath());
+             JsonParser parser = codec.createParser(in)) {
+            return reader.readValue(parser);
+        }
+    }
+
+    /**
+     * Reads the repository's file as an array, binding and handing over one
+     * element at a time, so only a single element is materialized beyond what the
+     * action retains. Null elements are skipped.
+     *
+     * @param <E> The element type
+     * @param elementType The class of the array elements
+     * @param action Receives each element in file order
+     * @return true if the file was read, false if it doesn't exist
+     * @throws RuntimeException if an I/O error occurs or the file does not hold an array
+     */
+    protected <E> boolean readArrayFromFile(Class<E> elementType, Consumer<? super E> action) {
+        File file = new File(filePath);
+        if (!file.exists()) {
+            logger.warn("File {} does not exist", filePath);
+            return false;
+        }
+        ObjectReader reader = JsonMappers.readerFor(elementType);
+        try (InputStream in = Files.newInputStream(file.toPath());
+             JsonParser parser = codec.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected an array in " + filePath);
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new IOException("Unexpected end of " + filePath);
+                }
+                E element = reader.readValue(parser);
+                if (element != null) {
+                    action.accept(element);
+                }
+            }
+            return true;
         } catch (IOException e) {
             logger.error("Error reading from file: {}", e.getMessage());
             throw new RuntimeException("Error loading data", e);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,94 @@
+package main.java.com.spaceexplorer.repository;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Codec for the compact binary repository format ({@code .sxb} files).
+ *
+ * The format is a direct encoding of the JSON token stream, so any document
+ * can be converted to JSON and back without loss. After a four byte header
+ * ({@code SXB} and a version byte) every token starts with a one byte tag:
+ * <ul>
+ *   <li>structure markers, {@code null}, {@code true} and {@code false} are just the tag;</li>
+ *   <li>integers are zigzag-encoded variable-length longs; big integers and
+ *       decimals store their two's complement bytes (and scale);</li>
+ *   <li>floats and doubles are stored as their IEEE 754 bits;</li>
+ *   <li>strings and field names are UTF-8 prefixed by their byte length.</li>
+ * </ul>
+ * Field names, and string values of up to {@value #MAX_SHARED_VALUE_LENGTH}
+ * characters, are written in full only the first time. The writer and the
+ * reader both number them in order of appearance, and later occurrences are
+ * written as a reference to that number. Each table holds at most
+ * {@value #MAX_SHARED_ENTRIES} entries and is cleared when it is full, so it
+ * follows the vocabulary of a long file without growing without bound. A
+ * value can therefore only be decoded after everything before it, so the
+ * format is not {@linkplain #isRandomAccess() random access}.
+ *
+ * @author Space Explorer Development Team
+ * @version 1.0
+ * @since 1.1
+ */
+final class BinaryCodec implements StorageCodec {
+    /** File header: "SXB" followed by the format version */
+    static final byte[] HEADER = {'S', 'X', 'B', 1};
+
+    /** Longest string value that is entered into the shared value table */
+    static final int MAX_SHARED_VALUE_LENGTH = 32;
+
+    /** Capacity of the shared name and value tables */
+    static final int MAX_SHARED_ENTRIES = 1024;
+
+    static final int START_OBJECT = 0x01;
+    static final int END_OBJECT = 0x02;
+    static final int START_ARRAY = 0x03;
+    static final int END_ARRAY = 0x04;
+    static final int NULL = 0x05;
+    static final int FALSE = 0x06;
+    static final int TRUE = 0x07;
+    static final int INT = 0x08;
+    static final int BIG_INTEGER = 0x09;
+    static final int FLOAT = 0x0A;
+    static final int DOUBLE = 0x0B;
+    static final int BIG_DECIMAL = 0x0C;
+    static final int BINARY = 0x0D;
+    /** String that is not entered into the value table */
+    static final int STRING = 0x10;
+    /** String that is entered into the value table */
+    static final int STRING_SHARED = 0x11;
+    /** Reference to an entry of the value table */
+    static final int STRING_REF = 0x12;
+    /** Field name that is entered into the name table */
+    static final int FIELD_NAME = 0x20;
+    /** Reference to an entry of the name table */
+    static final int FIELD_NAME_REF = 0x21;
+
+    @Override
+    public String getName() {
+        return "binary";
+    }
+
+    @Override
+    public String getFileExtension() {
+        return "sxb";
+    }
+
+    @Override
+    public JsonParser createParser(InputStream in) throws IOException {
+        return new BinaryParser(in, JsonMappers.mapper());
+    }
+
+    @Override
+    public JsonGenerator createGenerator(OutputStream out) throws IOException {
+        return new BinaryGenerator(out, JsonMappers.mapper());
+    }
+
+    @Override
+    public String toString() {
+        return getName();
+    }
+}
@@ -0,0 +1,430 @@
+package main.java.com.spaceexplorer.repository;
+
+import com.fasterxml.jackson.core.Base64Variant;
+import com.fasterxml.jackson.core.base.GeneratorBase;
+import com.fasterxml.jackson.core.json.JsonWriteContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static main.java.com.spaceexplorer.repository.BinaryCodec.*;
+
+/**
+ * Generator writing the binary format described in {@link BinaryCodec}.
+ * Output is collected in an internal buffer and handed to the target stream
+ * in large chunks; strings are encoded straight into that buffer.
+ *
+ * @author Space Explorer Development Team
+ * @version 1.0
+ * @since 1.1
+ */
+final class BinaryGenerator extends GeneratorBase {
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    /** Longest possible variable-length long */
+    private static final int MAX_VARINT_BYTES = 10;
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+
+    /** Field names written so far, by table index */
+    private final Map<String, Integer> names = new HashMap<>();
+
+    /** Shared string values written so far, by table index */
+    private final Map<String, Integer> values = new HashMap<>();
+
+    /**
+     * Creates a generator and writes the format header.
+     *
+     * @param out The stream to write to
+     * @param codec Codec used for {@link #writeObject(Object)}
+     * @throws IOException if the header cannot be written
+     */
+    BinaryGenerator(OutputStream out, ObjectMapper codec) throws IOException {
+        super(codec.getFactory().getGeneratorFeatures(), codec);
+        this.out = out;
+        System.arraycopy(HEADER, 0, buffer, 0, HEADER.length);
+        position = HEADER.length;
+    }
+
+    @Override
+    public boolean canWriteBinaryNatively() {
+        return true;
+    }
+
+    @Override
+    public void writeStartArray() throws IOException {
+        _verifyValueWrite("start an array");
+        _writeContext = _writeContext.createChildArrayContext();
+        writeTag(START_ARRAY);
+    }
+
+    @Override
+    public void writeEndArray() throws IOException {
+        if (!_writeContext.inArray()) {
+            _reportError("Current context not Array but " + _writeContext.typeDesc());
+        }
+        _writeContext = _writeContext.clearAndGetParent();
+        writeTag(END_ARRAY);
+    }
+
+    @Override
+    public void writeStartObject() throws IOException {
+        _verifyValueWrite("start an object");
+        _writeContext = _writeContext.createChildObjectContext();
+        writeTag(START_OBJECT);
+    }
+
+    @Override
+    public void writeStartObject(Object forValue) throws IOException {
+        _verifyValueWrite("start an object");
+        _writeContext = _writeContext.createChildObjectContext(forValue);
+        writeTag(START_OBJECT);
+    }
+
+    @Override
+    public void writeEndObject() throws IOException {
+        if (!_writeContext.inObject()) {
+            _reportError("Current context not Object but " + _writeContext.typeDesc());
+        }
+        _writeContext = _writeContext.clearAndGetParent();
+        writeTag(END_OBJECT);
+    }
+
+    @Override
+    public void writeFieldName(String name) throws IOException {
+        if (_writeContext.writeFieldName(name) == JsonWriteContext.STATUS_EXPECT_VALUE) {
+            _reportError("Can not write a field name, expecting a value");
+        }
+        Integer index = names.get(name);
+        if (index != null) {
+            writeTag(FIELD_NAME_REF);
+            writeVarLong(index);
+        } else {
+            share(names, name);
+            writeTag(FIELD_NAME);
+            writeUtf8(name);
+        }
+    }
+
+    @Override
+    public void writeString(String text) throws IOException {
+        if (text == null) {
+            writeNull();
+            return;
+        }
+        _verifyValueWrite("write a string");
+        if (text.length() > MAX_SHARED_VALUE_LENGTH) {
+            writeTag(STRING);
+            writeUtf8(text);
+            return;
+        }
+        Integer index = values.get(text);
+        if (index != null) {
+            writeTag(STRING_REF);
+            writeVarLong(index);
+        } else {
+            share(values, text);
+            writeTag(STRING_SHARED);
+            writeUtf8(text);
+        }
+    }
+
+    @Override
+    public void writeString(char[] text, int offset, int length) throws IOException {
+        writeString(new String(text, offset, length));
+    }
+
+    @Override
+    public void writeRawUTF8String(byte[] text, int offset, int length) throws IOException {
+        writeUTF8String(text, offset, length);
+    }
+
+    @Override
+    public void writeUTF8String(byte[] text, int offset, int length) throws IOException {
+        writeString(new String(text, offset, length, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void writeRaw(String text) {
+        _reportUnsupportedOperation();
+    }
+
+    @Override
+    public void writeRaw(String text, int offset, int length) {
+        _reportUnsupportedOperation();
+    }
+
+    @Override
+    public void writeRaw(char[] text, int offset, int length) {
+        _reportUnsupportedOperation();
+    }
+
+    @Override
+    public void writeRaw(char c) {
+        _reportUnsupportedOperation();
+    }
+
+    @Override
+    public void writeBinary(Base64Variant variant, byte[] data, int offset, int length) throws IOException {
+        if (data == null) {
+            writeNull();
+            return;
+        }
+        _verifyValueWrite("write a binary value");
+        writeTag(BINARY);
+        writeBytes(data, offset, length);
+    }
+
+    @Override
+    public void writeNumber(int value) throws IOException {
+        writeNumber((long) value);
+    }
+
+    @Override
+    public void writeNumber(long value) throws IOException {
+        _verifyValueWrite("write a number");
+        writeTag(INT);
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    @Override
+    public void writeNumber(BigInteger value) throws IOException {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        _verifyValueWrite("write a number");
+        writeTag(BIG_INTEGER);
+        byte[] bytes = value.toByteArray();
+        writeBytes(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public void writeNumber(double value) throws IOException {
+        _verifyValueWrite("write a number");
+        writeTag(DOUBLE);
+        long bits = Double.doubleToRawLongBits(value);
+        ensureCapacity(8);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer[position++] = (byte) (bits >>> shift);
+        }
+    }
+
+    @Override
+    public void writeNumber(float value) throws IOException {
+        _verifyValueWrite("write a number");
+        writeTag(FLOAT);
+        int bits = Float.floatToRawIntBits(value);
+        ensureCapacity(4);
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            buffer[position++] = (byte) (bits >>> shift);
+        }
+    }
+
+    @Override
+    public void writeNumber(BigDecimal value) throws IOException {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        _verifyValueWrite("write a number");
+        writeTag(BIG_DECIMAL);
+        int scale = value.scale();
+        writeVarLong(((scale << 1) ^ (scale >> 31)) & 0xFFFFFFFFL);
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        writeBytes(unscaled, 0, unscaled.length);
+    }
+
+    @Override
+    public void writeNumber(String encodedValue) throws IOException {
+        if (encodedValue == null) {
+            writeNull();
+            return;
+        }
+        try {
+            writeNumber(Long.parseLong(encodedValue));
+        } catch (NumberFormatException notLong) {
+            try {
+                writeNumber(new BigDecimal(encodedValue));
+            } catch (NumberFormatException e) {
+                _reportError("Invalid number: " + encodedValue);
+            }
+        }
+    }
+
+    @Override
+    public void writeBoolean(boolean state) throws IOException {
+        _verifyValueWrite("write a boolean value");
+        writeTag(state ? TRUE : FALSE);
+    }
+
+    @Override
+    public void writeNull() throws IOException {
+        _verifyValueWrite("write a null");
+        writeTag(NULL);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        if (isEnabled(Feature.FLUSH_PASSED_TO_STREAM)) {
+            out.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (isClosed()) {
+            return;
+        }
+        if (isEnabled(Feature.AUTO_CLOSE_JSON_CONTENT)) {
+            while (!_writeContext.inRoot()) {
+                if (_writeContext.inArray()) {
+                    writeEndArray();
+                } else {
+                    writeEndObject();
+                }
+            }
+        }
+        super.close();
+        flushBuffer();
+        if (isEnabled(Feature.AUTO_CLOSE_TARGET)) {
+            out.close();
+        } else if (isEnabled(Feature.FLUSH_PASSED_TO_STREAM)) {
+            out.flush();
+        }
+    }
+
+    @Override
+    protected void _releaseBuffers() {
+        names.clear();
+        values.clear();
+    }
+
+    @Override
+    protected void _verifyValueWrite(String typeMsg) throws IOException {
+        if (_writeContext.writeValue() == JsonWriteContext.STATUS_EXPECT_NAME) {
+            _reportError("Can not " + typeMsg + ", expecting field name");
+        }
+    }
+
+    /**
+     * Enters a string into a shared table, clearing the table first if it is full.
+     * {@link BinaryParser} mirrors this so both sides assign the same indexes.
+     */
+    private static void share(Map<String, Integer> table, String text) {
+        if (table.size() == MAX_SHARED_ENTRIES) {
+            table.clear();
+        }
+        table.put(text, table.size());
+    }
+
+    private void writeTag(int tag) throws IOException {
+        ensureCapacity(1);
+        buffer[position++] = (byte) tag;
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        ensureCapacity(MAX_VARINT_BYTES);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    private void writeBytes(byte[] data, int offset, int length) throws IOException {
+        writeVarLong(length);
+        if (length > buffer.length - position) {
+            flushBuffer();
+            if (length > buffer.length) {
+                out.write(data, offset, length);
+                return;
+            }
+        }
+        System.arraycopy(data, offset, buffer, position, length);
+        position += length;
+    }
+
+    /**
+     * Writes a string as its UTF-8 byte length followed by the bytes, encoding
+     * directly into the output buffer. Unpaired surrogates are written as
+     * {@code '?'}, like {@link String#getBytes(java.nio.charset.Charset)} does.
+     */
+    private void writeUtf8(String text) throws IOException {
+        int length = text.length();
+        int byteLength = utf8Length(text);
+        writeVarLong(byteLength);
+        if (byteLength == length && length <= buffer.length) {
+            ensureCapacity(length);
+            for (int i = 0; i < length; i++) {
+                buffer[position++] = (byte) text.charAt(i);
+            }
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            ensureCapacity(4);
+            if (c < 0x80) {
+                buffer[position++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                buffer[position++] = '?';
+            } else {
+                buffer[position++] = (byte) (0xE0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private static int utf8Length(String text) {
+        int length = text.length();
+        int bytes = length;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                continue;
+            }
+            if (c < 0x800) {
+                bytes += 1;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                // Two chars become four bytes
+                bytes += 2;
+                i++;
+            } else if (!Character.isSurrogate(c)) {
+                bytes += 2;
+            }
+        }
+        return bytes;
+    }
+
+    private void ensureCapacity(int bytes) throws IOException {
+        if (buffer.length - position < bytes) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
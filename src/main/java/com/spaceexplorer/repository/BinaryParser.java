@@ -0,0 +1,566 @@
+package main.java.com.spaceexplorer.repository;
+
+import com.fasterxml.jackson.core.Base64Variant;
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.Version;
+import com.fasterxml.jackson.core.base.ParserMinimalBase;
+import com.fasterxml.jackson.core.io.ContentReference;
+import com.fasterxml.jackson.core.json.JsonReadContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static main.java.com.spaceexplorer.repository.BinaryCodec.*;
+
+/**
+ * Parser reading the binary format described in {@link BinaryCodec}.
+ * Input is read through an internal buffer; numbers are decoded eagerly and
+ * converted on demand to the type the caller asks for.
+ *
+ * @author Space Explorer Development Team
+ * @version 1.0
+ * @since 1.1
+ */
+final class BinaryParser extends ParserMinimalBase {
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    /** Bytes consumed from the stream before the start of the buffer */
+    private long bufferOffset;
+
+    /** Offset of the current token */
+    private long tokenOffset;
+
+    private ObjectCodec codec;
+    private JsonReadContext context = JsonReadContext.createRootContext(null);
+    private boolean closed;
+
+    /** Whether the last token was a field name, so a value must follow */
+    private boolean afterFieldName;
+
+    /** Field names read so far, by table index */
+    private final List<String> names = new ArrayList<>();
+
+    /** Shared string values read so far, by table index */
+    private final List<String> values = new ArrayList<>();
+
+    /** Value of the current string token */
+    private String text;
+
+    /** Value of the current binary token */
+    private byte[] binary;
+
+    /** Type and value of the current number token; only the field matching the type is set */
+    private NumberType numberType;
+    private long longValue;
+    private double doubleValue;
+    private BigInteger bigIntegerValue;
+    private BigDecimal decimalValue;
+
+    /**
+     * Creates a parser and checks the format header.
+     *
+     * @param in The stream to read
+     * @param codec Codec used for {@link #readValueAs(Class)}
+     * @throws IOException if the stream cannot be read or has no valid header
+     */
+    BinaryParser(InputStream in, ObjectMapper codec) throws IOException {
+        super(codec.getFactory().getParserFeatures());
+        this.in = in;
+        this.codec = codec;
+        if (!load(HEADER.length) || !Arrays.equals(buffer, 0, HEADER.length, HEADER, 0, HEADER.length)) {
+            throw new JsonParseException(this, "Not a binary repository file (bad header)");
+        }
+        position = HEADER.length;
+    }
+
+    @Override
+    public JsonToken nextToken() throws IOException {
+        if (closed) {
+            return _currToken = null;
+        }
+        binary = null;
+        tokenOffset = bufferOffset + position;
+        if (position == limit && !load(1)) {
+            _handleEOF();
+            return _currToken = null;
+        }
+        int tag = buffer[position++] & 0xFF;
+        if (tag == END_OBJECT || tag == END_ARRAY) {
+            boolean inObject = context.inObject();
+            if (tag == END_OBJECT ? !inObject || afterFieldName : !context.inArray()) {
+                _reportError("Unexpected end marker in " + context.typeDesc());
+            }
+            context = context.clearAndGetParent();
+            return _currToken = inObject ? JsonToken.END_OBJECT : JsonToken.END_ARRAY;
+        }
+        if (tag == FIELD_NAME || tag == FIELD_NAME_REF) {
+            if (!context.inObject() || afterFieldName) {
+                _reportError("Unexpected field name at offset " + tokenOffset);
+            }
+            String name = tag == FIELD_NAME ? share(names, readUtf8()) : lookUp(names, readVarLong());
+            context.setCurrentName(name);
+            afterFieldName = true;
+            return _currToken = JsonToken.FIELD_NAME;
+        }
+        if (context.inObject() && !afterFieldName) {
+            _reportError("Expected a field name in " + context.typeDesc() + " at offset " + tokenOffset);
+        }
+        afterFieldName = false;
+        context.expectComma();
+        switch (tag) {
+            case START_OBJECT:
+                context = context.createChildObjectContext(-1, -1);
+                return _currToken = JsonToken.START_OBJECT;
+            case START_ARRAY:
+                context = context.createChildArrayContext(-1, -1);
+                return _currToken = JsonToken.START_ARRAY;
+            case NULL:
+                return _currToken = JsonToken.VALUE_NULL;
+            case FALSE:
+                return _currToken = JsonToken.VALUE_FALSE;
+            case TRUE:
+                return _currToken = JsonToken.VALUE_TRUE;
+            case INT: {
+                long zigzag = readVarLong();
+                longValue = (zigzag >>> 1) ^ -(zigzag & 1);
+                numberType = longValue == (int) longValue ? NumberType.INT : NumberType.LONG;
+                return _currToken = JsonToken.VALUE_NUMBER_INT;
+            }
+            case BIG_INTEGER:
+                bigIntegerValue = new BigInteger(readBytes());
+                numberType = NumberType.BIG_INTEGER;
+                return _currToken = JsonToken.VALUE_NUMBER_INT;
+            case FLOAT:
+                doubleValue = Float.intBitsToFloat((int) readFixed(4));
+                numberType = NumberType.FLOAT;
+                return _currToken = JsonToken.VALUE_NUMBER_FLOAT;
+            case DOUBLE:
+                doubleValue = Double.longBitsToDouble(readFixed(8));
+                numberType = NumberType.DOUBLE;
+                return _currToken = JsonToken.VALUE_NUMBER_FLOAT;
+            case BIG_DECIMAL: {
+                int zigzag = (int) readVarLong();
+                int scale = (zigzag >>> 1) ^ -(zigzag & 1);
+                decimalValue = new BigDecimal(new BigInteger(readBytes()), scale);
+                numberType = NumberType.BIG_DECIMAL;
+                return _currToken = JsonToken.VALUE_NUMBER_FLOAT;
+            }
+            case BINARY:
+                binary = readBytes();
+                return _currToken = JsonToken.VALUE_EMBEDDED_OBJECT;
+            case STRING:
+                text = readUtf8();
+                return _currToken = JsonToken.VALUE_STRING;
+            case STRING_SHARED:
+                text = share(values, readUtf8());
+                return _currToken = JsonToken.VALUE_STRING;
+            case STRING_REF:
+                text = lookUp(values, readVarLong());
+                return _currToken = JsonToken.VALUE_STRING;
+            default:
+                _reportError("Unknown token tag 0x" + Integer.toHexString(tag) + " at offset " + tokenOffset);
+                return null;
+        }
+    }
+
+    @Override
+    protected void _handleEOF() throws JsonParseException {
+        if (!context.inRoot()) {
+            _reportInvalidEOF(": expected close marker for " + context.typeDesc(), null);
+        }
+    }
+
+    /**
+     * Enters a string into a shared table, clearing the table first if it is full,
+     * in the same way as {@link BinaryGenerator}.
+     */
+    private static String share(List<String> table, String entry) {
+        if (table.size() == MAX_SHARED_ENTRIES) {
+            table.clear();
+        }
+        table.add(entry);
+        return entry;
+    }
+
+    private String lookUp(List<String> table, long index) throws JsonParseException {
+        if (index < 0 || index >= table.size()) {
+            _reportError("Invalid back reference " + index + " at offset " + tokenOffset);
+        }
+        return table.get((int) index);
+    }
+
+    @Override
+    public String getCurrentName() {
+        if (_currToken == JsonToken.START_OBJECT || _currToken == JsonToken.START_ARRAY) {
+            // A start marker already entered its own context; its name belongs to the parent
+            return context.getParent().getCurrentName();
+        }
+        return context.getCurrentName();
+    }
+
+    @Override
+    public void overrideCurrentName(String name) {
+        try {
+            context.setCurrentName(name);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public String getText() throws IOException {
+        if (_currToken == null) {
+            return null;
+        }
+        switch (_currToken) {
+            case VALUE_STRING:
+                return text;
+            case FIELD_NAME:
+                return context.getCurrentName();
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return String.valueOf(getNumberValue());
+            case VALUE_EMBEDDED_OBJECT:
+                return binary == null ? null : Base64Variants.getDefaultVariant().encode(binary);
+            default:
+                return _currToken.asString();
+        }
+    }
+
+    @Override
+    public char[] getTextCharacters() throws IOException {
+        String value = getText();
+        return value == null ? null : value.toCharArray();
+    }
+
+    @Override
+    public boolean hasTextCharacters() {
+        return false;
+    }
+
+    @Override
+    public int getTextLength() throws IOException {
+        String value = getText();
+        return value == null ? 0 : value.length();
+    }
+
+    @Override
+    public int getTextOffset() {
+        return 0;
+    }
+
+    @Override
+    public byte[] getBinaryValue(Base64Variant variant) throws IOException {
+        if (_currToken == JsonToken.VALUE_EMBEDDED_OBJECT && binary != null) {
+            return binary;
+        }
+        if (_currToken == JsonToken.VALUE_STRING) {
+            try {
+                return variant.decode(text);
+            } catch (IllegalArgumentException e) {
+                _reportError("Invalid base64 value: " + e.getMessage());
+            }
+        }
+        _reportError("Current token (" + _currToken + ") is not binary");
+        return null;
+    }
+
+    @Override
+    public Object getEmbeddedObject() {
+        return _currToken == JsonToken.VALUE_EMBEDDED_OBJECT ? binary : null;
+    }
+
+    @Override
+    public Number getNumberValue() throws IOException {
+        checkNumber();
+        switch (numberType) {
+            case INT:
+                return (int) longValue;
+            case LONG:
+                return longValue;
+            case BIG_INTEGER:
+                return bigIntegerValue;
+            case FLOAT:
+                return (float) doubleValue;
+            case DOUBLE:
+                return doubleValue;
+            default:
+                return decimalValue;
+        }
+    }
+
+    @Override
+    public NumberType getNumberType() throws IOException {
+        checkNumber();
+        return numberType;
+    }
+
+    @Override
+    public int getIntValue() throws IOException {
+        long value = getLongValue();
+        if (value != (int) value) {
+            reportOverflowInt();
+        }
+        return (int) value;
+    }
+
+    @Override
+    public long getLongValue() throws IOException {
+        checkNumber();
+        switch (numberType) {
+            case INT:
+            case LONG:
+                return longValue;
+            case BIG_INTEGER:
+                if (bigIntegerValue.bitLength() > 63) {
+                    reportOverflowLong();
+                }
+                return bigIntegerValue.longValue();
+            case FLOAT:
+            case DOUBLE:
+                if (doubleValue < Long.MIN_VALUE || doubleValue > Long.MAX_VALUE) {
+                    reportOverflowLong();
+                }
+                return (long) doubleValue;
+            default:
+                if (decimalValue.compareTo(BigDecimal.valueOf(Long.MIN_VALUE)) < 0
+                        || decimalValue.compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) > 0) {
+                    reportOverflowLong();
+                }
+                return decimalValue.longValue();
+        }
+    }
+
+    @Override
+    public BigInteger getBigIntegerValue() throws IOException {
+        checkNumber();
+        switch (numberType) {
+            case INT:
+            case LONG:
+                return BigInteger.valueOf(longValue);
+            case BIG_INTEGER:
+                return bigIntegerValue;
+            default:
+                return getDecimalValue().toBigInteger();
+        }
+    }
+
+    @Override
+    public float getFloatValue() throws IOException {
+        return (float) getDoubleValue();
+    }
+
+    @Override
+    public double getDoubleValue() throws IOException {
+        checkNumber();
+        switch (numberType) {
+            case INT:
+            case LONG:
+                return longValue;
+            case BIG_INTEGER:
+                return bigIntegerValue.doubleValue();
+            case FLOAT:
+            case DOUBLE:
+                return doubleValue;
+            default:
+                return decimalValue.doubleValue();
+        }
+    }
+
+    @Override
+    public BigDecimal getDecimalValue() throws IOException {
+        checkNumber();
+        switch (numberType) {
+            case INT:
+            case LONG:
+                return BigDecimal.valueOf(longValue);
+            case BIG_INTEGER:
+                return new BigDecimal(bigIntegerValue);
+            case FLOAT:
+                return new BigDecimal(Float.toString((float) doubleValue));
+            case DOUBLE:
+                return BigDecimal.valueOf(doubleValue);
+            default:
+                return decimalValue;
+        }
+    }
+
+    private void checkNumber() throws JsonParseException {
+        if (_currToken != JsonToken.VALUE_NUMBER_INT && _currToken != JsonToken.VALUE_NUMBER_FLOAT) {
+            _reportError("Current token (" + _currToken + ") not numeric, can not use numeric value accessors");
+        }
+    }
+
+    @Override
+    public JsonStreamContext getParsingContext() {
+        return context;
+    }
+
+    @Override
+    public JsonLocation getCurrentLocation() {
+        return new JsonLocation(ContentReference.unknown(), bufferOffset + position, -1L, -1, -1);
+    }
+
+    @Override
+    public JsonLocation getTokenLocation() {
+        return new JsonLocation(ContentReference.unknown(), tokenOffset, -1L, -1, -1);
+    }
+
+    @Override
+    public ObjectCodec getCodec() {
+        return codec;
+    }
+
+    @Override
+    public void setCodec(ObjectCodec codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public Version version() {
+        return Version.unknownVersion();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            if (isEnabled(Feature.AUTO_CLOSE_SOURCE)) {
+                in.close();
+            }
+        }
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Makes at least {@code count} unread bytes available in the buffer.
+     *
+     * @param count Bytes needed, at most the buffer size
+     * @return false if the stream ended first
+     * @throws IOException if the stream cannot be read
+     */
+    private boolean load(int count) throws IOException {
+        if (limit - position >= count) {
+            return true;
+        }
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            bufferOffset += position;
+            limit -= position;
+            position = 0;
+        }
+        while (limit < count) {
+            int read = in.read(buffer, limit, buffer.length - limit);
+            if (read < 0) {
+                return false;
+            }
+            limit += read;
+        }
+        return true;
+    }
+
+    private void require(int count) throws IOException {
+        if (!load(count)) {
+            _reportInvalidEOF(" in a value", _currToken);
+        }
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (position == limit) {
+                require(1);
+            }
+            byte b = buffer[position++];
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        _reportError("Malformed variable-length number at offset " + tokenOffset);
+        return 0;
+    }
+
+    private long readFixed(int bytes) throws IOException {
+        require(bytes);
+        long value = 0;
+        for (int i = 0; i < bytes; i++) {
+            value = (value << 8) | (buffer[position++] & 0xFF);
+        }
+        return value;
+    }
+
+    private int readLength() throws IOException {
+        long length = readVarLong();
+        if (length < 0 || length > Integer.MAX_VALUE) {
+            _reportError("Invalid length " + length + " at offset " + tokenOffset);
+        }
+        return (int) length;
+    }
+
+    private byte[] readBytes() throws IOException {
+        return readBytes(readLength());
+    }
+
+    private String readUtf8() throws IOException {
+        int length = readLength();
+        if (length > buffer.length) {
+            return new String(readBytes(length), StandardCharsets.UTF_8);
+        }
+        require(length);
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    /**
+     * Reads a value of the given length, which may be larger than the buffer.
+     * The value grows as its bytes arrive, so a corrupt length fails with an
+     * end-of-input error instead of allocating more than the input holds.
+     */
+    private byte[] readBytes(int length) throws IOException {
+        int buffered = Math.min(length, limit - position);
+        byte[] bytes = new byte[Math.min(length, Math.max(buffered, BUFFER_SIZE))];
+        System.arraycopy(buffer, position, bytes, 0, buffered);
+        position += buffered;
+        int read = buffered;
+        if (read < length) {
+            // The buffer is used up; read the rest straight into the value
+            bufferOffset += limit;
+            position = limit = 0;
+            while (read < length) {
+                if (read == bytes.length) {
+                    bytes = Arrays.copyOf(bytes, (int) Math.min(length, 2L * bytes.length));
+                }
+                int count = in.read(bytes, read, bytes.length - read);
+                if (count < 0) {
+                    _reportInvalidEOF(" in a value", _currToken);
+                }
+                read += count;
+                bufferOffset += count;
+            }
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,29 @@
+package main.java.com.spaceexplorer.repository;
+
+/**
+ * Durability levels for repository writes.
+ * Higher levels survive more failure modes at the cost of write latency.
+ *
+ * @author Space Explorer Development Team
+ * @version 1.0
+ * @since 1.1
+ */
+public enum Durability {
+    /**
+     * No fsync. Data reaches the operating system but may be lost on power failure.
+     * Files are still replaced atomically, so readers never see a partial write.
+     */
+    NONE,
+
+    /**
+     * File contents are forced to the storage device before the file is made visible.
+     * After a power failure the file holds either the old or the new data.
+     */
+    DATA,
+
+    /**
+     * File contents and metadata are forced, including the directory entry of a
+     * replaced file, so a completed write is guaranteed to survive a power failure.
+     */
+    DATA_AND_METADATA
+}
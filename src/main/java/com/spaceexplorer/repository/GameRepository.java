@@ -1,25 +1,70 @@
 package main.java.com.spaceexplorer.repository;
 
 import main.java.com.spaceexplorer.model.GameMap;
+import main.java.com.spaceexplorer.model.Sector;
+import main.java.com.spaceexplorer.model.SpaceObject;
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Repository for managing game map data.
  * Provides CRUD operations for the game map, storing it in a JSON file.
  * Note that this implementation supports only one game map at a time.
  *
+ * The parsed map is cached in memory and served from there by {@link #findById(String)}
+ * and {@link #findAll()}. Each lookup only checks the file's modification time, size
+ * and file key; the map is re-read from disk only when one of them changes.
+ * Callers share the cached instance, so changes to it must be saved through
+ * {@link #update(String, GameMap)}.
+ *
+ * Individual sectors can be read through {@link #findSector(String)} without
+ * decoding the whole map: the file is memory-mapped and indexed by
+ * {@link MappedGameMapIndex}, which is rebuilt whenever the file changes.
+ * The index relies on JSON byte offsets, so maps in another storage format
+ * serve these lookups from the cached map instead.
+ *
  * @author Space Explorer Development Team
  * @version 1.0
  * @since 1.0
  */
 public class GameRepository extends BaseRepository<GameMap> implements Repository<GameMap, String> {
+    /** Cached game map, or null if not loaded yet */
+    private GameMap cachedMap;
+
+    /** State of the file the cached map was loaded from or saved to */
+    private FileStamp cachedStamp;
+
+    /** Sector index over the current map file, or null if not built yet */
+    private MappedGameMapIndex sectorIndex;
+
+    /** State of the file the sector index was built from */
+    private FileStamp indexedStamp;
+
+    /** Lookups served from the cached map */
+    private final LongAdder cacheHits = new LongAdder();
+
+    /** Lookups that had to read the map from disk */
+    private final LongAdder cacheMisses = new LongAdder();
+
+    /** Disk reads caused by a change to the file after it was cached */
+    private final LongAdder cacheReloads = new LongAdder();
 
     /**
      * Creates a new GameRepository with the specified file path.
      *
-     * @param filePath Path to the JSON file storing the game map data
+     * @param filePath Path to the file storing the game map data
      */
     public GameRepository(String filePath) {
         super(filePath);
@@ -34,7 +79,7 @@ public class GameRepository extends BaseRepository<GameMap> implements Repositor
     @Override
     public void save(GameMap map) {
         validateGameMap(map);
-        writeToFile(map);
+        writeAndCache(map);
     }
 
     /**
@@ -47,8 +92,7 @@ public class GameRepository extends BaseRepository<GameMap> implements Repositor
      */
     @Override
     public Optional<GameMap> findById(String id) {
-        GameMap map = readFromFile(GameMap.class);
-        return Optional.ofNullable(map);
+        return Optional.ofNullable(currentMap());
     }
 
     /**
@@ -60,7 +104,7 @@ public class GameRepository extends BaseRepository<GameMap> implements Repositor
      */
     @Override
     public List<GameMap> findAll() {
-        GameMap map = readFromFile(GameMap.class);
+        GameMap map = currentMap();
         return map != null ? List.of(map) : List.of();
     }
 
@@ -71,8 +115,10 @@ public class GameRepository extends BaseRepository<GameMap> implements Repositor
      * @param id The ID of the map to delete (not used)
      */
     @Override
-    public void delete(String id) {
+    public synchronized void delete(String id) {
         new File(filePath).delete();
+        cachedMap = null;
+        cachedStamp = null;
         logger.info("Game map deleted");
     }
 
@@ -87,7 +133,7 @@ public class GameRepository extends BaseRepository<GameMap> implements Repositor
     @Override
     public void update(String id, GameMap map) {
         validateGameMap(map);
-        writeToFile(map);
+        writeAndCache(map);
     }
 
     /**
@@ -102,6 +148,146 @@ public class GameRepository extends BaseRepository<GameMap> implements Repositor
         return new File(filePath).exists();
     }
 
+    /**
+     * Returns the names of all sectors keyed by sector ID, in map order,
+     * without decoding any sector contents.
+     *
+     * @return Map of sector ID to name, empty if the game map does not exist
+     */
+    public Map<String, String> findSectorNames() {
+        if (codec != StorageCodec.JSON) {
+            GameMap map = currentMap();
+            Map<String, String> names = new LinkedHashMap<>();
+            if (map != null) {
+                map.forEachSector(sector -> names.put(sector.getId(), sector.getName()));
+            }
+            return Collections.unmodifiableMap(names);
+        }
+        MappedGameMapIndex index = currentSectorIndex();
+        return index != null ? index.getSectorNames() : Map.of();
+    }
+
+    /**
+     * Finds a single sector by ID, decoding only that sector from the map file.
+     *
+     * @param sectorId The ID of the sector to find
+     * @return Optional containing the sector if it exists
+     */
+    public Optional<Sector> findSector(String sectorId) {
+        if (codec != StorageCodec.JSON) {
+            GameMap map = currentMap();
+            return map != null ? Optional.ofNullable(map.getSector(sectorId)) : Optional.empty();
+        }
+        MappedGameMapIndex index = currentSectorIndex();
+        return index != null ? index.loadSector(sectorId) : Optional.empty();
+    }
+
+    /**
+     * Finds a space object by the ID of its sector and its name using the
+     * cached map's location index.
+     *
+     * @param sectorId The ID of the sector containing the object
+     * @param objectName The name of the space object
+     * @return Optional containing the space object if it exists
+     */
+    public Optional<SpaceObject> findSpaceObject(String sectorId, String objectName) {
+        GameMap map = currentMap();
+        return map != null ? Optional.ofNullable(map.getSpaceObject(sectorId, objectName)) : Optional.empty();
+    }
+
+    /**
+     * Gets the number of lookups served from the in-memory map.
+     *
+     * @return The cache hit count
+     */
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    /**
+     * Gets the number of lookups that read the map from disk.
+     *
+     * @return The cache miss count
+     */
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    /**
+     * Gets the number of disk reads caused by the file changing after it was cached.
+     * These are included in {@link #getCacheMisses()}.
+     *
+     * @return The cache reload count
+     */
+    public long getCacheReloads() {
+        return cacheReloads.sum();
+    }
+
+    /**
+     * Writes the map to disk and makes it the cached map.
+     *
+     * @param map The map to write
+     */
+    private synchronized void writeAndCache(GameMap map) {
+        writeToFile(map);
+        cachedMap = map;
+        cachedStamp = FileStamp.of(Paths.get(filePath));
+    }
+
+    /**
+     * Returns the cached map, re-reading it from disk if the file changed.
+     *
+     * @return The current game map, or null if the file doesn't exist
+     */
+    private synchronized GameMap currentMap() {
+        FileStamp stamp = FileStamp.of(Paths.get(filePath));
+        if (stamp == null) {
+            cachedMap = null;
+            cachedStamp = null;
+            return null;
+        }
+        if (cachedMap != null && stamp.equals(cachedStamp)) {
+            cacheHits.increment();
+            return cachedMap;
+        }
+        cacheMisses.increment();
+        if (cachedStamp != null) {
+            cacheReloads.increment();
+            logger.info("Game map file {} changed, reloading", filePath);
+        }
+        cachedMap = readFromFile(GameMap.class);
+        cachedStamp = stamp;
+        return cachedMap;
+    }
+
+    /**
+     * Returns a sector index matching the current map file, rebuilding it if
+     * the file was modified since the index was built.
+     *
+     * @return The sector index, or null if the game map file doesn't exist
+     * @throws RuntimeException if the file cannot be indexed
+     */
+    private synchronized MappedGameMapIndex currentSectorIndex() {
+        Path path = Paths.get(filePath);
+        FileStamp stamp = FileStamp.of(path);
+        if (stamp == null) {
+            sectorIndex = null;
+            indexedStamp = null;
+            return null;
+        }
+        if (sectorIndex == null || !stamp.equals(indexedStamp)) {
+            try {
+                sectorIndex = MappedGameMapIndex.open(path);
+                indexedStamp = stamp;
+                logger.debug("Indexed {} sectors in {}", sectorIndex.getSectorCount(), filePath);
+            } catch (IOException e) {
+                logger.error("Error indexing game map: {}", e.getMessage());
+                throw new RuntimeException("Error loading data", e);
+            }
+        }
+        return sectorIndex;
+    }
+
     /**
      * Validates a game map object.
      *
@@ -116,4 +302,52 @@ public class GameRepository extends BaseRepository<GameMap> implements Repositor
             throw new IllegalArgumentException("Game map must have at least one sector");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Snapshot of the file attributes used to detect that the map file changed.
+     * Atomic replacement gives the file a new file key, which catches changes
+     * within the modification time resolution.
+     */
+    private static final class FileStamp {
+        private final long modifiedTime;
+        private final long size;
+        private final Object fileKey;
+
+        private FileStamp(long modifiedTime, long size, Object fileKey) {
+            this.modifiedTime = modifiedTime;
+            this.size = size;
+            this.fileKey = fileKey;
+        }
+
+        /**
+         * Reads the current stamp of a file.
+         *
+         * @param path The file to stat
+         * @return The file's stamp, or null if it doesn't exist
+         * @throws RuntimeException if the attributes cannot be read
+         */
+        static FileStamp of(Path path) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                return new FileStamp(attributes.lastModifiedTime().toMillis(), attributes.size(), attributes.fileKey());
+            } catch (NoSuchFileException e) {
+                return null;
+            } catch (IOException e) {
+                throw new RuntimeException("Error reading file attributes of " + path, e);
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof FileStamp)) return false;
+            FileStamp that = (FileStamp) o;
+            return modifiedTime == that.modifiedTime && size == that.size && Objects.equals(fileKey, that.fileKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(modifiedTime, size, fileKey);
+        }
+    }
+}
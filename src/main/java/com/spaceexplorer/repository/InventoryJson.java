@@ -0,0 +1,156 @@
+package main.java.com.spaceexplorer.repository;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import main.java.com.spaceexplorer.model.Item;
+import main.java.com.spaceexplorer.model.ItemStack;
+import main.java.com.spaceexplorer.model.Player;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stored form of player inventories. An inventory is written as one object
+ * per stack rather than one per item unit:
+ * <pre>
+ * "inventory": [{"name": "WATER", "type": "RESOURCE", "description": "Water", "count": 40}]
+ * </pre>
+ * {@code count} is omitted for single units and {@code description} when it
+ * is null, so a stack of one is written exactly like an item used to be.
+ * Inventories saved before stacking, with one object per unit and repeated
+ * objects for repeated items, are read as well; repeats are combined into
+ * one stack when the player binds them.
+ *
+ * The model classes stay free of Jackson annotations; the mapping is applied
+ * through a mix-in registered by {@link JsonMappers}.
+ *
+ * @author Space Explorer Development Team
+ * @version 1.0
+ * @since 1.1
+ */
+final class InventoryJson {
+    private InventoryJson() {}
+
+    /**
+     * Mix-in for {@link Player} that maps the {@code inventory} property to
+     * the player's stacks instead of the expanded item list.
+     */
+    abstract static class PlayerMixIn {
+        @JsonIgnore
+        abstract List<Item> getInventory();
+
+        @JsonIgnore
+        abstract void setInventory(List<Item> inventory);
+
+        @JsonProperty("inventory")
+        @JsonSerialize(using = StacksSerializer.class)
+        abstract List<ItemStack> inventoryStacks();
+
+        @JsonProperty("inventory")
+        @JsonDeserialize(using = StacksDeserializer.class)
+        abstract void setInventoryStacks(List<ItemStack> stacks);
+    }
+
+    /**
+     * Writes a list of stacks in the compact form.
+     */
+    static final class StacksSerializer extends StdSerializer<List<ItemStack>> {
+        private static final long serialVersionUID = 1L;
+
+        @SuppressWarnings("unchecked")
+        StacksSerializer() {
+            super((Class<List<ItemStack>>) (Class<?>) List.class);
+        }
+
+        @Override
+        public void serialize(List<ItemStack> stacks, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            generator.writeStartArray(stacks, stacks.size());
+            for (ItemStack stack : stacks) {
+                Item item = stack.getItem();
+                generator.writeStartObject();
+                generator.writeStringField("name", item.getName());
+                generator.writeStringField("type", item.getType());
+                if (item.getDescription() != null) {
+                    generator.writeStringField("description", item.getDescription());
+                }
+                if (stack.getCount() > 1) {
+                    generator.writeNumberField("count", stack.getCount());
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    /**
+     * Reads a list of stacks in the compact form or the former one-object-per-unit form.
+     */
+    static final class StacksDeserializer extends StdDeserializer<List<ItemStack>> {
+        private static final long serialVersionUID = 1L;
+
+        StacksDeserializer() {
+            super(List.class);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public List<ItemStack> deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (!parser.isExpectedStartArrayToken()) {
+                return (List<ItemStack>) context.handleUnexpectedToken(List.class, parser);
+            }
+            List<ItemStack> stacks = new ArrayList<>();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (parser.currentToken() != JsonToken.START_OBJECT) {
+                    return (List<ItemStack>) context.handleUnexpectedToken(ItemStack.class, parser);
+                }
+                stacks.add(readStack(parser, context));
+            }
+            return stacks;
+        }
+
+        private ItemStack readStack(JsonParser parser, DeserializationContext context) throws IOException {
+            String name = null;
+            String type = null;
+            String description = null;
+            int count = 1;
+            for (String field = parser.nextFieldName(); field != null; field = parser.nextFieldName()) {
+                parser.nextToken();
+                switch (field) {
+                    case "name":
+                        name = parser.getValueAsString();
+                        break;
+                    case "type":
+                        type = parser.getValueAsString();
+                        break;
+                    case "description":
+                        description = parser.getValueAsString();
+                        break;
+                    case "count":
+                        count = parser.getValueAsInt();
+                        break;
+                    default:
+                        context.handleUnknownProperty(parser, this, Item.class, field);
+                }
+            }
+            try {
+                Item item = new Item(name, type);
+                item.setDescription(description);
+                return new ItemStack(item, count);
+            } catch (IllegalArgumentException e) {
+                throw JsonMappingException.from(parser, "Invalid inventory item: " + e.getMessage(), e);
+            }
+        }
+    }
+}
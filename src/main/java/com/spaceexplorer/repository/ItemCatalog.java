@@ -0,0 +1,109 @@
+package main.java.com.spaceexplorer.repository;
+
+import main.java.com.spaceexplorer.model.Item;
+import main.java.com.spaceexplorer.model.ItemType;
+import main.java.com.spaceexplorer.model.ResourceType;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Canonical, immutable item instances shared by all inventories.
+ * Inventories hold many copies of the same few items (every player who
+ * collected water holds a "Water" item), so instead of one object per copy
+ * each item name maps to a single flyweight that every inventory references.
+ *
+ * The catalog is owned by an {@link ItemRepository}, which keeps the entries
+ * for its items in sync with the stored item definitions. Items that are not
+ * defined in the repository, such as collected resources, are added on first
+ * use. Entries are never mutated, so they can be shared between sessions.
+ *
+ * @author Space Explorer Development Team
+ * @version 1.0
+ * @since 1.1
+ */
+public class ItemCatalog {
+    /** Canonical item for each item name */
+    private final Map<String, Item> items = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an empty catalog. Catalogs are created by {@link ItemRepository}.
+     */
+    ItemCatalog() {
+    }
+
+    /**
+     * Finds the canonical item with the given name.
+     *
+     * @param name The item name
+     * @return Optional containing the canonical item if the catalog has one
+     */
+    public Optional<Item> find(String name) {
+        return name == null ? Optional.empty() : Optional.ofNullable(items.get(name));
+    }
+
+    /**
+     * Returns the canonical instance for an item. If the catalog has no entry
+     * for the item's name yet, an immutable copy of the item becomes the entry.
+     *
+     * @param item The item to intern
+     * @return The shared, immutable item with the same name
+     * @throws NullPointerException if item is null
+     */
+    public Item intern(Item item) {
+        Objects.requireNonNull(item, "Item cannot be null");
+        Item canonical = items.get(item.getName());
+        if (canonical != null) {
+            return canonical;
+        }
+        return items.computeIfAbsent(item.getName(), name -> item.immutableCopy());
+    }
+
+    /**
+     * Returns the canonical item for a collected resource.
+     *
+     * @param resource The resource type
+     * @return The shared item named after the resource
+     */
+    public Item resource(ResourceType resource) {
+        Item canonical = items.get(resource.name());
+        if (canonical != null) {
+            return canonical;
+        }
+        return items.computeIfAbsent(resource.name(), name -> {
+            Item item = new Item(name, ItemType.RESOURCE);
+            item.setDescription(resource.getDescription());
+            return item.immutableCopy();
+        });
+    }
+
+    /**
+     * Returns the number of canonical items.
+     *
+     * @return The catalog size
+     */
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * Makes an item definition the canonical entry for its name, replacing
+     * any previous entry. Inventories holding the previous entry keep it.
+     *
+     * @param item The item definition
+     */
+    void define(Item item) {
+        items.put(item.getName(), item.immutableCopy());
+    }
+
+    /**
+     * Removes the entry for an item name.
+     *
+     * @param name The item name
+     */
+    void remove(String name) {
+        items.remove(name);
+    }
+}
@@ -1,25 +1,50 @@
 package main.java.com.spaceexplorer.repository;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import main.java.com.spaceexplorer.model.Item;
+import main.java.com.spaceexplorer.model.ItemType;
 
-import java.io.File;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Repository for managing game items.
  * Provides CRUD operations for items and maintains a list of default items
  * that are available in the game. Items are persisted in a JSON file.
  *
+ * Items are indexed by name and by {@link ItemType}, so lookups by name and
+ * by type take constant time. Item names are unique. {@link #findByType(ItemType)}
+ * returns an unmodifiable view backed by the type index rather than a copy.
+ *
+ * Items change rarely and are read by every session, so the indexes are
+ * copy-on-write: reads and iteration over the views never block or fail,
+ * and mutations are serialized.
+ *
+ * The repository owns an {@link ItemCatalog} of shared, immutable item
+ * instances, which it keeps in sync with the stored item definitions.
+ *
  * @author Space Explorer Development Team
  * @version 1.0
  * @since 1.0
  */
 public class ItemRepository extends BaseRepository<Item> implements Repository<Item, String> {
-    /** In-memory cache of items */
-    private List<Item> items;
+    /** All items in the order they were added, as persisted */
+    private final List<Item> items = new CopyOnWriteArrayList<>();
+
+    /** Index of items by their unique name */
+    private final Map<String, Item> itemsByName = new ConcurrentHashMap<>();
+
+    /** Index of items by type */
+    private final Map<ItemType, List<Item>> itemsByType = new EnumMap<>(ItemType.class);
+
+    /** Read-only views of the type index */
+    private final Map<ItemType, List<Item>> itemsByTypeViews = new EnumMap<>(ItemType.class);
+
+    /** Type each item is currently indexed under, keyed by item name */
+    private final Map<String, ItemType> indexedTypes = new ConcurrentHashMap<>();
+
+    /** Canonical item instances for inventories */
+    private final ItemCatalog catalog = new ItemCatalog();
 
     /**
      * Creates a new ItemRepository with the specified file path.
@@ -28,23 +53,31 @@ public class ItemRepository extends BaseRepository<Item> implements Repository<I
      */
     public ItemRepository(String filePath) {
         super(filePath);
+        for (ItemType type : ItemType.values()) {
+            List<Item> typed = new CopyOnWriteArrayList<>();
+            itemsByType.put(type, typed);
+            itemsByTypeViews.put(type, Collections.unmodifiableList(typed));
+        }
         loadItems();
     }
 
     /**
-     * Loads items from the JSON file. If the file doesn't exist or is invalid,
-     * initializes the repository with default items.
+     * Loads items from the JSON file. If the file doesn't exist, initializes
+     * the repository with default items. If the file exists but cannot be read,
+     * the defaults are used in memory only, so the existing file is not overwritten.
      */
-    private void loadItems() {
+    private synchronized void loadItems() {
         try {
-            items = readFromFile(new TypeReference<List<Item>>() {});
-            if (items == null) {
-                items = new ArrayList<>();
+            List<Item> loaded = new ArrayList<>();
+            if (readArrayFromFile(Item.class, loaded::add)) {
+                loaded.forEach(this::index);
+            } else {
                 initializeDefaultItems();
+                saveItems();
             }
         } catch (Exception e) {
-            logger.error("Error loading items: {}", e.getMessage());
-            items = new ArrayList<>();
+            logger.error("Error loading items, keeping {} untouched: {}", filePath, e.getMessage());
+            removeAll();
             initializeDefaultItems();
         }
     }
@@ -55,22 +88,42 @@ public class ItemRepository extends BaseRepository<Item> implements Repository<I
      */
     private void initializeDefaultItems() {
         if (items.isEmpty()) {
-            items.addAll(Arrays.asList(
-                    new Item("Water", "RESOURCE"),
-                    new Item("Minerals", "RESOURCE"),
-                    new Item("Fuel", "RESOURCE"),
-                    new Item("Ancient Artifact", "ARTIFACT"),
-                    new Item("Space Map", "TOOL")
-            ));
-            saveItems();
+            Arrays.asList(
+                    new Item("Water", ItemType.RESOURCE),
+                    new Item("Minerals", ItemType.RESOURCE),
+                    new Item("Fuel", ItemType.RESOURCE),
+                    new Item("Ancient Artifact", ItemType.ARTIFACT),
+                    new Item("Space Map", ItemType.TOOL)
+            ).forEach(this::add);
+        }
+    }
+
+    /**
+     * Adds a loaded item to the indexes.
+     * Items with a duplicate name are skipped and logged.
+     *
+     * @param item The item to index
+     */
+    private void index(Item item) {
+        try {
+            validateItem(item);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Skipping invalid item: {}", e.getMessage());
+            return;
+        }
+        if (itemsByName.containsKey(item.getName())) {
+            logger.warn("Skipping item with duplicate name '{}'", item.getName());
+            return;
         }
+        add(item);
     }
 
     /**
      * Persists the current list of items to the JSON file.
      */
     private void saveItems() {
-        writeToFile(items);
+        List<Item> snapshot = new ArrayList<>(items);
+        scheduleWrite(() -> snapshot);
     }
 
     /**
@@ -78,11 +131,15 @@ public class ItemRepository extends BaseRepository<Item> implements Repository<I
      *
      * @param item The item to save
      * @throws IllegalArgumentException if the item is invalid
+     * @throws IllegalStateException if an item with the same name already exists
      */
     @Override
-    public void save(Item item) {
+    public synchronized void save(Item item) {
         validateItem(item);
-        items.add(item);
+        if (itemsByName.containsKey(item.getName())) {
+            throw new IllegalStateException("Item already exists: " + item.getName());
+        }
+        add(item);
         saveItems();
     }
 
@@ -94,9 +151,7 @@ public class ItemRepository extends BaseRepository<Item> implements Repository<I
      */
     @Override
     public Optional<Item> findById(String id) {
-        return items.stream()
-                .filter(item -> item.getName().equals(id))
-                .findFirst();
+        return id == null ? Optional.empty() : Optional.ofNullable(itemsByName.get(id));
     }
 
     /**
@@ -115,29 +170,45 @@ public class ItemRepository extends BaseRepository<Item> implements Repository<I
      * @param id The name of the item to delete
      */
     @Override
-    public void delete(String id) {
-        items.removeIf(item -> item.getName().equals(id));
+    public synchronized void delete(String id) {
+        Item removed = id == null ? null : itemsByName.get(id);
+        if (removed != null) {
+            remove(id, removed);
+        }
         saveItems();
     }
 
     /**
      * Updates an existing item.
+     * If the name changes, the new name must not be used by another item.
      *
      * @param id The name of the item to update
      * @param item The new item data
      * @throws IllegalArgumentException if the item is not found or invalid
+     * @throws IllegalStateException if the new name is already used by another item
      */
     @Override
-    public void update(String id, Item item) {
+    public synchronized void update(String id, Item item) {
         validateItem(item);
-        for (int i = 0; i < items.size(); i++) {
-            if (items.get(i).getName().equals(id)) {
-                items.set(i, item);
-                saveItems();
-                return;
-            }
+        Item existing = id == null ? null : itemsByName.get(id);
+        if (existing == null) {
+            throw new IllegalArgumentException("Item not found: " + id);
+        }
+        Item owner = itemsByName.get(item.getName());
+        if (owner != null && owner != existing) {
+            throw new IllegalStateException("Item already exists: " + item.getName());
         }
-        throw new IllegalArgumentException("Item not found: " + id);
+        items.set(items.indexOf(existing), item);
+        itemsByType.get(indexedTypes.remove(id)).remove(existing);
+        itemsByName.remove(id);
+        if (!item.getName().equals(id)) {
+            catalog.remove(id);
+        }
+        itemsByName.put(item.getName(), item);
+        indexedTypes.put(item.getName(), item.itemType());
+        itemsByType.get(item.itemType()).add(item);
+        catalog.define(item);
+        saveItems();
     }
 
     /**
@@ -148,19 +219,90 @@ public class ItemRepository extends BaseRepository<Item> implements Repository<I
      */
     @Override
     public boolean exists(String id) {
-        return items.stream().anyMatch(item -> item.getName().equals(id));
+        return id != null && itemsByName.containsKey(id);
     }
 
     /**
      * Finds all items of a specific type.
      *
-     * @param type The type of items to find
-     * @return List of items matching the specified type
+     * @param type The name of the item type, case-insensitive
+     * @return Unmodifiable view of the items of that type; empty if the type is unknown
+     * @see #findByType(ItemType)
      */
     public List<Item> findByType(String type) {
-        return items.stream()
-                .filter(item -> item.getType().equals(type))
-                .collect(Collectors.toList());
+        try {
+            return findByType(ItemType.fromString(type));
+        } catch (IllegalArgumentException e) {
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Finds all items of a specific type. The returned list is a live,
+     * unmodifiable view of the type index: it reflects later changes to the
+     * repository and can be iterated while items are being changed.
+     *
+     * @param type The type of items to find
+     * @return Unmodifiable view of the items of that type
+     */
+    public List<Item> findByType(ItemType type) {
+        return itemsByTypeViews.get(type);
+    }
+
+    /**
+     * Returns the number of items of a specific type.
+     *
+     * @param type The type of items to count
+     * @return The item count
+     */
+    public int countByType(ItemType type) {
+        return itemsByType.get(type).size();
+    }
+
+    /**
+     * Returns the catalog of canonical item instances backed by this repository.
+     *
+     * @return The item catalog
+     */
+    public ItemCatalog getCatalog() {
+        return catalog;
+    }
+
+    /**
+     * Adds an item to all indexes and the catalog.
+     *
+     * @param item The item to add
+     */
+    private void add(Item item) {
+        items.add(item);
+        itemsByName.put(item.getName(), item);
+        indexedTypes.put(item.getName(), item.itemType());
+        itemsByType.get(item.itemType()).add(item);
+        catalog.define(item);
+    }
+
+    /**
+     * Removes an item from all indexes and the catalog.
+     *
+     * @param name The name the item is indexed under
+     * @param item The indexed item
+     */
+    private void remove(String name, Item item) {
+        items.remove(item);
+        itemsByName.remove(name);
+        itemsByType.get(indexedTypes.remove(name)).remove(item);
+        catalog.remove(name);
+    }
+
+    /**
+     * Removes all items from the indexes and the catalog.
+     */
+    private void removeAll() {
+        itemsByName.keySet().forEach(catalog::remove);
+        items.clear();
+        itemsByName.clear();
+        indexedTypes.clear();
+        itemsByType.values().forEach(List::clear);
     }
 
     /**
@@ -176,13 +318,16 @@ public class ItemRepository extends BaseRepository<Item> implements Repository<I
         if (item.getName() == null || item.getName().isEmpty()) {
             throw new IllegalArgumentException("Item name cannot be empty");
         }
-        if (item.getType() == null || item.getType().isEmpty()) {
+        if (item.itemType() == null) {
             throw new IllegalArgumentException("Item type cannot be empty");
         }
     }
 
-    public void clear() {
-        items.clear();
+    /**
+     * Removes all items from the repository.
+     */
+    public synchronized void clear() {
+        removeAll();
         saveItems();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,316 @@
+package main.java.com.spaceexplorer.repository;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import main.java.com.spaceexplorer.model.Player;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Player repository backed by a snapshot file plus an append-only journal.
+ * Each mutation is appended to the journal as a single JSON line, so a write costs
+ * O(record size) instead of rewriting every player. Once the journal holds enough
+ * records it is compacted: the full player list is written to the snapshot file
+ * and the journal is truncated.
+ *
+ * On startup the snapshot is read and the journal is replayed on top of it.
+ * Journal records are idempotent, so a crash between writing the snapshot and
+ * truncating the journal is harmless, and a torn last record from a crash
+ * mid-append is discarded. Appends are forced to disk according to the
+ * repository's {@link Durability} level. The snapshot uses the same format as
+ * {@link PlayerRepository}, so existing player files can be used directly.
+ *
+ * @author Space Explorer Development Team
+ * @version 1.0
+ * @since 1.1
+ */
+public class JournaledPlayerRepository extends PlayerRepository implements AutoCloseable {
+    /** Default number of journal records that triggers compaction */
+    public static final int DEFAULT_COMPACTION_THRESHOLD = 1000;
+
+    /** Suffix appended to the snapshot path to form the journal path */
+    private static final String JOURNAL_SUFFIX = ".journal";
+
+    /** Reader for journal lines */
+    private static final ObjectReader RECORD_READER = JsonMappers.readerFor(JournalRecord.class);
+
+    /** Writer for journal lines */
+    private static final ObjectWriter RECORD_WRITER = JsonMappers.writerFor(JournalRecord.class);
+
+    /** Path of the append-only journal file */
+    private final Path journalPath;
+
+    /** Number of journal records after which the journal is compacted */
+    private final int compactionThreshold;
+
+    /** Guards the journal channel and record count */
+    private final Object journalLock = new Object();
+
+    /** Open channel for appending to the journal, created lazily */
+    private FileChannel journal;
+
+    /** Number of records currently in the journal */
+    private int journalRecords;
+
+    /** Whether replay stopped at an unreadable record that must not stay in the journal */
+    private boolean journalTorn;
+
+    /**
+     * Creates a new JournaledPlayerRepository with the default compaction threshold.
+     *
+     * @param filePath Path to the snapshot file; the journal is stored next to it
+     */
+    public JournaledPlayerRepository(String filePath) {
+        this(filePath, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * Creates a new JournaledPlayerRepository.
+     *
+     * @param filePath Path to the snapshot file; the journal is stored next to it
+     * @param compactionThreshold Number of journal records that triggers compaction
+     * @throws IllegalArgumentException if compactionThreshold is not positive
+     */
+    public JournaledPlayerRepository(String filePath, int compactionThreshold) {
+        super(filePath, false);
+        if (compactionThreshold <= 0) {
+            throw new IllegalArgumentException("Compaction threshold must be positive");
+        }
+        this.journalPath = Paths.get(filePath + JOURNAL_SUFFIX);
+        this.compactionThreshold = compactionThreshold;
+        loadPlayers();
+        if (journalRecords > 0 || journalTorn) {
+            // Also drops a torn record, so later appends don't follow a partial line
+            compact();
+        }
+    }
+
+    /**
+     * Streams the snapshot, replays the journal on top of it and hands the
+     * recovered players to the sink.
+     *
+     * @param sink Receives each recovered player
+     */
+    @Override
+    protected void loadAll(Consumer<Player> sink) {
+        Map<String, Player> players = new LinkedHashMap<>();
+        super.loadAll(p -> players.put(p.getId(), p));
+        journalRecords = replayJournal(players);
+        players.values().forEach(sink);
+    }
+
+    /**
+     * Applies journal records to the given players map, stopping at the first
+     * record that cannot be parsed (a torn write from a crash), which is
+     * remembered so the journal is compacted on startup.
+     *
+     * @param players Players keyed by ID to apply the records to
+     * @return Number of records applied
+     */
+    private int replayJournal(Map<String, Player> players) {
+        if (!Files.exists(journalPath)) {
+            return 0;
+        }
+        int applied = 0;
+        try (BufferedReader reader = Files.newBufferedReader(journalPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JournalRecord record;
+                try {
+                    record = RECORD_READER.readValue(line);
+                } catch (IOException e) {
+                    logger.warn("Discarding unreadable journal record {} in {}: {}",
+                            applied + 1, journalPath, e.getMessage());
+                    journalTorn = true;
+                    break;
+                }
+                if (JournalRecord.DELETE.equals(record.op)) {
+                    players.remove(record.id);
+                } else {
+                    players.put(record.id, record.player);
+                }
+                applied++;
+            }
+        } catch (IOException e) {
+            logger.error("Error reading journal {}: {}", journalPath, e.getMessage());
+            throw new RuntimeException("Error loading data", e);
+        }
+        logger.info("Replayed {} journal records from {}", applied, journalPath);
+        return applied;
+    }
+
+    @Override
+    protected void persistSave(Player player) {
+        append(JournalRecord.put(player.getId(), storedCopy(player.getId())));
+    }
+
+    @Override
+    protected void persistSaveAll(List<Player> players) {
+        List<JournalRecord> records = new ArrayList<>(players.size());
+        players.forEach(player -> records.add(JournalRecord.put(player.getId(), storedCopy(player.getId()))));
+        append(records);
+    }
+
+    @Override
+    protected void persistUpdate(String id, Player player) {
+        append(JournalRecord.put(id, storedCopy(id)));
+    }
+
+    @Override
+    protected void persistDelete(String id) {
+        append(JournalRecord.delete(id));
+    }
+
+    /**
+     * Appends a record to the journal and compacts if the threshold is reached.
+     *
+     * @param record The record to append
+     * @throws RuntimeException if an I/O error occurs during writing
+     */
+    private void append(JournalRecord record) {
+        append(List.of(record));
+    }
+
+    /**
+     * Appends records to the journal with a single write and force, and
+     * compacts if the threshold is reached.
+     *
+     * @param records The records to append
+     * @throws RuntimeException if an I/O error occurs during writing
+     */
+    private void append(List<JournalRecord> records) {
+        synchronized (journalLock) {
+            try {
+                ByteArrayOutputStream lines = new ByteArrayOutputStream();
+                for (JournalRecord record : records) {
+                    lines.write(RECORD_WRITER.writeValueAsBytes(record));
+                    lines.write('\n');
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+                FileChannel channel = journalChannel();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                force(channel);
+                getWriteMetrics().recordWrite(lines.size());
+            } catch (IOException e) {
+                logger.error("Error appending to journal {}: {}", journalPath, e.getMessage());
+                throw new RuntimeException("Error saving data", e);
+            }
+            journalRecords += records.size();
+            if (journalRecords >= compactionThreshold) {
+                compact();
+            }
+        }
+    }
+
+    /**
+     * Writes all players to the snapshot file and truncates the journal.
+     *
+     * @throws RuntimeException if an I/O error occurs during writing
+     */
+    public void compact() {
+        synchronized (journalLock) {
+            writeToFile(storedSnapshot());
+            try {
+                journalChannel().truncate(0);
+            } catch (IOException e) {
+                logger.error("Error truncating journal {}: {}", journalPath, e.getMessage());
+                throw new RuntimeException("Error saving data", e);
+            }
+            logger.info("Compacted {} journal records into {}", journalRecords, filePath);
+            journalRecords = 0;
+        }
+    }
+
+    /**
+     * Returns the number of records appended since the last compaction.
+     *
+     * @return Number of records in the journal
+     */
+    public int getJournalRecordCount() {
+        synchronized (journalLock) {
+            return journalRecords;
+        }
+    }
+
+    /**
+     * Returns the journal channel, opening it on first use.
+     *
+     * @return Channel positioned at the end of the journal
+     * @throws IOException if the journal cannot be opened
+     */
+    private FileChannel journalChannel() throws IOException {
+        if (journal == null) {
+            journal = FileChannel.open(journalPath,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        return journal;
+    }
+
+    /**
+     * Closes the journal file. Records already appended remain in the journal
+     * and are replayed on the next start.
+     */
+    @Override
+    public void close() {
+        synchronized (journalLock) {
+            if (journal == null) {
+                return;
+            }
+            try {
+                journal.close();
+            } catch (IOException e) {
+                logger.warn("Error closing journal {}: {}", journalPath, e.getMessage());
+            }
+            journal = null;
+        }
+    }
+
+    /**
+     * A single journal entry: either a full player record stored under an ID,
+     * or the deletion of an ID.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    static class JournalRecord {
+        static final String PUT = "PUT";
+        static final String DELETE = "DELETE";
+
+        public String op;
+        public String id;
+        public Player player;
+
+        static JournalRecord put(String id, Player player) {
+            JournalRecord record = new JournalRecord();
+            record.op = PUT;
+            record.id = id;
+            record.player = player;
+            return record;
+        }
+
+        static JournalRecord delete(String id) {
+            JournalRecord record = new JournalRecord();
+            record.op = DELETE;
+            record.id = id;
+            return record;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package main.java.com.spaceexplorer.repository;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Codec for UTF-8 JSON text, using the factory of the shared mapper.
+ *
+ * @author Space Explorer Development Team
+ * @version 1.0
+ * @since 1.1
+ */
+final class JsonCodec implements StorageCodec {
+    @Override
+    public String getName() {
+        return "json";
+    }
+
+    @Override
+    public String getFileExtension() {
+        return "json";
+    }
+
+    @Override
+    public JsonParser createParser(InputStream in) throws IOException {
+        return JsonMappers.mapper().getFactory().createParser(in);
+    }
+
+    @Override
+    public JsonGenerator createGenerator(OutputStream out) throws IOException {
+        return JsonMappers.mapper().getFactory().createGenerator(out, JsonEncoding.UTF8);
+    }
+
+    @Override
+    public boolean isRandomAccess() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return getName();
+    }
+}
@@ -0,0 +1,106 @@
+package main.java.com.spaceexplorer.repository;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import main.java.com.spaceexplorer.model.Player;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared JSON serialization setup used by all repositories.
+ * Owns a single, fully configured {@link ObjectMapper} and caches one
+ * {@link ObjectReader} and {@link ObjectWriter} per type. Readers and writers
+ * are immutable and thread-safe, and a cached one has already resolved its
+ * root (de)serializer, so repeated reads and writes of the same type skip the
+ * type resolution done by {@code mapper.readValue}/{@code writeValue}.
+ *
+ * The mapper must not be reconfigured after construction; derive readers and
+ * writers with different settings instead.
+ *
+ * @author Space Explorer Development Team
+ * @version 1.0
+ * @since 1.1
+ */
+public final class JsonMappers {
+    /** The shared mapper */
+    private static final ObjectMapper MAPPER = JsonMapper.builder()
+            // Callers own and close the streams they pass in
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE)
+            // Writers flush explicitly once the whole document is written
+            .disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+            // Inventories are stored as stacks, see InventoryJson
+            .addMixIn(Player.class, InventoryJson.PlayerMixIn.class)
+            .build();
+
+    /** Untyped writer for values whose type is only known at runtime */
+    private static final ObjectWriter WRITER = MAPPER.writer();
+
+    /** Cached readers keyed by target type */
+    private static final Map<JavaType, ObjectReader> READERS = new ConcurrentHashMap<>();
+
+    /** Cached writers keyed by root type */
+    private static final Map<JavaType, ObjectWriter> WRITERS = new ConcurrentHashMap<>();
+
+    private JsonMappers() {}
+
+    /**
+     * Returns the shared mapper, e.g. for its JSON factory.
+     *
+     * @return The shared ObjectMapper
+     */
+    public static ObjectMapper mapper() {
+        return MAPPER;
+    }
+
+    /**
+     * Returns the cached reader for a type.
+     *
+     * @param type The type to read
+     * @return Reader bound to the type
+     */
+    public static ObjectReader readerFor(Class<?> type) {
+        return readerFor(MAPPER.constructType(type));
+    }
+
+    /**
+     * Returns the cached reader for a generic type.
+     *
+     * @param type Reference to the type to read
+     * @return Reader bound to the type
+     */
+    public static ObjectReader readerFor(TypeReference<?> type) {
+        return readerFor(MAPPER.getTypeFactory().constructType(type));
+    }
+
+    private static ObjectReader readerFor(JavaType type) {
+        return READERS.computeIfAbsent(type, MAPPER::readerFor);
+    }
+
+    /**
+     * Returns the cached writer for a type.
+     *
+     * @param type The type of the values to write
+     * @return Writer bound to the type
+     */
+    public static ObjectWriter writerFor(Class<?> type) {
+        return WRITERS.computeIfAbsent(MAPPER.constructType(type), MAPPER::writerFor);
+    }
+
+    /**
+     * Returns the untyped writer, which resolves the serializer from each value's runtime type.
+     *
+     * @return The shared untyped writer
+     */
+    public static ObjectWriter writer() {
+        return WRITER;
+    }
+}
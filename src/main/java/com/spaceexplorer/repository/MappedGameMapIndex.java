@@ -0,0 +1,239 @@
+package main.java.com.spaceexplorer.repository;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectReader;
+import main.java.com.spaceexplorer.model.Sector;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Lazily-decoded view of a game map file.
+ * The file is memory-mapped and scanned once with Jackson's streaming parser to
+ * record the byte range, ID and name of every sector, without creating any
+ * {@link Sector} or space object instances. Individual sectors are then decoded
+ * on demand from their byte range, so opening one sector costs O(sector size)
+ * instead of O(map size).
+ *
+ * The index reflects the file at the time it was opened. Note that on some
+ * platforms (notably Windows) a mapped file cannot be replaced until the mapping
+ * is garbage collected.
+ *
+ * @author Space Explorer Development Team
+ * @version 1.0
+ * @since 1.1
+ */
+public class MappedGameMapIndex {
+    /** Reader used to decode individual sectors */
+    private static final ObjectReader SECTOR_READER = JsonMappers.readerFor(Sector.class);
+
+    /** Read-only mapping of the whole map file */
+    private final MappedByteBuffer buffer;
+
+    /** Sector byte ranges keyed by sector ID, in file order */
+    private final Map<String, SectorEntry> sectors;
+
+    /** Sector names keyed by sector ID, in file order */
+    private final Map<String, String> sectorNames;
+
+    private MappedGameMapIndex(MappedByteBuffer buffer, Map<String, SectorEntry> sectors) {
+        this.buffer = buffer;
+        this.sectors = sectors;
+        Map<String, String> names = new LinkedHashMap<>();
+        sectors.forEach((id, entry) -> names.put(id, entry.name));
+        this.sectorNames = Collections.unmodifiableMap(names);
+    }
+
+    /**
+     * Maps the given game map file and builds the sector index.
+     *
+     * @param path Path to the game map JSON file
+     * @return The index over the mapped file
+     * @throws IOException if the file cannot be read or is not a valid game map
+     */
+    public static MappedGameMapIndex open(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Game map file is too large to map: " + size + " bytes");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        return new MappedGameMapIndex(buffer, scanSectors(buffer));
+    }
+
+    /**
+     * Streams through the mapped file once, recording each sector's ID, name and
+     * byte range while skipping over its space objects.
+     *
+     * @param buffer The mapped file
+     * @return Sector entries keyed by ID, in file order
+     * @throws IOException if the file is not a valid game map
+     */
+    private static Map<String, SectorEntry> scanSectors(ByteBuffer buffer) throws IOException {
+        Map<String, SectorEntry> entries = new LinkedHashMap<>();
+        try (JsonParser parser = factory().createParser(new ByteBufferInputStream(buffer.duplicate()))) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Game map must be a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("sectors".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        SectorEntry entry = scanSector(parser);
+                        entries.put(entry.id, entry);
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Reads the ID and name of the sector the parser is positioned at and skips the rest.
+     *
+     * @param parser Parser positioned at the sector's START_OBJECT token
+     * @return The sector's index entry
+     * @throws IOException if the sector is malformed
+     */
+    private static SectorEntry scanSector(JsonParser parser) throws IOException {
+        int start = (int) parser.getTokenLocation().getByteOffset();
+        String id = null;
+        String name = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if ("id".equals(field)) {
+                id = parser.getValueAsString();
+            } else if ("name".equals(field)) {
+                name = parser.getValueAsString();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        int end = (int) parser.getCurrentLocation().getByteOffset();
+        if (id == null) {
+            throw new IOException("Sector at byte " + start + " has no id");
+        }
+        return new SectorEntry(id, name, start, end);
+    }
+
+    /**
+     * Returns the names of all sectors keyed by sector ID, in file order.
+     *
+     * @return Unmodifiable map of sector ID to name
+     */
+    public Map<String, String> getSectorNames() {
+        return sectorNames;
+    }
+
+    /**
+     * Returns the number of sectors in the map.
+     *
+     * @return The sector count
+     */
+    public int getSectorCount() {
+        return sectors.size();
+    }
+
+    /**
+     * Checks whether a sector with the given ID exists.
+     *
+     * @param sectorId The sector ID to check
+     * @return true if the sector exists
+     */
+    public boolean containsSector(String sectorId) {
+        return sectors.containsKey(sectorId);
+    }
+
+    /**
+     * Decodes a single sector, including its space objects, from the mapped file.
+     *
+     * @param sectorId The ID of the sector to load
+     * @return Optional containing the sector if it exists
+     * @throws RuntimeException if the sector data cannot be decoded
+     */
+    public Optional<Sector> loadSector(String sectorId) {
+        SectorEntry entry = sectorId == null ? null : sectors.get(sectorId);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        ByteBuffer slice = buffer.duplicate();
+        slice.limit(entry.end).position(entry.start);
+        try (JsonParser parser = factory().createParser(new ByteBufferInputStream(slice))) {
+            return Optional.of(SECTOR_READER.readValue(parser));
+        } catch (IOException e) {
+            throw new RuntimeException("Error loading sector " + sectorId, e);
+        }
+    }
+
+    private static JsonFactory factory() {
+        return JsonMappers.mapper().getFactory();
+    }
+
+    /**
+     * Byte range and summary of one sector in the mapped file.
+     */
+    private static final class SectorEntry {
+        final String id;
+        final String name;
+        final int start;
+        final int end;
+
+        SectorEntry(String id, String name, int start, int end) {
+            this.id = id;
+            this.name = name;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /**
+     * InputStream reading the remaining bytes of a buffer without copying it.
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
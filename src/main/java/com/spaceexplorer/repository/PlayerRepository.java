@@ -1,27 +1,80 @@
 package main.java.com.spaceexplorer.repository;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import main.java.com.spaceexplorer.model.Item;
+import main.java.com.spaceexplorer.model.ItemStack;
 import main.java.com.spaceexplorer.model.Player;
 
-import java.io.File;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Repository for managing player data.
  * Provides CRUD operations for players and maintains player persistence
  * using a JSON file. Each player is assigned a unique UUID.
  *
+ * Players are kept in two concurrent hash indexes (by ID and by username),
+ * so lookups are constant-time regardless of the number of accounts.
+ * The username index also enforces username uniqueness.
+ *
+ * {@link #saveAll(Collection)} adds many players at once and persists them
+ * with a single write, for bulk imports.
+ *
+ * One instance can be shared by concurrent sessions. Mutations are applied by
+ * a single writer at a time, which makes the username uniqueness check and the
+ * index change one atomic step and persists mutations in the order they were
+ * applied. Lookups by ID or username never block. {@link #findAll()} returns a
+ * consistent snapshot; it only waits while a writer updates the in-memory
+ * indexes, never while a change is being written to disk. Players are returned
+ * as shared instances, so changes to them must be saved through
+ * {@link #update(String, Player)}.
+ *
+ * Sessions change the player instances they hold without any lock, so the
+ * repository never serializes them. Each save or update takes a copy of the
+ * player (see {@link Player#copy()}), and those copies are what gets written,
+ * also when a write-behind flush runs on another thread. Changes made to an
+ * instance are therefore persisted only once it is passed to
+ * {@link #update(String, Player)}.
+ *
+ * With an {@link ItemCatalog} attached, inventory items are replaced by their
+ * shared catalog instances as players are loaded, saved and updated, so equal
+ * items held by many players occupy memory only once.
+ *
  * @author Space Explorer Development Team
  * @version 1.0
  * @since 1.0
  */
 public class PlayerRepository extends BaseRepository<Player> implements Repository<Player, String> {
-    /** In-memory cache of players */
-    private List<Player> players;
+    /** Index of players by their unique ID */
+    private final Map<String, Player> playersById = new ConcurrentHashMap<>();
+
+    /** Index of players by their username */
+    private final Map<String, Player> playersByUsername = new ConcurrentHashMap<>();
+
+    /** Copy of each player as last saved or updated, which is what gets persisted, keyed by ID */
+    private final Map<String, Player> storedPlayers = new ConcurrentHashMap<>();
+
+    /** Username each player is currently indexed under, keyed by player ID */
+    private final Map<String, String> indexedUsernames = new ConcurrentHashMap<>();
+
+    /** Serializes mutations, so the indexes and the persisted data see them in the same order */
+    private final ReentrantLock writerLock = new ReentrantLock();
+
+    /** Excludes snapshot reads while a mutation changes several indexes */
+    private final ReentrantReadWriteLock indexLock = new ReentrantReadWriteLock();
+
+    /** Catalog used to intern inventory items, or null to keep items as they are */
+    private volatile ItemCatalog itemCatalog;
 
     /**
      * Creates a new PlayerRepository with the specified file path.
@@ -29,31 +82,157 @@ public class PlayerRepository extends BaseRepository<Player> implements Reposito
      * @param filePath Path to the JSON file storing player data
      */
     public PlayerRepository(String filePath) {
+        this(filePath, true);
+    }
+
+    /**
+     * Creates a new PlayerRepository that interns inventory items through the
+     * given catalog, starting with the players loaded from the file.
+     *
+     * @param filePath Path to the JSON file storing player data
+     * @param itemCatalog Catalog of canonical items
+     */
+    public PlayerRepository(String filePath, ItemCatalog itemCatalog) {
         super(filePath);
+        this.itemCatalog = itemCatalog;
         loadPlayers();
     }
 
     /**
-     * Loads players from the JSON file.
-     * Initializes an empty list if the file doesn't exist or is invalid.
+     * Creates a new PlayerRepository, optionally deferring the initial load.
+     * Subclasses that need their own fields initialized before loading pass
+     * {@code false} and call {@link #loadPlayers()} at the end of their constructor.
+     *
+     * @param filePath Path to the file storing player data
+     * @param loadOnCreate Whether to load players immediately
      */
-    private void loadPlayers() {
+    protected PlayerRepository(String filePath, boolean loadOnCreate) {
+        super(filePath);
+        if (loadOnCreate) {
+            loadPlayers();
+        }
+    }
+
+    /**
+     * Loads players from storage and builds the lookup indexes.
+     * Players are indexed as they are read, without an intermediate list.
+     * Starts with empty indexes if the data doesn't exist or is invalid.
+     */
+    protected final void loadPlayers() {
         try {
-            players = readFromFile(new TypeReference<List<Player>>() {});
-            if (players == null) {
-                players = new ArrayList<>();
-            }
+            loadAll(this::index);
         } catch (Exception e) {
             logger.error("Error loading players: {}", e.getMessage());
-            players = new ArrayList<>();
+            playersById.clear();
+            storedPlayers.clear();
+            playersByUsername.clear();
+            indexedUsernames.clear();
+        }
+    }
+
+    /**
+     * Adds a loaded player to both indexes.
+     * Players with a duplicate username are skipped and logged.
+     *
+     * @param player The player to index
+     */
+    private void index(Player player) {
+        if (player.getId() == null) {
+            player.setId(UUID.randomUUID().toString());
+        }
+        internItems(player);
+        if (playersByUsername.putIfAbsent(player.getUsername(), player) != null) {
+            logger.warn("Skipping player {} with duplicate username '{}'", player.getId(), player.getUsername());
+            return;
         }
+        indexedUsernames.put(player.getId(), player.getUsername());
+        storedPlayers.put(player.getId(), player.copy());
+        playersById.put(player.getId(), player);
+    }
+
+    /**
+     * Reads all stored players, handing each one to the sink as it is read.
+     * The default implementation streams the JSON file.
+     *
+     * @param sink Receives each stored player
+     */
+    protected void loadAll(Consumer<Player> sink) {
+        readArrayFromFile(Player.class, sink);
     }
 
     /**
-     * Persists the current list of players to the JSON file.
+     * Returns a point-in-time list of all players, as shared instances.
+     *
+     * @return List of all players
+     */
+    protected List<Player> snapshot() {
+        indexLock.readLock().lock();
+        try {
+            return new ArrayList<>(playersById.values());
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns a point-in-time list of the stored copies of all players for
+     * persistence. The copies are never handed out, so they can be serialized
+     * on any thread while sessions change their player instances.
+     *
+     * @return List of the stored copies of all players
+     */
+    protected List<Player> storedSnapshot() {
+        indexLock.readLock().lock();
+        try {
+            return new ArrayList<>(storedPlayers.values());
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Persists the current set of players to the JSON file.
      */
     private void savePlayers() {
-        writeToFile(players);
+        scheduleWrite(this::storedSnapshot);
+    }
+
+    /**
+     * Persists a newly saved player. The default implementation rewrites the whole file.
+     *
+     * @param player The saved player
+     */
+    protected void persistSave(Player player) {
+        savePlayers();
+    }
+
+    /**
+     * Persists a batch of newly saved players. The default implementation
+     * rewrites the whole file once.
+     *
+     * @param players The saved players
+     */
+    protected void persistSaveAll(List<Player> players) {
+        savePlayers();
+    }
+
+    /**
+     * Persists an updated player. The default implementation rewrites the whole file.
+     *
+     * @param id The ID the player is stored under
+     * @param player The updated player
+     */
+    protected void persistUpdate(String id, Player player) {
+        savePlayers();
+    }
+
+    /**
+     * Persists the deletion of a player. The default implementation rewrites the whole file.
+     *
+     * @param id The ID of the deleted player
+     */
+    protected void persistDelete(String id) {
+        savePlayers();
     }
 
     /**
@@ -62,15 +241,72 @@ public class PlayerRepository extends BaseRepository<Player> implements Reposito
      *
      * @param player The player to save
      * @throws IllegalArgumentException if the player is invalid
+     * @throws IllegalStateException if the username or the player's ID is already taken
      */
     @Override
     public void save(Player player) {
         validatePlayer(player);
-        if (player.getId() == null) {
-            player.setId(UUID.randomUUID().toString());
+        writerLock.lock();
+        try {
+            if (playersByUsername.containsKey(player.getUsername())) {
+                throw new IllegalStateException("Username already exists");
+            }
+            if (player.getId() != null && playersById.containsKey(player.getId())) {
+                throw new IllegalStateException("Player ID already exists: " + player.getId());
+            }
+            if (player.getId() == null) {
+                player.setId(UUID.randomUUID().toString());
+            }
+            internItems(player);
+            changeIndexes(() -> add(player));
+            persistSave(player);
+        } finally {
+            writerLock.unlock();
         }
-        players.add(player);
-        savePlayers();
+    }
+
+    /**
+     * Saves a batch of new players and persists them once.
+     * The batch is all-or-nothing: if any player is invalid or any username is
+     * taken, either by an existing player or by another player in the batch,
+     * none of the players are saved. Concurrent {@link #findAll()} calls see
+     * either none or all of the batch.
+     *
+     * @param players The players to save
+     * @throws IllegalArgumentException if any player is invalid
+     * @throws IllegalStateException if any username or player ID is already taken
+     */
+    public void saveAll(Collection<Player> players) {
+        List<Player> batch = new ArrayList<>(players);
+        if (batch.isEmpty()) {
+            return;
+        }
+        batch.forEach(this::validatePlayer);
+        writerLock.lock();
+        try {
+            Set<String> usernames = new HashSet<>();
+            Set<String> ids = new HashSet<>();
+            for (Player player : batch) {
+                if (!usernames.add(player.getUsername()) || playersByUsername.containsKey(player.getUsername())) {
+                    throw new IllegalStateException("Username already exists: " + player.getUsername());
+                }
+                String id = player.getId();
+                if (id != null && (!ids.add(id) || playersById.containsKey(id))) {
+                    throw new IllegalStateException("Player ID already exists: " + id);
+                }
+            }
+            for (Player player : batch) {
+                if (player.getId() == null) {
+                    player.setId(UUID.randomUUID().toString());
+                }
+                internItems(player);
+            }
+            changeIndexes(() -> batch.forEach(this::add));
+            persistSaveAll(batch);
+        } finally {
+            writerLock.unlock();
+        }
+        logger.info("Saved {} players in one batch", batch.size());
     }
 
     /**
@@ -81,19 +317,19 @@ public class PlayerRepository extends BaseRepository<Player> implements Reposito
      */
     @Override
     public Optional<Player> findById(String id) {
-        return players.stream()
-                .filter(p -> p.getId().equals(id))
-                .findFirst();
+        return id == null ? Optional.empty() : Optional.ofNullable(playersById.get(id));
     }
 
     /**
      * Returns a copy of all players in the repository.
+     * The copy is a consistent snapshot: it reflects every mutation that
+     * completed before the call and no part of one still in progress.
      *
      * @return List of all players
      */
     @Override
     public List<Player> findAll() {
-        return new ArrayList<>(players);
+        return snapshot();
     }
 
     /**
@@ -103,28 +339,133 @@ public class PlayerRepository extends BaseRepository<Player> implements Reposito
      */
     @Override
     public void delete(String id) {
-        players.removeIf(p -> p.getId().equals(id));
-        savePlayers();
+        writerLock.lock();
+        try {
+            Player removed = id == null ? null : playersById.get(id);
+            if (removed != null) {
+                changeIndexes(() -> {
+                    playersByUsername.remove(indexedUsernames.remove(id), removed);
+                    storedPlayers.remove(id);
+                    playersById.remove(id);
+                });
+            }
+            persistDelete(id);
+        } finally {
+            writerLock.unlock();
+        }
     }
 
     /**
      * Updates an existing player.
+     * If the username changes, the new username must not be taken by another player.
      *
      * @param id The ID of the player to update
      * @param player The new player data
      * @throws IllegalArgumentException if the player is not found or invalid
+     * @throws IllegalStateException if the new username is already taken
      */
     @Override
     public void update(String id, Player player) {
         validatePlayer(player);
-        for (int i = 0; i < players.size(); i++) {
-            if (players.get(i).getId().equals(id)) {
-                players.set(i, player);
-                savePlayers();
-                return;
+        writerLock.lock();
+        try {
+            Player existing = id == null ? null : playersById.get(id);
+            if (existing == null) {
+                throw new IllegalArgumentException("Player not found: " + id);
             }
+            String newUsername = player.getUsername();
+            Player owner = playersByUsername.get(newUsername);
+            if (owner != null && owner != existing && owner != player) {
+                throw new IllegalStateException("Username already exists");
+            }
+            internItems(player);
+            Player stored = player.copy();
+            changeIndexes(() -> {
+                storedPlayers.put(id, stored);
+                playersById.put(id, player);
+                playersByUsername.put(newUsername, player);
+                String oldUsername = indexedUsernames.put(id, newUsername);
+                if (oldUsername != null && !oldUsername.equals(newUsername)) {
+                    playersByUsername.remove(oldUsername, existing);
+                }
+            });
+            persistUpdate(id, player);
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    /**
+     * Attaches a catalog and interns the inventories of all players already
+     * loaded. Intended to be called once at startup, before the repository is
+     * shared with sessions.
+     *
+     * @param itemCatalog Catalog of canonical items, or null to stop interning
+     */
+    public void setItemCatalog(ItemCatalog itemCatalog) {
+        writerLock.lock();
+        try {
+            this.itemCatalog = itemCatalog;
+            playersById.values().forEach(this::internItems);
+            storedPlayers.values().forEach(this::internItems);
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    /**
+     * Replaces a player's inventory items with their canonical catalog instances.
+     *
+     * @param player The player whose inventory to intern
+     */
+    private void internItems(Player player) {
+        ItemCatalog catalog = itemCatalog;
+        if (catalog == null) {
+            return;
+        }
+        List<ItemStack> stacks = player.inventoryStacks();
+        boolean changed = false;
+        for (int i = 0; i < stacks.size(); i++) {
+            ItemStack stack = stacks.get(i);
+            Item canonical = catalog.intern(stack.getItem());
+            if (canonical != stack.getItem()) {
+                stacks.set(i, new ItemStack(canonical, stack.getCount()));
+                changed = true;
+            }
+        }
+        if (changed) {
+            player.setInventoryStacks(stacks);
+        }
+    }
+
+    /**
+     * Adds a player to all indexes. Must run inside {@link #changeIndexes(Runnable)}.
+     * The ID index is updated first, so a player found by username can always
+     * be found by ID as well.
+     *
+     * @param player The player to add
+     */
+    private void add(Player player) {
+        storedPlayers.put(player.getId(), player.copy());
+        playersById.put(player.getId(), player);
+        indexedUsernames.put(player.getId(), player.getUsername());
+        playersByUsername.put(player.getUsername(), player);
+    }
+
+    /**
+     * Applies a change spanning several indexes while snapshots are excluded.
+     * Callers hold the writer lock; persistence happens after this returns, so
+     * snapshot readers never wait for I/O.
+     *
+     * @param change The index change
+     */
+    private void changeIndexes(Runnable change) {
+        indexLock.writeLock().lock();
+        try {
+            change.run();
+        } finally {
+            indexLock.writeLock().unlock();
         }
-        throw new IllegalArgumentException("Player not found: " + id);
     }
 
     /**
@@ -135,7 +476,7 @@ public class PlayerRepository extends BaseRepository<Player> implements Reposito
      */
     @Override
     public boolean exists(String id) {
-        return players.stream().anyMatch(p -> p.getId().equals(id));
+        return id != null && playersById.containsKey(id);
     }
 
     /**
@@ -145,9 +486,97 @@ public class PlayerRepository extends BaseRepository<Player> implements Reposito
      * @return Optional containing the player if found
      */
     public Optional<Player> findByUsername(String username) {
-        return players.stream()
-                .filter(p -> p.getUsername().equals(username))
-                .findFirst();
+        return username == null ? Optional.empty() : Optional.ofNullable(playersByUsername.get(username));
+    }
+
+    /**
+     * Returns the indexed player with the given ID, or reads it with the loader
+     * and indexes it without persisting anything, as on startup. Runs under the
+     * writer lock, so a player cannot be changed, deleted or unloaded between
+     * being read from storage and being indexed.
+     *
+     * @param id The player's ID
+     * @param loader Reads the stored player with the given ID, or returns null
+     * @return The indexed player, or null if it is neither indexed nor stored
+     */
+    Player residentOrLoad(String id, Function<String, Player> loader) {
+        Player resident = playersById.get(id);
+        if (resident != null) {
+            return resident;
+        }
+        writerLock.lock();
+        try {
+            resident = playersById.get(id);
+            if (resident != null) {
+                return resident;
+            }
+            Player loaded = loader.apply(id);
+            if (loaded == null) {
+                return null;
+            }
+            internItems(loaded);
+            changeIndexes(() -> add(loaded));
+            return loaded;
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    /**
+     * Removes a player from the in-memory indexes without deleting it from
+     * storage and without writing anything. Callers keep the player's stored
+     * state themselves, so pending writes still include it.
+     *
+     * @param id The player's ID
+     * @return true if the player was indexed
+     */
+    boolean unload(String id) {
+        writerLock.lock();
+        try {
+            Player resident = playersById.get(id);
+            if (resident == null) {
+                return false;
+            }
+            changeIndexes(() -> {
+                playersByUsername.remove(indexedUsernames.remove(id), resident);
+                storedPlayers.remove(id);
+                playersById.remove(id);
+            });
+            return true;
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the copy of a player as last saved or updated, which must not be changed.
+     *
+     * @param id The player's ID
+     * @return The stored copy, or null if no player has that ID
+     */
+    Player storedCopy(String id) {
+        return storedPlayers.get(id);
+    }
+
+    /**
+     * Returns the number of players in the in-memory indexes.
+     *
+     * @return The indexed player count
+     */
+    int residentCount() {
+        return playersById.size();
+    }
+
+    /**
+     * Returns the username a player is currently indexed under. Unlike
+     * {@code findById(id).getUsername()} this is not affected by changes made
+     * to the player instance that have not been saved through {@link #update(String, Player)}.
+     *
+     * @param id The player's ID
+     * @return The indexed username, or null if no player has that ID
+     */
+    String indexedUsername(String id) {
+        return indexedUsernames.get(id);
     }
 
     /**
@@ -156,7 +585,7 @@ public class PlayerRepository extends BaseRepository<Player> implements Reposito
      * @param player The player to validate
      * @throws IllegalArgumentException if the player is invalid
      */
-    private void validatePlayer(Player player) {
+    protected void validatePlayer(Player player) {
         if (player == null) {
             throw new IllegalArgumentException("Player cannot be null");
         }
@@ -167,4 +596,4 @@ public class PlayerRepository extends BaseRepository<Player> implements Reposito
             throw new IllegalArgumentException("Password cannot be empty");
         }
     }
-}
\ No newline at end of file
+}
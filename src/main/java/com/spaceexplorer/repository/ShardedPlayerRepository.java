@@ -0,0 +1,770 @@
+package main.java.com.spaceexplorer.repository;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import main.java.com.spaceexplorer.model.Player;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntPredicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Player repository that partitions players across several shard files instead
+ * of keeping them all in one file, so a change only rewrites the shard it
+ * touches and startup reads nothing but a small manifest.
+ *
+ * A player is stored in the shard selected by the hash of its ID. Each shard
+ * is a {@link PlayerRepository} over its own file, opened the first time one
+ * of its players is accessed, and written only when one of its players
+ * changes. Username lookups go through a username directory that is sharded
+ * the same way by the hash of the username, so finding a player by username
+ * opens one directory shard and one player shard.
+ *
+ * For {@code players.json} the files are laid out as:
+ * <ul>
+ *   <li>{@code players.json} - manifest with the shard count and layout generation</li>
+ *   <li>{@code players.<generation>.p<n>.json} - players of shard n</li>
+ *   <li>{@code players.<generation>.u<n>.json} - username to ID entries of directory shard n</li>
+ * </ul>
+ * The shard files use the storage format of the manifest's extension.
+ *
+ * {@link #reshard(int)} changes the number of shards while the repository is
+ * in use. Players are copied into a new generation of files, and rewriting the
+ * manifest switches over to it; readers use the previous generation until then,
+ * and files of any other generation are removed when the repository is opened.
+ *
+ * The player shards are authoritative; the username directory is derived from
+ * them. Since a change writes a player shard and a directory shard separately,
+ * the manifest records whether all changes were written. A mutation clears
+ * that mark before it writes anything. In write-through mode the mark is set
+ * again once the mutation's writes are done; in write-behind mode by
+ * {@link #flush()}, {@link #close()} or the shutdown hook. If the process
+ * stops in between, e.g. with a player written but not its directory entry,
+ * the directory is rebuilt from the player shard files the next time the
+ * repository is opened.
+ *
+ * Mutations are serialized, so usernames stay unique across shards and a
+ * batch saved with {@link #saveAll(Collection)} is seen by {@link #findAll()}
+ * either completely or not at all. {@code findAll} loads every shard.
+ *
+ * @author Space Explorer Development Team
+ * @version 1.0
+ * @since 1.1
+ */
+public class ShardedPlayerRepository extends PlayerRepository implements AutoCloseable {
+    /** Default number of shards for a new repository */
+    public static final int DEFAULT_SHARD_COUNT = 16;
+
+    /** Serializes mutations across all shards */
+    private final ReentrantLock writerLock = new ReentrantLock();
+
+    /** File name of the manifest without its extension */
+    private final String baseName;
+
+    /** File extension of the manifest, including the dot, or empty */
+    private final String extension;
+
+    /** Current shard layout */
+    private volatile Layout layout;
+
+    /** Catalog used to intern inventory items, or null */
+    private volatile ItemCatalog itemCatalog;
+
+    /** Write-behind delay applied to shards, zero for write-through */
+    private volatile long shardWriteBehindMillis;
+
+    /** Whether the manifest on disk marks all shards as written */
+    private volatile boolean clean;
+
+    /**
+     * Opens or creates a sharded repository with the default shard count.
+     *
+     * @param filePath Path to the manifest file; shard files are stored next to it
+     */
+    public ShardedPlayerRepository(String filePath) {
+        this(filePath, DEFAULT_SHARD_COUNT);
+    }
+
+    /**
+     * Opens or creates a sharded repository. The shard count only applies to a
+     * new repository; an existing one keeps the count recorded in its manifest
+     * until it is changed with {@link #reshard(int)}.
+     *
+     * @param filePath Path to the manifest file; shard files are stored next to it
+     * @param shardCount Number of shards for a new repository
+     * @throws IllegalArgumentException if shardCount is not positive
+     */
+    public ShardedPlayerRepository(String filePath, int shardCount) {
+        super(filePath, false);
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive");
+        }
+        String fileName = Paths.get(filePath).getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        this.baseName = dot > 0 ? fileName.substring(0, dot) : fileName;
+        this.extension = dot > 0 ? fileName.substring(dot) : "";
+
+        ShardManifest manifest = Files.exists(Paths.get(filePath)) ? readFromFile(ShardManifest.class) : null;
+        if (manifest == null) {
+            manifest = ShardManifest.of(shardCount, 0, true);
+            writeToFile(manifest);
+        } else if (manifest.shardCount <= 0) {
+            throw new IllegalStateException("Invalid shard count in " + filePath + ": " + manifest.shardCount);
+        }
+        this.layout = new Layout(manifest.shardCount, manifest.generation);
+        deleteOtherGenerations(manifest.generation);
+        if (!manifest.clean) {
+            rebuildUsernameDirectory();
+            writeToFile(ShardManifest.of(manifest.shardCount, manifest.generation, true));
+        }
+        this.clean = true;
+        logger.info("Opened {} with {} shards (generation {})", filePath, manifest.shardCount, manifest.generation);
+    }
+
+    /**
+     * Returns the shard a key belongs to.
+     *
+     * @param key A player ID or username
+     * @param shardCount Number of shards
+     * @return The shard number, from 0 to {@code shardCount - 1}
+     */
+    static int shardOf(String key, int shardCount) {
+        return Math.floorMod(key.hashCode(), shardCount);
+    }
+
+    /**
+     * Gets the current number of shards.
+     *
+     * @return The shard count
+     */
+    public int getShardCount() {
+        return layout.shardCount;
+    }
+
+    /**
+     * Gets the number of player shards that have been loaded so far.
+     *
+     * @return The loaded shard count
+     */
+    public int getLoadedShardCount() {
+        return loadedShards().size();
+    }
+
+    @Override
+    public void save(Player player) {
+        validatePlayer(player);
+        writerLock.lock();
+        try {
+            Layout current = layout;
+            if (current.usernames(player.getUsername()).get(player.getUsername()) != null) {
+                throw new IllegalStateException("Username already exists");
+            }
+            if (player.getId() != null && current.players(player.getId()).exists(player.getId())) {
+                throw new IllegalStateException("Player ID already exists: " + player.getId());
+            }
+            if (player.getId() == null) {
+                player.setId(UUID.randomUUID().toString());
+            }
+            markUnclean();
+            current.players(player.getId()).save(player);
+            current.usernames(player.getUsername()).put(player.getUsername(), player.getId());
+            markCleanIfWrittenThrough();
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    @Override
+    public void saveAll(Collection<Player> players) {
+        List<Player> batch = new ArrayList<>(players);
+        if (batch.isEmpty()) {
+            return;
+        }
+        batch.forEach(this::validatePlayer);
+        writerLock.lock();
+        try {
+            Layout current = layout;
+            Set<String> usernames = new HashSet<>();
+            Set<String> ids = new HashSet<>();
+            for (Player player : batch) {
+                String username = player.getUsername();
+                if (!usernames.add(username) || current.usernames(username).get(username) != null) {
+                    throw new IllegalStateException("Username already exists: " + username);
+                }
+                String id = player.getId();
+                if (id != null && (!ids.add(id) || current.players(id).exists(id))) {
+                    throw new IllegalStateException("Player ID already exists: " + id);
+                }
+            }
+            markUnclean();
+            Map<Integer, List<Player>> byShard = new TreeMap<>();
+            for (Player player : batch) {
+                if (player.getId() == null) {
+                    player.setId(UUID.randomUUID().toString());
+                }
+                byShard.computeIfAbsent(shardOf(player.getId(), current.shardCount), n -> new ArrayList<>())
+                        .add(player);
+            }
+            byShard.forEach((shard, group) -> current.players(shard).saveAll(group));
+            Map<Integer, Map<String, String>> entries = new TreeMap<>();
+            for (Player player : batch) {
+                entries.computeIfAbsent(shardOf(player.getUsername(), current.shardCount), n -> new HashMap<>())
+                        .put(player.getUsername(), player.getId());
+            }
+            entries.forEach((shard, group) -> current.usernames(shard).putAll(group));
+            markCleanIfWrittenThrough();
+        } finally {
+            writerLock.unlock();
+        }
+        logger.info("Saved {} players in one batch", batch.size());
+    }
+
+    @Override
+    public Optional<Player> findById(String id) {
+        return id == null ? Optional.empty() : layout.players(id).findById(id);
+    }
+
+    @Override
+    public Optional<Player> findByUsername(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        Layout current = layout;
+        String id = current.usernames(username).get(username);
+        if (id == null) {
+            return Optional.empty();
+        }
+        // Looking the player up by ID lets a shard that keeps only part of its
+        // players in memory load this one
+        PlayerRepository shard = current.players(id);
+        Optional<Player> player = shard.findById(id);
+        return username.equals(shard.indexedUsername(id)) ? player : Optional.empty();
+    }
+
+    @Override
+    public boolean exists(String id) {
+        return id != null && layout.players(id).exists(id);
+    }
+
+    /**
+     * Returns all players, loading every shard that is not loaded yet.
+     *
+     * @return List of all players
+     */
+    @Override
+    public List<Player> findAll() {
+        writerLock.lock();
+        try {
+            return snapshot();
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    @Override
+    protected List<Player> snapshot() {
+        Layout current = layout;
+        List<Player> all = new ArrayList<>();
+        for (int shard = 0; shard < current.shardCount; shard++) {
+            all.addAll(current.players(shard).findAll());
+        }
+        return all;
+    }
+
+    @Override
+    public void delete(String id) {
+        if (id == null) {
+            return;
+        }
+        writerLock.lock();
+        try {
+            Layout current = layout;
+            PlayerRepository shard = current.players(id);
+            String username = shard.indexedUsername(id);
+            if (username == null) {
+                return;
+            }
+            markUnclean();
+            shard.delete(id);
+            current.usernames(username).remove(username, id);
+            markCleanIfWrittenThrough();
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    @Override
+    public void update(String id, Player player) {
+        validatePlayer(player);
+        writerLock.lock();
+        try {
+            Layout current = layout;
+            PlayerRepository shard = current.players(id);
+            String oldUsername = id == null ? null : shard.indexedUsername(id);
+            if (oldUsername == null) {
+                throw new IllegalArgumentException("Player not found: " + id);
+            }
+            String newUsername = player.getUsername();
+            String owner = current.usernames(newUsername).get(newUsername);
+            if (owner != null && !owner.equals(id)) {
+                throw new IllegalStateException("Username already exists");
+            }
+            markUnclean();
+            shard.update(id, player);
+            if (!oldUsername.equals(newUsername)) {
+                current.usernames(oldUsername).remove(oldUsername, id);
+                current.usernames(newUsername).put(newUsername, id);
+            }
+            markCleanIfWrittenThrough();
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    /**
+     * Changes the number of shards. All players are loaded and written to a
+     * new generation of shard files, then the manifest is switched to it and
+     * the previous files are deleted. Lookups keep working on the previous
+     * generation while the new one is written; mutations wait.
+     *
+     * @param shardCount The new number of shards
+     * @throws IllegalArgumentException if shardCount is not positive
+     * @throws RuntimeException if an I/O error occurs while writing the new shards
+     */
+    public void reshard(int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive");
+        }
+        writerLock.lock();
+        try {
+            Layout previous = layout;
+            if (shardCount == previous.shardCount) {
+                return;
+            }
+            markUnclean();
+            Layout next = new Layout(shardCount, previous.generation + 1);
+            deleteGeneration(next.generation);
+
+            List<List<Player>> players = new ArrayList<>();
+            List<Map<String, String>> usernames = new ArrayList<>();
+            for (int shard = 0; shard < shardCount; shard++) {
+                players.add(new ArrayList<>());
+                usernames.add(new HashMap<>());
+            }
+            for (int shard = 0; shard < previous.shardCount; shard++) {
+                for (Player player : previous.players(shard).findAll()) {
+                    players.get(shardOf(player.getId(), shardCount)).add(player);
+                    usernames.get(shardOf(player.getUsername(), shardCount)).put(player.getUsername(), player.getId());
+                }
+            }
+            for (int shard = 0; shard < shardCount; shard++) {
+                next.players(shard).saveAll(players.get(shard));
+                next.usernames(shard).putAll(usernames.get(shard));
+            }
+            next.loaded().forEach(BaseRepository::flush);
+
+            // Every shard of the new generation is written, so it starts out clean
+            writeToFile(ShardManifest.of(shardCount, next.generation, true));
+            clean = true;
+            layout = next;
+            previous.loaded().forEach(BaseRepository::disableWriteBehind);
+            deleteGeneration(previous.generation);
+            logger.info("Resharded {} from {} to {} shards", filePath, previous.shardCount, shardCount);
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    @Override
+    public void setItemCatalog(ItemCatalog itemCatalog) {
+        writerLock.lock();
+        try {
+            this.itemCatalog = itemCatalog;
+            layout.loadedPlayers().forEach(shard -> shard.setItemCatalog(itemCatalog));
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    @Override
+    public synchronized void enableWriteBehind(long maxDelayMillis) {
+        super.enableWriteBehind(maxDelayMillis);
+        shardWriteBehindMillis = maxDelayMillis;
+        layout.loaded().forEach(shard -> shard.enableWriteBehind(maxDelayMillis));
+    }
+
+    @Override
+    public synchronized void disableWriteBehind() {
+        shardWriteBehindMillis = 0;
+        layout.loaded().forEach(BaseRepository::disableWriteBehind);
+        super.disableWriteBehind();
+    }
+
+    @Override
+    public void setDurability(Durability durability) {
+        super.setDurability(durability);
+        layout.loaded().forEach(shard -> shard.setDurability(durability));
+    }
+
+    /**
+     * Writes pending changes of all loaded shards to disk, then marks the
+     * manifest as clean if no mutation made new changes meanwhile.
+     */
+    @Override
+    public void flush() {
+        super.flush();
+        layout.loaded().forEach(BaseRepository::flush);
+        writerLock.lock();
+        try {
+            if (!clean && !isDirty()) {
+                Layout current = layout;
+                writeToFile(ShardManifest.of(current.shardCount, current.generation, true));
+                clean = true;
+            }
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    /**
+     * Writes all pending changes, switches back to write-through mode and
+     * marks the manifest as clean, so the next open trusts the username
+     * directory. The repository stays usable.
+     */
+    @Override
+    public void close() {
+        disableWriteBehind();
+        flush();
+    }
+
+    @Override
+    public boolean isDirty() {
+        return super.isDirty() || layout.loaded().stream().anyMatch(BaseRepository::isDirty);
+    }
+
+    /**
+     * Opens the repository for one player shard. Subclasses can return a
+     * repository that keeps only part of the shard in memory.
+     *
+     * @param filePath Path to the shard file
+     * @param itemCatalog Catalog to intern inventory items with, or null
+     * @return The shard repository
+     */
+    protected PlayerRepository openShard(String filePath, ItemCatalog itemCatalog) {
+        PlayerRepository shard = new PlayerRepository(filePath, false);
+        shard.setItemCatalog(itemCatalog);
+        // Shards nobody has written to yet have no file
+        if (Files.exists(Paths.get(filePath))) {
+            shard.loadPlayers();
+        }
+        return shard;
+    }
+
+    /**
+     * Returns the player shard of the current layout that holds the given ID,
+     * opening it if needed.
+     *
+     * @param id The player's ID
+     * @return The shard repository
+     */
+    protected PlayerRepository shardFor(String id) {
+        return layout.players(id);
+    }
+
+    /**
+     * Returns the player shards of the current layout that are open.
+     *
+     * @return The open shard repositories
+     */
+    protected List<PlayerRepository> loadedShards() {
+        return layout.loadedPlayers();
+    }
+
+    /**
+     * Clears the clean mark of the manifest before a mutation writes anything,
+     * unless it is already cleared. Called with the writer lock held.
+     */
+    private void markUnclean() {
+        if (clean) {
+            Layout current = layout;
+            writeToFile(ShardManifest.of(current.shardCount, current.generation, false));
+            clean = false;
+        }
+    }
+
+    /**
+     * Sets the clean mark of the manifest again after a mutation completed in
+     * write-through mode, where its shard writes are done when it returns.
+     * Called with the writer lock held.
+     */
+    private void markCleanIfWrittenThrough() {
+        if (!clean && !isWriteBehindEnabled()) {
+            Layout current = layout;
+            writeToFile(ShardManifest.of(current.shardCount, current.generation, true));
+            clean = true;
+        }
+    }
+
+    /**
+     * Rebuilds the username directory from the player shard files, after the
+     * repository was not flushed before it was last closed. Reads the files
+     * without keeping the players in memory. If two players claim the same
+     * username, the first one read keeps it.
+     */
+    private void rebuildUsernameDirectory() {
+        Layout current = layout;
+        List<Map<String, String>> entries = new ArrayList<>();
+        for (int shard = 0; shard < current.shardCount; shard++) {
+            entries.add(new HashMap<>());
+        }
+        int[] players = new int[1];
+        for (int shard = 0; shard < current.shardCount; shard++) {
+            String path = shardPath(current.generation, 'p', shard);
+            if (!Files.exists(Paths.get(path))) {
+                continue;
+            }
+            new PlayerRepository(path, false).loadAll(player -> {
+                String owner = entries.get(shardOf(player.getUsername(), current.shardCount))
+                        .putIfAbsent(player.getUsername(), player.getId());
+                if (owner != null) {
+                    logger.warn("Players {} and {} share username '{}'; keeping {}",
+                            owner, player.getId(), player.getUsername(), owner);
+                }
+                players[0]++;
+            });
+        }
+        int changed = 0;
+        for (int shard = 0; shard < current.shardCount; shard++) {
+            if (current.usernames(shard).replaceAll(entries.get(shard))) {
+                changed++;
+            }
+        }
+        logger.warn("{} was not flushed when last closed; rebuilt the username directory from {} players "
+                + "({} directory shards changed)", filePath, players[0], changed);
+    }
+
+    /**
+     * Applies the repository's settings to a newly opened shard.
+     */
+    private <R extends BaseRepository<?>> R configure(R shard) {
+        shard.setDurability(getDurability());
+        long delay = shardWriteBehindMillis;
+        if (delay > 0) {
+            shard.enableWriteBehind(delay);
+        }
+        return shard;
+    }
+
+    private String shardPath(int generation, char kind, int shard) {
+        return Paths.get(filePath).resolveSibling(baseName + "." + generation + "." + kind + shard + extension)
+                .toString();
+    }
+
+    /**
+     * Deletes the shard files of one generation.
+     */
+    private void deleteGeneration(int generation) {
+        deleteShardFiles(g -> g == generation);
+    }
+
+    /**
+     * Deletes shard files left over from generations other than the current
+     * one, e.g. by a reshard interrupted before or after the manifest switch.
+     */
+    private void deleteOtherGenerations(int current) {
+        deleteShardFiles(g -> g != current);
+    }
+
+    private void deleteShardFiles(IntPredicate generation) {
+        Path directory = Paths.get(filePath).toAbsolutePath().getParent();
+        if (directory == null || !Files.isDirectory(directory)) {
+            return;
+        }
+        Pattern pattern = Pattern.compile(Pattern.quote(baseName) + "\\.(\\d+)\\.[pu]\\d+" + Pattern.quote(extension));
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, baseName + ".*")) {
+            for (Path file : files) {
+                Matcher matcher = pattern.matcher(file.getFileName().toString());
+                if (matcher.matches() && generation.test(Integer.parseInt(matcher.group(1)))) {
+                    Files.deleteIfExists(file);
+                    logger.info("Deleted shard file {}", file);
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            logger.warn("Could not clean up shard files of {}: {}", filePath, e.getMessage());
+        }
+    }
+
+    /**
+     * One generation of shard files, with the shards opened so far.
+     */
+    private final class Layout {
+        final int shardCount;
+        final int generation;
+        final AtomicReferenceArray<PlayerRepository> players;
+        final AtomicReferenceArray<UsernameShard> usernames;
+
+        Layout(int shardCount, int generation) {
+            this.shardCount = shardCount;
+            this.generation = generation;
+            this.players = new AtomicReferenceArray<>(shardCount);
+            this.usernames = new AtomicReferenceArray<>(shardCount);
+        }
+
+        PlayerRepository players(String id) {
+            return players(shardOf(id, shardCount));
+        }
+
+        UsernameShard usernames(String username) {
+            return usernames(shardOf(username, shardCount));
+        }
+
+        PlayerRepository players(int shard) {
+            PlayerRepository repository = players.get(shard);
+            if (repository == null) {
+                synchronized (this) {
+                    repository = players.get(shard);
+                    if (repository == null) {
+                        repository = configure(openShard(shardPath(generation, 'p', shard), itemCatalog));
+                        players.set(shard, repository);
+                    }
+                }
+            }
+            return repository;
+        }
+
+        UsernameShard usernames(int shard) {
+            UsernameShard directory = usernames.get(shard);
+            if (directory == null) {
+                synchronized (this) {
+                    directory = usernames.get(shard);
+                    if (directory == null) {
+                        directory = configure(new UsernameShard(shardPath(generation, 'u', shard)));
+                        usernames.set(shard, directory);
+                    }
+                }
+            }
+            return directory;
+        }
+
+        /**
+         * Returns the player shards opened so far.
+         */
+        List<PlayerRepository> loadedPlayers() {
+            List<PlayerRepository> loaded = new ArrayList<>();
+            for (int shard = 0; shard < shardCount; shard++) {
+                if (players.get(shard) != null) {
+                    loaded.add(players.get(shard));
+                }
+            }
+            return loaded;
+        }
+
+        /**
+         * Returns all player and username shards opened so far.
+         */
+        synchronized List<BaseRepository<?>> loaded() {
+            List<BaseRepository<?>> loaded = new ArrayList<>(loadedPlayers());
+            for (int shard = 0; shard < shardCount; shard++) {
+                if (usernames.get(shard) != null) {
+                    loaded.add(usernames.get(shard));
+                }
+            }
+            return loaded;
+        }
+    }
+
+    /**
+     * One shard of the username directory: a map from username to player ID,
+     * stored as a JSON object.
+     */
+    static final class UsernameShard extends BaseRepository<Map<String, String>> {
+        private static final TypeReference<Map<String, String>> TYPE = new TypeReference<Map<String, String>>() {};
+
+        /** Player ID for each username */
+        private final Map<String, String> ids = new ConcurrentHashMap<>();
+
+        UsernameShard(String filePath) {
+            super(filePath);
+            Map<String, String> stored = Files.exists(Paths.get(filePath)) ? readFromFile(TYPE) : null;
+            if (stored != null) {
+                ids.putAll(stored);
+            }
+        }
+
+        String get(String username) {
+            return ids.get(username);
+        }
+
+        void put(String username, String id) {
+            ids.put(username, id);
+            persist();
+        }
+
+        void putAll(Map<String, String> entries) {
+            if (!entries.isEmpty()) {
+                ids.putAll(entries);
+                persist();
+            }
+        }
+
+        void remove(String username, String id) {
+            if (ids.remove(username, id)) {
+                persist();
+            }
+        }
+
+        /**
+         * Replaces all entries, writing the shard only if they differ.
+         *
+         * @return true if the entries changed
+         */
+        boolean replaceAll(Map<String, String> entries) {
+            if (ids.equals(entries)) {
+                return false;
+            }
+            ids.clear();
+            ids.putAll(entries);
+            persist();
+            return true;
+        }
+
+        private void persist() {
+            scheduleWrite(() -> new TreeMap<>(ids));
+        }
+    }
+
+    /**
+     * Contents of the manifest file. A manifest without the clean mark, e.g.
+     * one written before it existed, reads as not clean.
+     */
+    static class ShardManifest {
+        public int shardCount;
+        public int generation;
+        public boolean clean;
+
+        static ShardManifest of(int shardCount, int generation, boolean clean) {
+            ShardManifest manifest = new ShardManifest();
+            manifest.shardCount = shardCount;
+            manifest.generation = generation;
+            manifest.clean = clean;
+            return manifest;
+        }
+    }
+}
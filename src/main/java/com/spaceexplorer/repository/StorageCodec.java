@@ -0,0 +1,117 @@
+package main.java.com.spaceexplorer.repository;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * On-disk encoding of repository files.
+ * A codec turns a byte stream into a Jackson token stream and back, so the
+ * cached readers and writers of {@link JsonMappers} bind entities the same way
+ * whatever the file format. The codec of a repository is chosen from its file
+ * extension, see {@link #forFile(String)}.
+ *
+ * Parsers and generators created by a codec never close the streams they are
+ * given; the caller owns them.
+ *
+ * @author Space Explorer Development Team
+ * @version 1.0
+ * @since 1.1
+ */
+public interface StorageCodec {
+    /** JSON text, the format of version 1.0 */
+    StorageCodec JSON = new JsonCodec();
+
+    /** Compact binary encoding of the same token stream */
+    StorageCodec BINARY = new BinaryCodec();
+
+    /**
+     * Gets the short name of this codec.
+     *
+     * @return The codec name, e.g. {@code json}
+     */
+    String getName();
+
+    /**
+     * Gets the file extension, without the dot, of files in this format.
+     *
+     * @return The file extension
+     */
+    String getFileExtension();
+
+    /**
+     * Creates a parser over encoded content.
+     *
+     * @param in The stream to read
+     * @return A parser positioned before the first token
+     * @throws IOException if the stream cannot be read or is not in this format
+     */
+    JsonParser createParser(InputStream in) throws IOException;
+
+    /**
+     * Creates a generator that encodes the tokens written to it.
+     *
+     * @param out The stream to write to
+     * @return A generator; closing it flushes the encoded content to the stream
+     * @throws IOException if the stream cannot be written
+     */
+    JsonGenerator createGenerator(OutputStream out) throws IOException;
+
+    /**
+     * Tells whether a value in a file of this format can be parsed starting
+     * at its byte offset, without reading the content before it.
+     *
+     * @return true if values can be read from their offsets
+     */
+    default boolean isRandomAccess() {
+        return false;
+    }
+
+    /**
+     * Gets all built-in codecs.
+     *
+     * @return The built-in codecs
+     */
+    static List<StorageCodec> all() {
+        return List.of(JSON, BINARY);
+    }
+
+    /**
+     * Picks the codec for a file from its extension.
+     * Files without a known extension are treated as JSON.
+     *
+     * @param filePath The file path
+     * @return The codec for the file
+     */
+    static StorageCodec forFile(String filePath) {
+        String fileName = Path.of(filePath).getFileName().toString().toLowerCase(Locale.ROOT);
+        for (StorageCodec codec : all()) {
+            if (fileName.endsWith("." + codec.getFileExtension())) {
+                return codec;
+            }
+        }
+        return JSON;
+    }
+
+    /**
+     * Looks up a built-in codec by name.
+     *
+     * @param name The codec name
+     * @return The codec
+     * @throws IllegalArgumentException if no codec has the name
+     */
+    static StorageCodec forName(String name) {
+        for (StorageCodec codec : all()) {
+            if (codec.getName().equalsIgnoreCase(name)) {
+                return codec;
+            }
+        }
+        throw new IllegalArgumentException("Unknown storage format: " + name);
+    }
+}
@@ -0,0 +1,103 @@
+package main.java.com.spaceexplorer.repository;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Converts repository files between storage formats, e.g. a JSON game map to
+ * the binary format and back. The token stream is copied one token at a time,
+ * so files of any size can be converted without binding them to model objects.
+ * The target is written to a temporary file that atomically replaces it, so
+ * a failed conversion leaves an existing target untouched.
+ *
+ * Usage: {@code StorageConverter <source> <target>}, where the format of each
+ * file is taken from its extension ({@code .json} or {@code .sxb}).
+ *
+ * @author Space Explorer Development Team
+ * @version 1.0
+ * @since 1.1
+ */
+public final class StorageConverter {
+    private StorageConverter() {}
+
+    /**
+     * Converts a file, taking both formats from the file extensions.
+     *
+     * @param source The file to read
+     * @param target The file to write; replaced if it exists
+     * @throws IOException if the source cannot be read or the target cannot be written
+     */
+    public static void convert(Path source, Path target) throws IOException {
+        convert(source, StorageCodec.forFile(source.toString()), target, StorageCodec.forFile(target.toString()));
+    }
+
+    /**
+     * Converts a file between the given formats.
+     *
+     * @param source The file to read
+     * @param sourceCodec Format of the source file
+     * @param target The file to write; replaced if it exists
+     * @param targetCodec Format of the target file
+     * @throws IllegalArgumentException if source and target are the same file
+     * @throws IOException if the source cannot be read or the target cannot be written
+     */
+    public static void convert(Path source, StorageCodec sourceCodec, Path target, StorageCodec targetCodec)
+            throws IOException {
+        Path absoluteTarget = target.toAbsolutePath();
+        if (Files.exists(absoluteTarget) && Files.isSameFile(source, absoluteTarget)) {
+            throw new IllegalArgumentException("Source and target are the same file: " + source);
+        }
+        Path directory = absoluteTarget.getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, absoluteTarget.getFileName() + ".", ".tmp");
+        try {
+            try (InputStream in = Files.newInputStream(source);
+                 OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp), 64 * 1024);
+                 JsonParser parser = sourceCodec.createParser(in);
+                 JsonGenerator generator = targetCodec.createGenerator(out)) {
+                while (parser.nextToken() != null) {
+                    generator.copyCurrentStructure(parser);
+                }
+            }
+            try {
+                Files.move(temp, absoluteTarget, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, absoluteTarget, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Command line entry point.
+     *
+     * @param args The source and target file
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: StorageConverter <source.json|source.sxb> <target.json|target.sxb>");
+            System.exit(2);
+        }
+        Path source = Paths.get(args[0]);
+        Path target = Paths.get(args[1]);
+        try {
+            convert(source, target);
+            System.out.printf("Converted %s (%d bytes) to %s (%d bytes)%n",
+                    source, Files.size(source), target, Files.size(target));
+        } catch (IOException e) {
+            System.err.println("Conversion failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,686 @@
+package main.java.com.spaceexplorer.repository;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import main.java.com.spaceexplorer.model.Player;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Sharded player repository that keeps only a bounded working set of
+ * recently used players in memory. Most accounts are dormant, so heap use
+ * follows the number of active players rather than the number of registered ones.
+ *
+ * Every shard keeps only the offset of each player's record in its file, the
+ * players changed since the file was last written, and its resident players.
+ * Looking up a player by ID or username that is not resident reads its record
+ * and makes it resident. Every player that becomes resident joins the working
+ * set, also when the operation that loaded it fails; players that are saved,
+ * updated or found become the most recently used. Once more than the
+ * configured number of players are resident, the least recently used ones are
+ * unloaded. Saves and updates keep the stored copy of the player they change
+ * until the shard file is written, so unloading only drops the instance: it
+ * never writes, and loses no data, also in write-behind mode.
+ *
+ * The trade-offs of the partial shards:
+ * <ul>
+ *   <li>The offsets of all players stay in memory, some tens of bytes per
+ *       registered player, as does the username directory.</li>
+ *   <li>A cold player is read from its offset in a JSON shard, but a binary
+ *       shard is scanned up to the record, since binary records refer to
+ *       strings written before them. Prefer JSON shards when many reads miss
+ *       the working set.</li>
+ *   <li>Writing a shard copies the records of unchanged players from the old
+ *       file without decoding them, then reads the new file once for the new
+ *       offsets, so shards should still stay small; use more shards for more
+ *       players.</li>
+ *   <li>A player instance that was unloaded is no longer shared: a later
+ *       lookup returns a new instance. Changes must be saved through
+ *       {@link #update(String, Player)} anyway, which makes the given instance resident.</li>
+ *   <li>{@link #findAll()} reads every record but does not make the players resident.</li>
+ * </ul>
+ *
+ * @author Space Explorer Development Team
+ * @version 1.0
+ * @since 1.1
+ */
+public class WorkingSetPlayerRepository extends ShardedPlayerRepository {
+    /** Default maximum number of resident players */
+    public static final int DEFAULT_MAX_RESIDENT_PLAYERS = 10_000;
+
+    /** Maximum number of resident players */
+    private final int maxResidentPlayers;
+
+    /** IDs of the resident players, least recently used first */
+    private final Map<String, Boolean> recentlyUsed = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Creates a repository over the manifest at the given path with the
+     * default shard count and working set size.
+     *
+     * @param filePath Path to the manifest file
+     */
+    public WorkingSetPlayerRepository(String filePath) {
+        this(filePath, DEFAULT_SHARD_COUNT, DEFAULT_MAX_RESIDENT_PLAYERS);
+    }
+
+    /**
+     * Creates a repository over the manifest at the given path. The shard
+     * count only applies to a new repository; an existing one keeps the shard
+     * count of its manifest.
+     *
+     * @param filePath Path to the manifest file
+     * @param shardCount Number of shards for a new repository
+     * @param maxResidentPlayers Maximum number of players kept in memory
+     * @throws IllegalArgumentException if shardCount or maxResidentPlayers is not positive
+     */
+    public WorkingSetPlayerRepository(String filePath, int shardCount, int maxResidentPlayers) {
+        super(filePath, shardCount);
+        if (maxResidentPlayers <= 0) {
+            throw new IllegalArgumentException("Maximum resident players must be positive");
+        }
+        this.maxResidentPlayers = maxResidentPlayers;
+    }
+
+    /**
+     * Returns the maximum number of players kept in memory.
+     *
+     * @return The working set size
+     */
+    public int getMaxResidentPlayers() {
+        return maxResidentPlayers;
+    }
+
+    /**
+     * Returns the number of players currently in memory.
+     *
+     * @return The resident player count
+     */
+    public int getResidentPlayerCount() {
+        int count = 0;
+        for (PlayerRepository shard : loadedShards()) {
+            count += shard.residentCount();
+        }
+        return count;
+    }
+
+    @Override
+    public void save(Player player) {
+        try {
+            super.save(player);
+            markUsed(player.getId());
+        } finally {
+            evictExcess();
+        }
+    }
+
+    @Override
+    public void saveAll(Collection<Player> players) {
+        List<Player> batch = new ArrayList<>(players);
+        try {
+            super.saveAll(batch);
+            batch.forEach(player -> markUsed(player.getId()));
+        } finally {
+            evictExcess();
+        }
+    }
+
+    @Override
+    public Optional<Player> findById(String id) {
+        try {
+            Optional<Player> player = super.findById(id);
+            player.ifPresent(found -> markUsed(id));
+            return player;
+        } finally {
+            evictExcess();
+        }
+    }
+
+    @Override
+    public Optional<Player> findByUsername(String username) {
+        try {
+            Optional<Player> player = super.findByUsername(username);
+            player.ifPresent(found -> markUsed(found.getId()));
+            return player;
+        } finally {
+            evictExcess();
+        }
+    }
+
+    @Override
+    public void update(String id, Player player) {
+        try {
+            super.update(id, player);
+            markUsed(id);
+        } finally {
+            evictExcess();
+        }
+    }
+
+    @Override
+    public void delete(String id) {
+        try {
+            super.delete(id);
+            synchronized (recentlyUsed) {
+                recentlyUsed.remove(id);
+            }
+        } finally {
+            evictExcess();
+        }
+    }
+
+    /**
+     * Changes the number of shards, then unloads all players, since copying
+     * them into the new shards makes every player resident.
+     *
+     * @param shardCount The new number of shards
+     */
+    @Override
+    public void reshard(int shardCount) {
+        super.reshard(shardCount);
+        synchronized (recentlyUsed) {
+            recentlyUsed.clear();
+        }
+        loadedShards().forEach(shard -> ((PartialShard) shard).unloadAll());
+    }
+
+    @Override
+    protected PlayerRepository openShard(String filePath, ItemCatalog itemCatalog) {
+        return new PartialShard(filePath, itemCatalog, this::markUsed);
+    }
+
+    /**
+     * Marks a player as the most recently used. Shards call this for every
+     * player that becomes resident, while holding their lock, so it never
+     * unloads anything itself.
+     *
+     * @param id The ID of the player that was used
+     */
+    private void markUsed(String id) {
+        synchronized (recentlyUsed) {
+            recentlyUsed.put(id, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Unloads the least recently used players beyond the working set size.
+     * Runs after every operation, also a failed one, since loading a player
+     * may have made it resident. Players are unloaded after the working set
+     * lock is released, and never while a shard lock is held, so evictions
+     * cannot deadlock with mutations of other shards.
+     */
+    private void evictExcess() {
+        List<String> evicted = null;
+        synchronized (recentlyUsed) {
+            Iterator<String> eldest = recentlyUsed.keySet().iterator();
+            while (recentlyUsed.size() > maxResidentPlayers) {
+                if (evicted == null) {
+                    evicted = new ArrayList<>();
+                }
+                evicted.add(eldest.next());
+                eldest.remove();
+            }
+        }
+        if (evicted != null) {
+            for (String victim : evicted) {
+                shardFor(victim).unload(victim);
+            }
+        }
+    }
+
+    /**
+     * Player shard that holds only its resident players in memory. Of the
+     * other players it keeps the byte offset of their record in the shard
+     * file, and the stored copies of the players changed since the file was
+     * last written. Lookups of unknown IDs and duplicate checks only consult
+     * the offsets. Cold players are read from their record: directly at its
+     * offset if the codec is {@linkplain StorageCodec#isRandomAccess() random
+     * access}, and by scanning the file up to it otherwise. Writing the shard
+     * copies the records of unchanged players from the old file without
+     * binding them, then reads the new file once to update the offsets.
+     */
+    static final class PartialShard extends PlayerRepository {
+        /** Offset of a player that is not yet in the shard file */
+        private static final long UNWRITTEN = -1L;
+
+        /** Writer used for the changed players */
+        private static final ObjectWriter RECORD_WRITER = JsonMappers.writerFor(Player.class);
+
+        /** Reader used for cold players */
+        private static final ObjectReader RECORD_READER = JsonMappers.readerFor(Player.class);
+
+        /** Offset of the record of every player in the shard, resident or not, keyed by ID */
+        private final Map<String, Long> offsets = new ConcurrentHashMap<>();
+
+        /** Stored copies of the players changed since the shard file was last written, keyed by ID */
+        private final Map<String, Player> unwritten = new ConcurrentHashMap<>();
+
+        /** Excludes readers of the shard file while it is replaced and the offsets are updated */
+        private final ReadWriteLock fileLock = new ReentrantReadWriteLock();
+
+        /** Receives the ID of every player that becomes resident */
+        private final Consumer<String> onResident;
+
+        /**
+         * Opens a shard and reads the offsets of its stored players.
+         *
+         * @param filePath Path to the shard file
+         * @param itemCatalog Catalog to intern inventory items with, or null
+         * @param onResident Receives the ID of every player that becomes resident
+         */
+        PartialShard(String filePath, ItemCatalog itemCatalog, Consumer<String> onResident) {
+            super(filePath, false);
+            this.onResident = onResident;
+            setItemCatalog(itemCatalog);
+            readOffsets(offsets::put);
+        }
+
+        @Override
+        public Optional<Player> findById(String id) {
+            if (id == null || !offsets.containsKey(id)) {
+                return Optional.empty();
+            }
+            return Optional.ofNullable(residentOrLoad(id, this::load));
+        }
+
+        @Override
+        public boolean exists(String id) {
+            return id != null && offsets.containsKey(id);
+        }
+
+        @Override
+        public void save(Player player) {
+            if (player != null) {
+                findById(player.getId());
+            }
+            super.save(player);
+        }
+
+        @Override
+        public void saveAll(Collection<Player> players) {
+            for (Player player : players) {
+                if (player != null) {
+                    findById(player.getId());
+                }
+            }
+            super.saveAll(players);
+        }
+
+        @Override
+        public void update(String id, Player player) {
+            findById(id);
+            super.update(id, player);
+        }
+
+        @Override
+        String indexedUsername(String id) {
+            findById(id);
+            return super.indexedUsername(id);
+        }
+
+        /**
+         * Returns all players of the shard: the resident ones, and the others
+         * read from their records.
+         *
+         * @return List of all players in the shard
+         */
+        @Override
+        protected List<Player> snapshot() {
+            fileLock.readLock().lock();
+            try {
+                List<Player> all = super.snapshot();
+                Set<String> listed = new HashSet<>();
+                all.forEach(player -> listed.add(player.getId()));
+                long[] cold;
+                synchronized (unwritten) {
+                    unwritten.forEach((id, player) -> {
+                        if (listed.add(id)) {
+                            all.add(player.copy());
+                        }
+                    });
+                    cold = recordOffsets(listed);
+                }
+                forEachRecordAt(cold, (parser, offset) -> {
+                    all.add(RECORD_READER.readValue(parser));
+                    return true;
+                });
+                return all;
+            } catch (IOException e) {
+                logger.error("Error reading from file: {}", e.getMessage());
+                throw new RuntimeException("Error loading data", e);
+            } finally {
+                fileLock.readLock().unlock();
+            }
+        }
+
+        @Override
+        protected void persistSave(Player player) {
+            synchronized (unwritten) {
+                keepUnwritten(player.getId());
+            }
+            onResident.accept(player.getId());
+            writeRecords();
+        }
+
+        @Override
+        protected void persistSaveAll(List<Player> players) {
+            synchronized (unwritten) {
+                players.forEach(player -> keepUnwritten(player.getId()));
+            }
+            players.forEach(player -> onResident.accept(player.getId()));
+            writeRecords();
+        }
+
+        @Override
+        protected void persistUpdate(String id, Player player) {
+            synchronized (unwritten) {
+                keepUnwritten(id);
+            }
+            writeRecords();
+        }
+
+        @Override
+        protected void persistDelete(String id) {
+            if (id == null) {
+                return;
+            }
+            synchronized (unwritten) {
+                if (offsets.remove(id) == null) {
+                    return;
+                }
+                unwritten.remove(id);
+            }
+            writeRecords();
+        }
+
+        /**
+         * Writes the shard file, then points the offsets into the new file and
+         * drops the changed players it now holds, unless they changed again.
+         *
+         * @param data The records to write
+         */
+        @Override
+        protected void writeToFile(Object data) {
+            fileLock.writeLock().lock();
+            try {
+                super.writeToFile(data);
+                if (data instanceof ShardContents) {
+                    readOffsets(offsets::replace);
+                    synchronized (unwritten) {
+                        for (Player written : ((ShardContents) data).changed) {
+                            if (unwritten.get(written.getId()) == written) {
+                                unwritten.remove(written.getId());
+                            }
+                        }
+                    }
+                }
+            } finally {
+                fileLock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Unloads all resident players.
+         */
+        void unloadAll() {
+            super.snapshot().forEach(player -> unload(player.getId()));
+        }
+
+        /**
+         * Reads a stored player that is about to become resident.
+         *
+         * @param id The player's ID
+         * @return The stored player, or null if the shard doesn't hold it
+         */
+        private Player load(String id) {
+            Player player;
+            fileLock.readLock().lock();
+            try {
+                Player changed = unwritten.get(id);
+                Long offset = offsets.get(id);
+                if (changed != null) {
+                    player = changed.copy();
+                } else if (offset != null && offset != UNWRITTEN) {
+                    player = readRecord(offset);
+                } else {
+                    return null;
+                }
+            } finally {
+                fileLock.readLock().unlock();
+            }
+            onResident.accept(id);
+            return player;
+        }
+
+        /**
+         * Keeps the stored copy of a saved or updated player until the shard
+         * file is written. Callers hold the lock of the unwritten players.
+         *
+         * @param id The player's ID
+         */
+        private void keepUnwritten(String id) {
+            unwritten.put(id, storedCopy(id));
+            offsets.putIfAbsent(id, UNWRITTEN);
+        }
+
+        /**
+         * Writes the shard file from the records of the unchanged players in
+         * the current file and the changed players, once no batch is half applied.
+         */
+        private void writeRecords() {
+            scheduleWrite(() -> {
+                synchronized (unwritten) {
+                    return new ShardContents(recordOffsets(unwritten.keySet()), new ArrayList<>(unwritten.values()));
+                }
+            });
+        }
+
+        /**
+         * Returns the offsets of the records in the shard file, in file order,
+         * of all players except the given ones. Callers hold the lock of the
+         * unwritten players.
+         *
+         * @param excluded IDs of the players to leave out
+         * @return The sorted offsets
+         */
+        private long[] recordOffsets(Set<String> excluded) {
+            long[] selected = new long[offsets.size()];
+            int count = 0;
+            for (Map.Entry<String, Long> entry : offsets.entrySet()) {
+                long offset = entry.getValue();
+                if (offset != UNWRITTEN && !excluded.contains(entry.getKey())) {
+                    selected[count++] = offset;
+                }
+            }
+            selected = Arrays.copyOf(selected, count);
+            Arrays.sort(selected);
+            return selected;
+        }
+
+        /**
+         * Reads the record at the given offset of the shard file.
+         *
+         * @param offset The offset of the record
+         * @return The stored player
+         */
+        private Player readRecord(long offset) {
+            try {
+                if (!codec.isRandomAccess()) {
+                    Player[] found = new Player[1];
+                    forEachRecordAt(new long[] {offset}, (parser, at) -> {
+                        found[0] = RECORD_READER.readValue(parser);
+                        return false;
+                    });
+                    return found[0];
+                }
+                try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+                    channel.position(offset);
+                    try (JsonParser parser = codec.createParser(Channels.newInputStream(channel))) {
+                        return RECORD_READER.readValue(parser);
+                    }
+                }
+            } catch (IOException e) {
+                logger.error("Error reading from file: {}", e.getMessage());
+                throw new RuntimeException("Error loading data", e);
+            }
+        }
+
+        /**
+         * Reads the ID and offset of every record in the shard file, if it exists.
+         *
+         * @param sink Receives the ID and offset of each record
+         */
+        private void readOffsets(BiConsumer<String, Long> sink) {
+            try {
+                scanRecords((parser, offset) -> {
+                    String id = null;
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String field = parser.getCurrentName();
+                        parser.nextToken();
+                        if ("id".equals(field)) {
+                            id = parser.getValueAsString();
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    if (id != null) {
+                        sink.accept(id, offset);
+                    }
+                    return true;
+                });
+            } catch (IOException e) {
+                logger.error("Error reading from file: {}", e.getMessage());
+                throw new RuntimeException("Error loading data", e);
+            }
+        }
+
+        /**
+         * Hands the records at the given offsets to a visitor, skipping all others.
+         *
+         * @param sortedOffsets The offsets of the records to visit, in file order
+         * @param visitor Visits each selected record
+         * @throws IOException if the shard file cannot be read
+         */
+        private void forEachRecordAt(long[] sortedOffsets, RecordVisitor visitor) throws IOException {
+            if (sortedOffsets.length == 0) {
+                return;
+            }
+            int[] next = {0};
+            scanRecords((parser, offset) -> {
+                if (offset != sortedOffsets[next[0]]) {
+                    parser.skipChildren();
+                    return true;
+                }
+                return visitor.visit(parser, offset) && ++next[0] < sortedOffsets.length;
+            });
+        }
+
+        /**
+         * Streams the records of the shard file, if it exists, without binding them.
+         *
+         * @param visitor Visits each record until it returns false
+         * @throws IOException if the shard file cannot be read
+         */
+        private void scanRecords(RecordVisitor visitor) throws IOException {
+            Path path = Paths.get(filePath);
+            if (!Files.exists(path)) {
+                return;
+            }
+            try (InputStream in = Files.newInputStream(path);
+                 JsonParser parser = codec.createParser(in)) {
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    throw new IOException("Expected an array in " + filePath);
+                }
+                JsonToken token;
+                while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+                    if (token != JsonToken.START_OBJECT) {
+                        parser.skipChildren();
+                    } else if (!visitor.visit(parser, parser.getTokenLocation().getByteOffset())) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Visits a record of the shard file.
+         */
+        @FunctionalInterface
+        private interface RecordVisitor {
+            /**
+             * Visits a record, consuming it completely.
+             *
+             * @param parser The parser, positioned at the start of the record
+             * @param offset The offset of the record in the file
+             * @return false to stop at this record
+             * @throws IOException if the record cannot be read
+             */
+            boolean visit(JsonParser parser, long offset) throws IOException;
+        }
+
+        /**
+         * Contents of the shard file to write: the records of the unchanged
+         * players, copied token by token from the current file, followed by
+         * the changed players.
+         */
+        private final class ShardContents extends JsonSerializable.Base {
+            /** Offsets of the records to copy, in file order */
+            private final long[] kept;
+
+            /** Stored copies of the changed players */
+            private final List<Player> changed;
+
+            ShardContents(long[] kept, List<Player> changed) {
+                this.kept = kept;
+                this.changed = changed;
+            }
+
+            @Override
+            public void serialize(JsonGenerator generator, SerializerProvider provider) throws IOException {
+                generator.writeStartArray();
+                forEachRecordAt(kept, (parser, offset) -> {
+                    generator.copyCurrentStructure(parser);
+                    return true;
+                });
+                for (Player player : changed) {
+                    RECORD_WRITER.writeValue(generator, player);
+                }
+                generator.writeEndArray();
+            }
+
+            @Override
+            public void serializeWithType(JsonGenerator generator, SerializerProvider provider,
+                                          TypeSerializer typeSerializer) throws IOException {
+                serialize(generator, provider);
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package main.java.com.spaceexplorer.repository;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters describing the write activity of a repository.
+ * Tracks completed writes, bytes written and time spent waiting for fsync.
+ * All counters are cumulative and safe to update from multiple threads.
+ *
+ * @author Space Explorer Development Team
+ * @version 1.0
+ * @since 1.1
+ */
+public class WriteMetrics {
+    /** Number of completed writes */
+    private final LongAdder writes = new LongAdder();
+
+    /** Total bytes written */
+    private final LongAdder bytesWritten = new LongAdder();
+
+    /** Number of fsync calls */
+    private final LongAdder fsyncs = new LongAdder();
+
+    /** Total time spent in fsync, in nanoseconds */
+    private final LongAdder fsyncNanos = new LongAdder();
+
+    /**
+     * Records a completed write.
+     *
+     * @param bytes Number of bytes written
+     */
+    void recordWrite(long bytes) {
+        writes.increment();
+        bytesWritten.add(bytes);
+    }
+
+    /**
+     * Records a completed fsync call.
+     *
+     * @param nanos Time the call took, in nanoseconds
+     */
+    void recordFsync(long nanos) {
+        fsyncs.increment();
+        fsyncNanos.add(nanos);
+    }
+
+    /**
+     * Gets the number of completed writes.
+     *
+     * @return The write count
+     */
+    public long getWrites() {
+        return writes.sum();
+    }
+
+    /**
+     * Gets the total number of bytes written.
+     *
+     * @return The byte count
+     */
+    public long getBytesWritten() {
+        return bytesWritten.sum();
+    }
+
+    /**
+     * Gets the number of fsync calls.
+     *
+     * @return The fsync count
+     */
+    public long getFsyncs() {
+        return fsyncs.sum();
+    }
+
+    /**
+     * Gets the total time spent in fsync.
+     *
+     * @param unit The time unit of the result
+     * @return The total fsync time in the given unit
+     */
+    public long getFsyncTime(TimeUnit unit) {
+        return unit.convert(fsyncNanos.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("writes=%d, bytes=%d, fsyncs=%d, fsyncTime=%dus",
+                getWrites(), getBytesWritten(), getFsyncs(), getFsyncTime(TimeUnit.MICROSECONDS));
+    }
+}
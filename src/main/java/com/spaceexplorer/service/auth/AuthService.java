@@ -4,12 +4,47 @@ import main.java.com.spaceexplorer.model.Player;
 import main.java.com.spaceexplorer.repository.PlayerRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Service class handling player authentication and registration.
  * Provides methods for secure player registration and login verification.
  *
+ * When created with a {@link PasswordHashingPool}, password hashing runs on the
+ * pool's bounded workers instead of the calling thread, and requests are
+ * rejected with a {@link java.util.concurrent.RejectedExecutionException} when
+ * the pool is saturated.
+ *
+ * After a successful login, a password hash created under a different
+ * {@link HashPolicy} than the current one is transparently replaced with a
+ * fresh hash, so changing the policy needs no migration.
+ *
+ * {@link #createSession(String, String)} logs a player in and returns an opaque
+ * session token that {@link #authenticate(String)} later resolves from a
+ * {@link SessionCache} without rehashing the password. A token stops working
+ * once the player is deleted from the repository or their password hash
+ * changes; this is checked on every lookup, so it also covers changes made
+ * directly through the {@link PlayerRepository}.
+ *
+ * Login attempts pass through a {@link LoginRateLimiter} before any password
+ * is hashed, so brute-forcing one account or flooding the service is rejected
+ * with a {@link TooManyAttemptsException} instead of consuming hashing CPU.
+ *
+ * Accounts can be created in bulk with {@link #registerAll(Collection)} and
+ * {@link #importAccounts(Path, int)}, which hash passwords in parallel across
+ * cores and persist each batch with a single repository write.
+ *
  * @author Space Explorer Development Team
  * @version 1.0
  * @since 1.0
@@ -20,14 +55,65 @@ public class AuthService {
     /** Repository for managing player data */
     private final PlayerRepository playerRepository;
 
+    /** Pool used for password hashing, or null to hash on the calling thread */
+    private final PasswordHashingPool hashingPool;
+
+    /** Authenticated sessions by token */
+    private final SessionCache sessionCache;
+
+    /** Limiter applied to login attempts, or null for no limit */
+    private final LoginRateLimiter rateLimiter;
+
     /**
      * Creates a new AuthService with the specified player repository.
+     * Passwords are hashed on the calling thread.
      *
      * @param playerRepository The repository to use for player data management
      * @throws NullPointerException if playerRepository is null
      */
     public AuthService(PlayerRepository playerRepository) {
+        this(playerRepository, null, new SessionCache());
+    }
+
+    /**
+     * Creates a new AuthService that hashes passwords on the given pool.
+     *
+     * @param playerRepository The repository to use for player data management
+     * @param hashingPool The pool to hash passwords on
+     * @throws NullPointerException if playerRepository or hashingPool is null
+     */
+    public AuthService(PlayerRepository playerRepository, PasswordHashingPool hashingPool) {
+        this(playerRepository, Objects.requireNonNull(hashingPool, "PasswordHashingPool cannot be null"),
+                new SessionCache());
+    }
+
+    /**
+     * Creates a new AuthService with the given session cache.
+     *
+     * @param playerRepository The repository to use for player data management
+     * @param hashingPool The pool to hash passwords on, or null to hash on the calling thread
+     * @param sessionCache The cache holding authenticated sessions
+     * @throws NullPointerException if playerRepository or sessionCache is null
+     */
+    public AuthService(PlayerRepository playerRepository, PasswordHashingPool hashingPool, SessionCache sessionCache) {
+        this(playerRepository, hashingPool, sessionCache, new LoginRateLimiter());
+    }
+
+    /**
+     * Creates a new AuthService with the given session cache and login rate limiter.
+     *
+     * @param playerRepository The repository to use for player data management
+     * @param hashingPool The pool to hash passwords on, or null to hash on the calling thread
+     * @param sessionCache The cache holding authenticated sessions
+     * @param rateLimiter The limiter applied to login attempts, or null for no limit
+     * @throws NullPointerException if playerRepository or sessionCache is null
+     */
+    public AuthService(PlayerRepository playerRepository, PasswordHashingPool hashingPool,
+                       SessionCache sessionCache, LoginRateLimiter rateLimiter) {
         this.playerRepository = Objects.requireNonNull(playerRepository, "PlayerRepository cannot be null");
+        this.hashingPool = hashingPool;
+        this.sessionCache = Objects.requireNonNull(sessionCache, "SessionCache cannot be null");
+        this.rateLimiter = rateLimiter;
     }
 
     /**
@@ -44,23 +130,94 @@ public class AuthService {
     public Player register(String username, String password) {
         validateCredentials(username, password);
 
+        // Cheap early rejection; uniqueness itself is enforced by the repository's username index
         if (playerRepository.findByUsername(username).isPresent()) {
             logger.warn("Registration failed: Username '{}' already exists", username);
             throw new IllegalStateException("Username already exists");
         }
 
         try {
-            String hashedPassword = PasswordHasher.hashPassword(password);
+            String hashedPassword = hashingPool != null
+                    ? join(hashingPool.hashAsync(password))
+                    : PasswordHasher.hashPassword(password);
             Player player = new Player(username, hashedPassword);
             playerRepository.save(player);
             logger.info("Successfully registered new player: {}", username);
             return player;
+        } catch (IllegalStateException e) {
+            logger.warn("Registration failed: Username '{}' already exists", username);
+            throw e;
         } catch (Exception e) {
             logger.error("Registration failed for username '{}': {}", username, e.getMessage());
             throw new RuntimeException("Registration failed", e);
         }
     }
 
+    /**
+     * Registers a batch of players.
+     * All credentials are validated and all usernames checked before any
+     * password is hashed; hashing then runs in parallel on the common fork-join
+     * pool (not the login hashing pool, so imports neither starve nor get shed
+     * by interactive logins), and the players are saved with one repository write.
+     * The batch is all-or-nothing.
+     *
+     * @param accounts The credentials of the accounts to create
+     * @return The newly created players, in input order
+     * @throws IllegalArgumentException if any username or password is invalid
+     * @throws IllegalStateException if any username exists or appears twice in the batch
+     */
+    public List<Player> registerAll(Collection<Credentials> accounts) {
+        List<Credentials> batch = new ArrayList<>(accounts);
+        Set<String> usernames = new HashSet<>();
+        for (Credentials account : batch) {
+            validateCredentials(account.getUsername(), account.getPassword());
+            if (!usernames.add(account.getUsername())
+                    || playerRepository.findByUsername(account.getUsername()).isPresent()) {
+                logger.warn("Bulk registration failed: Username '{}' already exists", account.getUsername());
+                throw new IllegalStateException("Username already exists: " + account.getUsername());
+            }
+        }
+        List<Player> players = batch.parallelStream()
+                .map(account -> new Player(account.getUsername(), PasswordHasher.hashPassword(account.getPassword())))
+                .collect(Collectors.toList());
+        playerRepository.saveAll(players);
+        logger.info("Successfully registered {} players", players.size());
+        return players;
+    }
+
+    /**
+     * Registers all accounts listed in a CSV or JSON-lines file (see
+     * {@link CredentialsReader}), reading and saving them in batches so the file
+     * is never loaded into memory as a whole. Batches saved before a failure stay saved.
+     *
+     * @param file The file to import
+     * @param batchSize Number of accounts hashed and saved together
+     * @return Number of accounts imported
+     * @throws IllegalArgumentException if batchSize is not positive or the file contains invalid data
+     * @throws IllegalStateException if a username already exists
+     * @throws IOException if the file cannot be read
+     */
+    public int importAccounts(Path file, int batchSize) throws IOException {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        int imported = 0;
+        try (CredentialsReader reader = new CredentialsReader(file)) {
+            List<Credentials> batch;
+            while (!(batch = reader.readBatch(batchSize)).isEmpty()) {
+                try {
+                    imported += registerAll(batch).size();
+                } catch (RuntimeException e) {
+                    logger.error("Import of {} stopped at line {} after {} accounts: {}",
+                            file, reader.getLineNumber(), imported, e.getMessage());
+                    throw e;
+                }
+            }
+        }
+        logger.info("Imported {} accounts from {}", imported, file);
+        return imported;
+    }
+
     /**
      * Authenticates a player with the specified username and password.
      *
@@ -68,14 +225,211 @@ public class AuthService {
      * @param password The player's password
      * @return The authenticated Player object
      * @throws IllegalStateException if credentials are invalid
+     * @throws TooManyAttemptsException if the login attempt is rate limited
+     * @throws java.util.concurrent.RejectedExecutionException if the hashing pool is saturated
      */
     public Player login(String username, String password) {
-        return playerRepository.findByUsername(username)
+        if (hashingPool != null) {
+            return join(loginAsync(username, password));
+        }
+        acquireLoginPermit(username);
+        Player player = playerRepository.findByUsername(username)
                 .filter(p -> PasswordHasher.verifyPassword(password, p.getPassword()))
-                .orElseThrow(() -> {
-                    logger.warn("Login failed: Invalid credentials for username '{}'", username);
-                    return new IllegalStateException("Invalid username or password");
-                });
+                .orElseThrow(() -> invalidCredentials(username));
+        recordSuccessfulLogin(username);
+        if (PasswordHasher.needsRehash(player.getPassword())) {
+            storeRehashedPassword(player, PasswordHasher.hashPassword(password));
+        }
+        return player;
+    }
+
+    /**
+     * Authenticates a player without blocking the calling thread.
+     * Without a hashing pool, the password is verified on the calling thread
+     * and the returned future is already complete.
+     *
+     * @param username The player's username
+     * @param password The player's password
+     * @return Future completing with the authenticated player, or exceptionally with an
+     *         {@link IllegalStateException} if credentials are invalid, a
+     *         {@link TooManyAttemptsException} if the attempt is rate limited or a
+     *         {@link java.util.concurrent.RejectedExecutionException} if the pool is saturated
+     */
+    public CompletableFuture<Player> loginAsync(String username, String password) {
+        if (hashingPool == null) {
+            try {
+                return CompletableFuture.completedFuture(login(username, password));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        try {
+            acquireLoginPermit(username);
+        } catch (TooManyAttemptsException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        Player player = playerRepository.findByUsername(username).orElse(null);
+        if (player == null) {
+            return CompletableFuture.failedFuture(invalidCredentials(username));
+        }
+        return hashingPool.verifyAsync(password, player.getPassword()).thenCompose(valid -> {
+            if (!valid) {
+                throw invalidCredentials(username);
+            }
+            recordSuccessfulLogin(username);
+            if (!PasswordHasher.needsRehash(player.getPassword())) {
+                return CompletableFuture.completedFuture(player);
+            }
+            return hashingPool.hashAsync(password).handle((hash, error) -> {
+                if (error != null) {
+                    logger.warn("Skipping password rehash for '{}': {}", username, error.getMessage());
+                } else {
+                    storeRehashedPassword(player, hash);
+                }
+                return player;
+            });
+        });
+    }
+
+    /**
+     * Authenticates a player and opens a session for them.
+     *
+     * @param username The player's username
+     * @param password The player's password
+     * @return Opaque token identifying the session
+     * @throws IllegalStateException if credentials are invalid
+     */
+    public String createSession(String username, String password) {
+        Player player = login(username, password);
+        return sessionCache.issue(player.getId(), player.getPassword());
+    }
+
+    /**
+     * Resolves a session token to its player without hashing the password.
+     * The session is dropped if it expired, the player no longer exists or
+     * the player's password hash changed since the session was issued.
+     *
+     * @param token The session token
+     * @return Optional containing the player if the session is valid
+     */
+    public Optional<Player> authenticate(String token) {
+        SessionCache.Session session = sessionCache.get(token);
+        if (session == null) {
+            return Optional.empty();
+        }
+        Optional<Player> player = playerRepository.findById(session.getPlayerId())
+                .filter(p -> session.getPasswordHash().equals(p.getPassword()));
+        if (player.isEmpty()) {
+            sessionCache.invalidate(token);
+            logger.info("Session for player {} is no longer valid", session.getPlayerId());
+        }
+        return player;
+    }
+
+    /**
+     * Ends a session.
+     *
+     * @param token The session token
+     */
+    public void logout(String token) {
+        sessionCache.invalidate(token);
+    }
+
+    /**
+     * Ends all sessions of a player, e.g. after their password was reset.
+     *
+     * @param playerId ID of the player
+     */
+    public void invalidateSessions(String playerId) {
+        int removed = sessionCache.invalidatePlayer(playerId);
+        logger.info("Invalidated {} sessions of player {}", removed, playerId);
+    }
+
+    /**
+     * Persists the changes a logged in player made to their own state, such as
+     * their location or inventory. The repository stores a copy of the player,
+     * so later changes are persisted only by calling this again.
+     *
+     * @param player The logged in player
+     * @throws IllegalArgumentException if the player is not registered
+     */
+    public void saveProgress(Player player) {
+        playerRepository.update(player.getId(), player);
+    }
+
+    /**
+     * Replaces a player's password hash after a successful login.
+     * Failures are logged and do not affect the login.
+     *
+     * @param player The logged in player
+     * @param hashedPassword The new hash of the player's password
+     */
+    private void storeRehashedPassword(Player player, String hashedPassword) {
+        try {
+            player.setPassword(hashedPassword);
+            playerRepository.update(player.getId(), player);
+            logger.info("Rehashed password for player '{}' under {}", player.getUsername(), PasswordHasher.getPolicy());
+        } catch (RuntimeException e) {
+            logger.warn("Failed to store rehashed password for '{}': {}", player.getUsername(), e.getMessage());
+        }
+    }
+
+    /**
+     * Admits a login attempt through the rate limiter, if one is configured.
+     *
+     * @param username The username being logged in to
+     * @throws TooManyAttemptsException if the attempt is rate limited
+     */
+    private void acquireLoginPermit(String username) {
+        if (rateLimiter == null) {
+            return;
+        }
+        try {
+            rateLimiter.acquire(username);
+        } catch (TooManyAttemptsException e) {
+            logger.warn("Login rejected for username '{}': {}", username, e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Clears the failed-attempt history of a username after a successful login.
+     *
+     * @param username The username that logged in
+     */
+    private void recordSuccessfulLogin(String username) {
+        if (rateLimiter != null) {
+            rateLimiter.recordSuccess(username);
+        }
+    }
+
+    /**
+     * Logs a failed login and creates the exception reported to the caller.
+     *
+     * @param username The username that failed to log in
+     * @return The exception to throw
+     */
+    private IllegalStateException invalidCredentials(String username) {
+        logger.warn("Login failed: Invalid credentials for username '{}'", username);
+        return new IllegalStateException("Invalid username or password");
+    }
+
+    /**
+     * Waits for a hashing future, rethrowing its failure unwrapped.
+     *
+     * @param future The future to wait for
+     * @param <T> Type of the result
+     * @return The future's result
+     */
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
     }
 
     /**
@@ -0,0 +1,56 @@
+package main.java.com.spaceexplorer.service.auth;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * A username and plain-text password pair, as supplied for registration.
+ *
+ * @author Space Explorer Development Team
+ * @version 1.0
+ * @since 1.1
+ */
+public final class Credentials {
+    private final String username;
+    private final String password;
+
+    /**
+     * Creates a new Credentials pair.
+     *
+     * @param username The username
+     * @param password The plain-text password
+     */
+    @JsonCreator
+    public Credentials(@JsonProperty("username") String username, @JsonProperty("password") String password) {
+        this.username = username;
+        this.password = password;
+    }
+
+    /**
+     * Gets the username.
+     *
+     * @return The username
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Gets the plain-text password.
+     *
+     * @return The password
+     */
+    public String getPassword() {
+        return password;
+    }
+
+    /**
+     * Returns a string representation that does not reveal the password.
+     *
+     * @return The username
+     */
+    @Override
+    public String toString() {
+        return "Credentials{username='" + username + "'}";
+    }
+}
@@ -0,0 +1,118 @@
+package main.java.com.spaceexplorer.service.auth;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import main.java.com.spaceexplorer.repository.JsonMappers;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming reader of account credentials for bulk imports.
+ * Reads one account per line, either as CSV ({@code username,password}, split
+ * at the first comma so passwords may contain commas) or as JSON lines
+ * ({@code {"username": "...", "password": "..."}}). The format is chosen per
+ * line from its first non-blank character. Blank lines, lines starting with
+ * {@code #} and a first line that reads exactly {@code username,password}
+ * (ignoring case) are skipped. Whitespace around a CSV username is removed;
+ * the password is taken as it is, including any leading or trailing spaces.
+ *
+ * Only one batch is held in memory at a time, so files of any size can be read.
+ *
+ * @author Space Explorer Development Team
+ * @version 1.0
+ * @since 1.1
+ */
+public class CredentialsReader implements Closeable {
+    private static final ObjectReader READER = JsonMappers.readerFor(Credentials.class);
+
+    private final BufferedReader reader;
+    private int lineNumber;
+
+    /**
+     * Opens a credentials file.
+     *
+     * @param file The UTF-8 encoded file to read
+     * @throws IOException if the file cannot be opened
+     */
+    public CredentialsReader(Path file) throws IOException {
+        this(Files.newBufferedReader(file, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Creates a reader over already opened text.
+     *
+     * @param reader The text to read
+     */
+    public CredentialsReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Reads up to the given number of accounts.
+     *
+     * @param maxCount Maximum number of accounts to read
+     * @return The accounts read; empty at the end of the input
+     * @throws UncheckedIOException if the input cannot be read
+     * @throws IllegalArgumentException if a line is malformed
+     */
+    public List<Credentials> readBatch(int maxCount) {
+        List<Credentials> batch = new ArrayList<>(Math.min(maxCount, 1024));
+        try {
+            String line;
+            while (batch.size() < maxCount && (line = reader.readLine()) != null) {
+                lineNumber++;
+                Credentials credentials = parse(line);
+                if (credentials != null) {
+                    batch.add(credentials);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading credentials at line " + lineNumber, e);
+        }
+        return batch;
+    }
+
+    /**
+     * Gets the number of lines read so far.
+     *
+     * @return The current line number
+     */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    private Credentials parse(String line) {
+        String content = line.stripLeading();
+        if (content.isEmpty() || content.startsWith("#")) {
+            return null;
+        }
+        if (content.startsWith("{")) {
+            try {
+                return READER.readValue(content);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Malformed JSON at line " + lineNumber, e);
+            }
+        }
+        int comma = line.indexOf(',');
+        if (comma < 0) {
+            throw new IllegalArgumentException("Expected username,password at line " + lineNumber);
+        }
+        if (lineNumber == 1 && "username,password".equalsIgnoreCase(line.strip())) {
+            return null;
+        }
+        String username = line.substring(0, comma).strip();
+        return new Credentials(username, line.substring(comma + 1));
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
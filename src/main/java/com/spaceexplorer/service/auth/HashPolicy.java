@@ -0,0 +1,179 @@
+package main.java.com.spaceexplorer.service.auth;
+
+import java.util.Objects;
+
+/**
+ * Parameters used to hash new passwords: the PBKDF2 variant, the iteration
+ * count, the salt length and the derived key length.
+ * Every hash produced by {@link PasswordHasher} records the parameters it was
+ * made with, so the policy can be changed per deployment at any time; existing
+ * hashes keep verifying and are upgraded when their owners next log in.
+ *
+ * @author Space Explorer Development Team
+ * @version 1.0
+ * @since 1.1
+ */
+public final class HashPolicy {
+    /** Policy applied when no other policy is configured */
+    public static final HashPolicy DEFAULT = new HashPolicy(Algorithm.PBKDF2_SHA256, 10000, 16, 256);
+
+    /** Minimum accepted iteration count */
+    private static final int MIN_ITERATIONS = 1000;
+
+    /** Minimum accepted salt length in bytes */
+    private static final int MIN_SALT_LENGTH = 8;
+
+    /**
+     * Supported key derivation functions, with the identifier written into
+     * hash strings and the JCA algorithm name.
+     */
+    public enum Algorithm {
+        /** PBKDF2 with HMAC-SHA1, used by hashes from version 1.0 */
+        PBKDF2_SHA1("pbkdf2-sha1", "PBKDF2WithHmacSHA1"),
+
+        /** PBKDF2 with HMAC-SHA256 */
+        PBKDF2_SHA256("pbkdf2-sha256", "PBKDF2WithHmacSHA256"),
+
+        /** PBKDF2 with HMAC-SHA512 */
+        PBKDF2_SHA512("pbkdf2-sha512", "PBKDF2WithHmacSHA512");
+
+        private final String id;
+        private final String jcaName;
+
+        Algorithm(String id, String jcaName) {
+            this.id = id;
+            this.jcaName = jcaName;
+        }
+
+        /**
+         * Gets the identifier used in hash strings.
+         *
+         * @return The algorithm identifier
+         */
+        public String getId() {
+            return id;
+        }
+
+        /**
+         * Gets the JCA name of the algorithm.
+         *
+         * @return The name accepted by {@link javax.crypto.SecretKeyFactory#getInstance(String)}
+         */
+        public String getJcaName() {
+            return jcaName;
+        }
+
+        /**
+         * Finds an algorithm by its hash string identifier.
+         *
+         * @param id The identifier to look up
+         * @return The matching algorithm, or null if unknown
+         */
+        public static Algorithm fromId(String id) {
+            for (Algorithm algorithm : values()) {
+                if (algorithm.id.equals(id)) {
+                    return algorithm;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final Algorithm algorithm;
+    private final int iterations;
+    private final int saltLength;
+    private final int keyLength;
+
+    /**
+     * Creates a new HashPolicy.
+     *
+     * @param algorithm The key derivation function
+     * @param iterations Number of iterations
+     * @param saltLength Salt length in bytes
+     * @param keyLength Derived key length in bits, a multiple of 8
+     * @throws NullPointerException if algorithm is null
+     * @throws IllegalArgumentException if any of the numbers is out of range
+     */
+    public HashPolicy(Algorithm algorithm, int iterations, int saltLength, int keyLength) {
+        this.algorithm = Objects.requireNonNull(algorithm, "Algorithm cannot be null");
+        if (iterations < MIN_ITERATIONS) {
+            throw new IllegalArgumentException("Iterations must be at least " + MIN_ITERATIONS);
+        }
+        if (saltLength < MIN_SALT_LENGTH) {
+            throw new IllegalArgumentException("Salt length must be at least " + MIN_SALT_LENGTH + " bytes");
+        }
+        if (keyLength <= 0 || keyLength % 8 != 0) {
+            throw new IllegalArgumentException("Key length must be a positive multiple of 8");
+        }
+        this.iterations = iterations;
+        this.saltLength = saltLength;
+        this.keyLength = keyLength;
+    }
+
+    /**
+     * Gets the key derivation function.
+     *
+     * @return The algorithm
+     */
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Gets the number of iterations.
+     *
+     * @return The iteration count
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Gets the salt length.
+     *
+     * @return The salt length in bytes
+     */
+    public int getSaltLength() {
+        return saltLength;
+    }
+
+    /**
+     * Gets the derived key length.
+     *
+     * @return The key length in bits
+     */
+    public int getKeyLength() {
+        return keyLength;
+    }
+
+    /**
+     * Creates a copy of this policy with a different iteration count.
+     *
+     * @param iterations The new iteration count
+     * @return The new policy
+     * @throws IllegalArgumentException if iterations is too low
+     */
+    public HashPolicy withIterations(int iterations) {
+        return new HashPolicy(algorithm, iterations, saltLength, keyLength);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof HashPolicy)) return false;
+        HashPolicy that = (HashPolicy) o;
+        return algorithm == that.algorithm && iterations == that.iterations
+                && saltLength == that.saltLength && keyLength == that.keyLength;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(algorithm, iterations, saltLength, keyLength);
+    }
+
+    @Override
+    public String toString() {
+        return algorithm.getId() + ", " + iterations + " iterations, "
+                + saltLength + "-byte salt, " + keyLength + "-bit key";
+    }
+}
@@ -0,0 +1,266 @@
+package main.java.com.spaceexplorer.service.auth;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket limiter for login attempts, applied per username and globally.
+ * Each bucket is a single {@link AtomicLong} holding the bucket's theoretical
+ * arrival time (the generic cell rate algorithm), so admitting an attempt is
+ * one compare-and-set and never takes a lock.
+ *
+ * For a username that already has a bucket, that bucket is checked first, so a
+ * client hammering one account is stopped before it consumes global capacity.
+ * A username without a bucket would be admitted by its fresh bucket anyway, so
+ * its attempt is checked against the global limit first and its bucket is
+ * created only once the attempt is admitted; attempts against many random
+ * usernames therefore cannot create state faster than the global rate. Buckets
+ * that have fully refilled are purged once every {@value #PURGE_INTERVAL}
+ * new usernames, so the cost of a purge is spread over many attempts.
+ * A successful login resets the account's bucket, which means only failed
+ * attempts throttle a username.
+ * The global limit is split over several independent stripes, each with an
+ * equal share of the rate and burst, so concurrent logins rarely contend on
+ * the same counter.
+ *
+ * @author Space Explorer Development Team
+ * @version 1.0
+ * @since 1.1
+ */
+public class LoginRateLimiter {
+    /** Default attempts per second allowed for one username */
+    public static final double DEFAULT_USER_RATE = 1.0;
+
+    /** Default burst of attempts allowed for one username */
+    public static final int DEFAULT_USER_BURST = 5;
+
+    /** Default attempts per second allowed across all usernames */
+    public static final double DEFAULT_GLOBAL_RATE = 200.0;
+
+    /** Default burst of attempts allowed across all usernames */
+    public static final int DEFAULT_GLOBAL_BURST = 400;
+
+    /** Number of tracked usernames above which idle buckets are purged */
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    /** Number of new buckets between purges */
+    private static final int PURGE_INTERVAL = 1024;
+
+    /** Per-username buckets */
+    private final Map<String, AtomicLong> userBuckets = new ConcurrentHashMap<>();
+
+    /** Attempts admitted for untracked usernames since the last purge */
+    private final AtomicInteger createdSincePurge = new AtomicInteger();
+
+    /** Stripes of the global bucket */
+    private final AtomicLong[] globalStripes;
+
+    /** Nanoseconds between attempts for one username */
+    private final long userInterval;
+
+    /** Time a username's bucket may run ahead of now */
+    private final long userWindow;
+
+    /** Nanoseconds between attempts for one global stripe */
+    private final long stripeInterval;
+
+    /** Time a global stripe may run ahead of now */
+    private final long stripeWindow;
+
+    /** Source of the current time in nanoseconds */
+    private final LongSupplier nanoClock;
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejectedByUser = new LongAdder();
+    private final LongAdder rejectedGlobally = new LongAdder();
+
+    /**
+     * Creates a limiter with the default rates.
+     */
+    public LoginRateLimiter() {
+        this(DEFAULT_USER_RATE, DEFAULT_USER_BURST, DEFAULT_GLOBAL_RATE, DEFAULT_GLOBAL_BURST, System::nanoTime);
+    }
+
+    /**
+     * Creates a limiter with the given rates.
+     *
+     * @param userRate Attempts per second allowed for one username
+     * @param userBurst Attempts one username may make at once
+     * @param globalRate Attempts per second allowed across all usernames
+     * @param globalBurst Attempts that may be made at once across all usernames
+     * @param nanoClock Source of the current time in nanoseconds
+     * @throws IllegalArgumentException if any rate or burst is not positive
+     */
+    public LoginRateLimiter(double userRate, int userBurst, double globalRate, int globalBurst,
+                            LongSupplier nanoClock) {
+        if (userRate <= 0 || globalRate <= 0 || userBurst <= 0 || globalBurst <= 0) {
+            throw new IllegalArgumentException("Rates and bursts must be positive");
+        }
+        int stripes = Math.min(Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2),
+                Integer.highestOneBit(globalBurst));
+        this.globalStripes = new AtomicLong[stripes];
+        long start = nanoClock.getAsLong();
+        for (int i = 0; i < stripes; i++) {
+            globalStripes[i] = new AtomicLong(start);
+        }
+        this.userInterval = interval(userRate);
+        this.userWindow = userInterval * userBurst;
+        this.stripeInterval = interval(globalRate) * stripes;
+        this.stripeWindow = stripeInterval * (globalBurst / stripes);
+        this.nanoClock = nanoClock;
+    }
+
+    private static long interval(double ratePerSecond) {
+        return Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond));
+    }
+
+    /**
+     * Admits a login attempt for a username or rejects it.
+     *
+     * @param username The username being logged in to
+     * @throws TooManyAttemptsException if the username or the service is over its limit
+     */
+    public void acquire(String username) {
+        long now = nanoClock.getAsLong();
+        String key = username == null ? "" : username;
+        AtomicLong bucket = userBuckets.get(key);
+        if (bucket != null) {
+            consumeUser(bucket, now);
+            consumeGlobal(now);
+        } else {
+            consumeGlobal(now);
+            purgeIfDue(now);
+            consumeUser(userBuckets.computeIfAbsent(key, k -> new AtomicLong(now)), now);
+        }
+        allowed.increment();
+    }
+
+    /**
+     * Takes a token from a username's bucket.
+     *
+     * @param bucket The username's bucket
+     * @param now The current time
+     * @throws TooManyAttemptsException if the bucket is empty
+     */
+    private void consumeUser(AtomicLong bucket, long now) {
+        if (!tryConsume(bucket, now, userInterval, userWindow)) {
+            rejectedByUser.increment();
+            throw new TooManyAttemptsException("Too many login attempts, please try again later");
+        }
+    }
+
+    /**
+     * Takes a token from a stripe of the global bucket.
+     *
+     * @param now The current time
+     * @throws TooManyAttemptsException if the stripes tried are empty
+     */
+    private void consumeGlobal(long now) {
+        int mask = globalStripes.length - 1;
+        int stripe = ThreadLocalRandom.current().nextInt() & mask;
+        // A second stripe gets a chance before rejecting, to smooth out uneven stripe use
+        if (!tryConsume(globalStripes[stripe], now, stripeInterval, stripeWindow)
+                && !tryConsume(globalStripes[(stripe + 1) & mask], now, stripeInterval, stripeWindow)) {
+            rejectedGlobally.increment();
+            throw new TooManyAttemptsException("Login service is busy, please try again later");
+        }
+    }
+
+    /**
+     * Counts an admitted attempt for an untracked username and purges idle
+     * buckets once every {@value #PURGE_INTERVAL} such attempts.
+     *
+     * @param now The current time
+     */
+    private void purgeIfDue(long now) {
+        if (createdSincePurge.incrementAndGet() >= PURGE_INTERVAL) {
+            createdSincePurge.set(0);
+            purgeIdleBuckets(now);
+        }
+    }
+
+    /**
+     * Resets a username's bucket after a successful login.
+     *
+     * @param username The username that logged in
+     */
+    public void recordSuccess(String username) {
+        userBuckets.remove(username == null ? "" : username);
+    }
+
+    /**
+     * Takes one token from a bucket if it has one.
+     *
+     * @param bucket The bucket's theoretical arrival time
+     * @param now The current time
+     * @param interval Time one token takes to refill
+     * @param window Time the bucket may run ahead of now, i.e. interval times burst
+     * @return true if a token was taken
+     */
+    private static boolean tryConsume(AtomicLong bucket, long now, long interval, long window) {
+        while (true) {
+            long arrival = bucket.get();
+            long next = Math.max(arrival, now) + interval;
+            if (next - now > window) {
+                return false;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Drops buckets that have fully refilled once too many usernames are tracked,
+     * so attempts against many random usernames cannot grow the map without bound.
+     *
+     * @param now The current time
+     */
+    private void purgeIdleBuckets(long now) {
+        if (userBuckets.size() >= PURGE_THRESHOLD) {
+            userBuckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+        }
+    }
+
+    /**
+     * Gets the number of attempts admitted.
+     *
+     * @return The admitted attempt count
+     */
+    public long getAllowedCount() {
+        return allowed.sum();
+    }
+
+    /**
+     * Gets the number of attempts rejected by a per-username limit.
+     *
+     * @return The rejected attempt count
+     */
+    public long getRejectedByUserCount() {
+        return rejectedByUser.sum();
+    }
+
+    /**
+     * Gets the number of attempts rejected by the global limit.
+     *
+     * @return The rejected attempt count
+     */
+    public long getRejectedGloballyCount() {
+        return rejectedGlobally.sum();
+    }
+
+    /**
+     * Gets the number of usernames currently tracked.
+     *
+     * @return The tracked username count
+     */
+    public int getTrackedUserCount() {
+        return userBuckets.size();
+    }
+}
@@ -5,17 +5,34 @@ import org.slf4j.LoggerFactory;
 
 import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.PBEKeySpec;
-import java.security.NoSuchAlgorithmException;
-import java.security.spec.InvalidKeySpecException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.EnumMap;
+import java.util.Objects;
 
 /**
  * Utility class for secure password hashing and verification.
- * Uses PBKDF2 (Password-Based Key Derivation Function 2) with HMAC-SHA1
- * for secure password hashing.
+ * Uses PBKDF2 (Password-Based Key Derivation Function 2) with a random
+ * per-password salt.
  *
- * Note: In a production environment, salt should be unique per password
- * and stored alongside the hash.
+ * Hashes are self-describing strings of the form
+ * {@code $<algorithm>$<iterations>$<salt>$<hash>}, with the salt and hash
+ * Base64-encoded, so each hash can be verified with the parameters it was
+ * created with. New hashes follow the current {@link HashPolicy}, which can be
+ * changed with {@link #setPolicy(HashPolicy)}; {@link #needsRehash(String)}
+ * reports hashes made under a different policy. Plain Base64 hashes from
+ * version 1.0 (PBKDF2WithHmacSHA1 with a fixed salt) are still accepted.
+ *
+ * Verification decodes the stored hash once, derives the candidate hash with
+ * a {@link SecretKeyFactory} cached per thread and algorithm, and compares the
+ * raw bytes in constant time with {@link MessageDigest#isEqual(byte[], byte[])};
+ * the password characters and the candidate hash are cleared afterwards.
+ * Hashing is CPU-bound; callers that hash on behalf of many concurrent
+ * clients should go through a {@link PasswordHashingPool}.
  *
  * @author Space Explorer Development Team
  * @version 1.0
@@ -24,41 +41,65 @@ import java.util.Base64;
 public class PasswordHasher {
     private static final Logger logger = LoggerFactory.getLogger(PasswordHasher.class);
 
-    /** The cryptographic algorithm used for password hashing */
-    private static final String ALGORITHM = "PBKDF2WithHmacSHA1";
+    /** Separator between the fields of a hash string */
+    private static final String SEPARATOR = "$";
+
+    /** Parameters of hashes created by version 1.0 */
+    private static final HashPolicy LEGACY_POLICY = new HashPolicy(HashPolicy.Algorithm.PBKDF2_SHA1, 10000, 20, 256);
+
+    /** Fixed salt of hashes created by version 1.0 */
+    private static final byte[] LEGACY_SALT = "SpaceExplorerSalt123".getBytes(StandardCharsets.UTF_8);
 
-    /** Number of iterations for the hashing algorithm */
-    private static final int ITERATIONS = 10000;
+    /** Source of salts */
+    private static final SecureRandom RANDOM = new SecureRandom();
 
-    /** Length of the generated hash in bits */
-    private static final int KEY_LENGTH = 256;
+    /** Key factories cached per thread, one per algorithm, as factories are not thread-safe */
+    private static final ThreadLocal<EnumMap<HashPolicy.Algorithm, SecretKeyFactory>> FACTORIES =
+            ThreadLocal.withInitial(() -> new EnumMap<>(HashPolicy.Algorithm.class));
+
+    /** Policy applied to new hashes */
+    private static volatile HashPolicy policy = HashPolicy.DEFAULT;
+
+    /**
+     * Gets the policy applied to new hashes.
+     *
+     * @return The current hash policy
+     */
+    public static HashPolicy getPolicy() {
+        return policy;
+    }
 
-    /** Fixed salt value (Note: In production, use unique salt per password) */
-    private static final byte[] SALT = "SpaceExplorerSalt123".getBytes();
+    /**
+     * Sets the policy applied to new hashes. Existing hashes keep verifying
+     * and report {@link #needsRehash(String)} until they are replaced.
+     *
+     * @param newPolicy The new hash policy
+     * @throws NullPointerException if newPolicy is null
+     */
+    public static void setPolicy(HashPolicy newPolicy) {
+        policy = Objects.requireNonNull(newPolicy, "Hash policy cannot be null");
+        logger.info("Password hash policy set to {}", newPolicy);
+    }
 
     /**
-     * Hashes a password using PBKDF2 with HMAC-SHA1.
+     * Hashes a password with a new random salt under the current policy.
      *
      * @param password The password to hash
-     * @return Base64-encoded hash of the password
+     * @return Self-describing hash string
      * @throws RuntimeException if hashing fails due to algorithm unavailability
      *                         or invalid key specification
      */
     public static String hashPassword(String password) {
-        try {
-            PBEKeySpec spec = new PBEKeySpec(
-                    password.toCharArray(),
-                    SALT,
-                    ITERATIONS,
-                    KEY_LENGTH
-            );
-            SecretKeyFactory factory = SecretKeyFactory.getInstance(ALGORITHM);
-            byte[] hash = factory.generateSecret(spec).getEncoded();
-            return Base64.getEncoder().encodeToString(hash);
-        } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
-            logger.error("Error hashing password: {}", e.getMessage());
-            throw new RuntimeException("Error hashing password", e);
-        }
+        HashPolicy current = policy;
+        byte[] salt = new byte[current.getSaltLength()];
+        RANDOM.nextBytes(salt);
+        byte[] hash = derive(password, current.getAlgorithm(), current.getIterations(), salt,
+                current.getKeyLength() / 8);
+        Base64.Encoder encoder = Base64.getEncoder();
+        return SEPARATOR + current.getAlgorithm().getId()
+                + SEPARATOR + current.getIterations()
+                + SEPARATOR + encoder.encodeToString(salt)
+                + SEPARATOR + encoder.encodeToString(hash);
     }
 
     /**
@@ -69,7 +110,130 @@ public class PasswordHasher {
      * @return true if the password matches the hash, false otherwise
      */
     public static boolean verifyPassword(String password, String storedHash) {
-        String newHash = hashPassword(password);
-        return storedHash.equals(newHash);
+        StoredHash stored = StoredHash.parse(storedHash);
+        if (stored == null) {
+            logger.warn("Unrecognized password hash format");
+            return false;
+        }
+        byte[] hash = derive(password, stored.algorithm, stored.iterations, stored.salt, stored.hash.length);
+        boolean matches = MessageDigest.isEqual(hash, stored.hash);
+        Arrays.fill(hash, (byte) 0);
+        return matches;
+    }
+
+    /**
+     * Checks whether a stored hash was created with parameters other than the
+     * current policy and should be replaced after the next successful login.
+     *
+     * @param storedHash The stored hash to check
+     * @return true if the hash should be recomputed, false if it matches the
+     *         policy or cannot be parsed
+     */
+    public static boolean needsRehash(String storedHash) {
+        StoredHash stored = StoredHash.parse(storedHash);
+        if (stored == null) {
+            return false;
+        }
+        HashPolicy current = policy;
+        return stored.legacy
+                || stored.algorithm != current.getAlgorithm()
+                || stored.iterations != current.getIterations()
+                || stored.salt.length != current.getSaltLength()
+                || stored.hash.length * 8 != current.getKeyLength();
+    }
+
+    /**
+     * Derives the raw PBKDF2 hash of a password.
+     *
+     * @param password The password to hash
+     * @param algorithm The key derivation function
+     * @param iterations Number of iterations
+     * @param salt The salt
+     * @param length The hash length in bytes
+     * @return The raw hash
+     * @throws RuntimeException if hashing fails
+     */
+    private static byte[] derive(String password, HashPolicy.Algorithm algorithm, int iterations,
+                                 byte[] salt, int length) {
+        char[] chars = password.toCharArray();
+        PBEKeySpec spec = new PBEKeySpec(chars, salt, iterations, length * 8);
+        try {
+            return factory(algorithm).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            logger.error("Error hashing password: {}", e.getMessage());
+            throw new RuntimeException("Error hashing password", e);
+        } finally {
+            spec.clearPassword();
+            Arrays.fill(chars, '\0');
+        }
+    }
+
+    /**
+     * Returns the calling thread's key factory for an algorithm, creating it on first use.
+     *
+     * @param algorithm The key derivation function
+     * @return The cached key factory
+     * @throws GeneralSecurityException if the algorithm is not available
+     */
+    private static SecretKeyFactory factory(HashPolicy.Algorithm algorithm) throws GeneralSecurityException {
+        EnumMap<HashPolicy.Algorithm, SecretKeyFactory> factories = FACTORIES.get();
+        SecretKeyFactory factory = factories.get(algorithm);
+        if (factory == null) {
+            factory = SecretKeyFactory.getInstance(algorithm.getJcaName());
+            factories.put(algorithm, factory);
+        }
+        return factory;
+    }
+
+    /**
+     * Parameters and raw hash decoded from a stored hash string.
+     */
+    private static final class StoredHash {
+        final HashPolicy.Algorithm algorithm;
+        final int iterations;
+        final byte[] salt;
+        final byte[] hash;
+        final boolean legacy;
+
+        private StoredHash(HashPolicy.Algorithm algorithm, int iterations, byte[] salt, byte[] hash, boolean legacy) {
+            this.algorithm = algorithm;
+            this.iterations = iterations;
+            this.salt = salt;
+            this.hash = hash;
+            this.legacy = legacy;
+        }
+
+        /**
+         * Decodes a stored hash in either the current or the version 1.0 format.
+         *
+         * @param storedHash The stored hash
+         * @return The decoded hash, or null if it is malformed
+         */
+        static StoredHash parse(String storedHash) {
+            if (storedHash == null || storedHash.isEmpty()) {
+                return null;
+            }
+            Base64.Decoder decoder = Base64.getDecoder();
+            try {
+                if (!storedHash.startsWith(SEPARATOR)) {
+                    return new StoredHash(LEGACY_POLICY.getAlgorithm(), LEGACY_POLICY.getIterations(),
+                            LEGACY_SALT, decoder.decode(storedHash), true);
+                }
+                String[] fields = storedHash.split("\\$", -1);
+                if (fields.length != 5) {
+                    return null;
+                }
+                HashPolicy.Algorithm algorithm = HashPolicy.Algorithm.fromId(fields[1]);
+                int iterations = Integer.parseInt(fields[2]);
+                byte[] salt = decoder.decode(fields[3]);
+                byte[] hash = decoder.decode(fields[4]);
+                if (algorithm == null || iterations <= 0 || salt.length == 0 || hash.length == 0) {
+                    return null;
+                }
+                return new StoredHash(algorithm, iterations, salt, hash, false);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
     }
-}
\ No newline at end of file
+}
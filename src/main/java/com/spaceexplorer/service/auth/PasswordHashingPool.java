@@ -0,0 +1,162 @@
+package main.java.com.spaceexplorer.service.auth;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded executor for asynchronous password hashing and verification.
+ * Hashing is CPU-bound, so the pool runs one worker per available processor by
+ * default and never more, keeping concurrent logins from oversubscribing cores.
+ *
+ * Pending work waits in a bounded queue. When every worker is busy and the
+ * queue is full, new requests are shed immediately: the returned future
+ * completes exceptionally with a {@link RejectedExecutionException} instead of
+ * piling up more work than the machine can finish.
+ *
+ * @author Space Explorer Development Team
+ * @version 1.0
+ * @since 1.1
+ */
+public class PasswordHashingPool implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingPool.class);
+
+    /** Default number of requests that may wait for a worker */
+    public static final int DEFAULT_QUEUE_CAPACITY = 256;
+
+    /** Sequence used to name worker threads across pools */
+    private static final AtomicInteger WORKER_SEQUENCE = new AtomicInteger();
+
+    /** Executor running the hashing work */
+    private final ThreadPoolExecutor executor;
+
+    /** Requests accepted by the pool */
+    private final LongAdder submitted = new LongAdder();
+
+    /** Requests shed because the pool was saturated */
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Creates a pool with one worker per available processor and the default queue capacity.
+     */
+    public PasswordHashingPool() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Creates a pool with the given number of workers and queue capacity.
+     *
+     * @param threads Number of worker threads
+     * @param queueCapacity Number of requests that may wait for a worker
+     * @throws IllegalArgumentException if threads or queueCapacity is not positive
+     */
+    public PasswordHashingPool(int threads, int queueCapacity) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive");
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("Queue capacity must be positive");
+        }
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "password-hasher-" + WORKER_SEQUENCE.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Hashes a password on a pool worker.
+     *
+     * @param password The password to hash
+     * @return Future completing with the Base64-encoded hash, or exceptionally
+     *         with a {@link RejectedExecutionException} if the pool is saturated
+     */
+    public CompletableFuture<String> hashAsync(String password) {
+        return submit(() -> PasswordHasher.hashPassword(password));
+    }
+
+    /**
+     * Verifies a password against a stored hash on a pool worker.
+     *
+     * @param password The password to verify
+     * @param storedHash The stored hash to compare against
+     * @return Future completing with true if the password matches, or exceptionally
+     *         with a {@link RejectedExecutionException} if the pool is saturated
+     */
+    public CompletableFuture<Boolean> verifyAsync(String password, String storedHash) {
+        return submit(() -> PasswordHasher.verifyPassword(password, storedHash));
+    }
+
+    /**
+     * Runs a task on the pool, shedding it if the pool is saturated.
+     *
+     * @param task The task to run
+     * @param <T> Type of the task's result
+     * @return Future for the task's result
+     */
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            CompletableFuture<T> future = CompletableFuture.supplyAsync(task, executor);
+            submitted.increment();
+            return future;
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            logger.warn("Password hashing pool saturated, rejecting request");
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Gets the number of requests accepted by the pool.
+     *
+     * @return The accepted request count
+     */
+    public long getSubmittedCount() {
+        return submitted.sum();
+    }
+
+    /**
+     * Gets the number of requests shed because the pool was saturated.
+     *
+     * @return The rejected request count
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Gets the number of requests waiting for a worker.
+     *
+     * @return The current queue depth
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Stops accepting requests and waits briefly for queued work to finish.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
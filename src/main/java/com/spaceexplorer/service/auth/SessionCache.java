@@ -0,0 +1,196 @@
+package main.java.com.spaceexplorer.service.auth;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Bounded in-memory store of authenticated sessions.
+ * Each session is identified by an opaque random token and remembers the player
+ * ID and the password hash the player had when the session was issued, so the
+ * owner can tell when the password has changed since.
+ *
+ * Sessions expire a fixed time after they are issued. When the cache is full,
+ * the least recently used session is evicted. All operations are synchronized
+ * and cost a hash map lookup.
+ *
+ * @author Space Explorer Development Team
+ * @version 1.0
+ * @since 1.1
+ */
+public class SessionCache {
+    /** Default maximum number of sessions kept */
+    public static final int DEFAULT_MAX_SESSIONS = 10_000;
+
+    /** Default session lifetime */
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(30);
+
+    /** Number of random bytes in a token */
+    private static final int TOKEN_BYTES = 32;
+
+    /** Source of tokens */
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /** Sessions keyed by token, in least-recently-used order */
+    private final LinkedHashMap<String, Session> sessions;
+
+    /** Lifetime of a session in milliseconds */
+    private final long ttlMillis;
+
+    /** Clock used to expire sessions */
+    private final Clock clock;
+
+    /**
+     * Creates a cache with the default size and lifetime.
+     */
+    public SessionCache() {
+        this(DEFAULT_MAX_SESSIONS, DEFAULT_TTL, Clock.systemUTC());
+    }
+
+    /**
+     * Creates a cache with the given size and lifetime.
+     *
+     * @param maxSessions Maximum number of sessions kept
+     * @param ttl Lifetime of a session
+     * @param clock Clock used to expire sessions
+     * @throws IllegalArgumentException if maxSessions or ttl is not positive
+     * @throws NullPointerException if ttl or clock is null
+     */
+    public SessionCache(int maxSessions, Duration ttl, Clock clock) {
+        if (maxSessions <= 0) {
+            throw new IllegalArgumentException("Maximum number of sessions must be positive");
+        }
+        if (Objects.requireNonNull(ttl, "TTL cannot be null").isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("TTL must be positive");
+        }
+        this.ttlMillis = ttl.toMillis();
+        this.clock = Objects.requireNonNull(clock, "Clock cannot be null");
+        this.sessions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Session> eldest) {
+                return size() > maxSessions;
+            }
+        };
+    }
+
+    /**
+     * Issues a new session.
+     *
+     * @param playerId ID of the authenticated player
+     * @param passwordHash The player's password hash at the time of login
+     * @return The session token
+     */
+    public synchronized String issue(String playerId, String passwordHash) {
+        String token = newToken();
+        sessions.put(token, new Session(playerId, passwordHash, clock.millis() + ttlMillis));
+        return token;
+    }
+
+    /**
+     * Looks up a live session, removing it if it has expired.
+     *
+     * @param token The session token
+     * @return The session, or null if the token is unknown or expired
+     */
+    public synchronized Session get(String token) {
+        if (token == null) {
+            return null;
+        }
+        Session session = sessions.get(token);
+        if (session != null && session.expiresAt <= clock.millis()) {
+            sessions.remove(token);
+            return null;
+        }
+        return session;
+    }
+
+    /**
+     * Removes a session.
+     *
+     * @param token The session token
+     * @return true if the session existed
+     */
+    public synchronized boolean invalidate(String token) {
+        return token != null && sessions.remove(token) != null;
+    }
+
+    /**
+     * Removes all sessions of a player.
+     *
+     * @param playerId ID of the player
+     * @return Number of sessions removed
+     */
+    public synchronized int invalidatePlayer(String playerId) {
+        int removed = 0;
+        Iterator<Session> iterator = sessions.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().playerId.equals(playerId)) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Returns the number of sessions held, including expired ones not yet removed.
+     *
+     * @return The session count
+     */
+    public synchronized int size() {
+        return sessions.size();
+    }
+
+    private static String newToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * An authenticated session.
+     */
+    public static final class Session {
+        private final String playerId;
+        private final String passwordHash;
+        private final long expiresAt;
+
+        Session(String playerId, String passwordHash, long expiresAt) {
+            this.playerId = playerId;
+            this.passwordHash = passwordHash;
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * Gets the ID of the player the session belongs to.
+         *
+         * @return The player ID
+         */
+        public String getPlayerId() {
+            return playerId;
+        }
+
+        /**
+         * Gets the player's password hash at the time the session was issued.
+         *
+         * @return The password hash
+         */
+        public String getPasswordHash() {
+            return passwordHash;
+        }
+
+        /**
+         * Gets the time the session expires.
+         *
+         * @return Expiry time in milliseconds since the epoch
+         */
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+    }
+}
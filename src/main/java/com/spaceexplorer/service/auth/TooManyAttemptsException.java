@@ -0,0 +1,23 @@
+package main.java.com.spaceexplorer.service.auth;
+
+/**
+ * Thrown when a login attempt is rejected by the {@link LoginRateLimiter}.
+ * Extends {@link IllegalStateException} so callers that handle failed logins
+ * generically keep working.
+ *
+ * @author Space Explorer Development Team
+ * @version 1.0
+ * @since 1.1
+ */
+public class TooManyAttemptsException extends IllegalStateException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates a new TooManyAttemptsException.
+     *
+     * @param message The detail message
+     */
+    public TooManyAttemptsException(String message) {
+        super(message);
+    }
+}
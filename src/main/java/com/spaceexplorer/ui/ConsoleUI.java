@@ -5,8 +5,10 @@ import main.java.com.spaceexplorer.repository.GameRepository;
 import main.java.com.spaceexplorer.repository.ItemRepository;
 import main.java.com.spaceexplorer.service.auth.AuthService;
 
+import java.util.ArrayList;
 import java.util.Scanner;
 import java.util.List;
+import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -197,22 +199,27 @@ public class ConsoleUI {
      * @param player The player who is exploring
      */
     private void exploreSector(Player player) {
-        var gameMap = gameRepository.findById("").orElse(null);
-        if (gameMap == null || gameMap.getSectors().isEmpty()) {
+        Map<String, String> sectorNames = gameRepository.findSectorNames();
+        if (sectorNames.isEmpty()) {
             System.out.println("No sectors available for exploration");
             return;
         }
 
-        // Display and select sector
+        // Display and select sector; only the chosen sector is loaded from the map
         System.out.println("\n=== Exploring Solar System ===");
-        List<Sector> sectors = gameMap.getSectors();
+        List<String> sectorIds = new ArrayList<>(sectorNames.keySet());
         System.out.println("Available sectors:");
-        for (int i = 0; i < sectors.size(); i++) {
-            System.out.printf("%d: %s%n", i + 1, sectors.get(i).getName());
+        for (int i = 0; i < sectorIds.size(); i++) {
+            System.out.printf("%d: %s%n", i + 1, sectorNames.get(sectorIds.get(i)));
         }
 
-        Sector selectedSector = selectFromList("Choose sector", sectors);
-        if (selectedSector == null) return;
+        String selectedSectorId = selectFromList("Choose sector", sectorIds);
+        if (selectedSectorId == null) return;
+        Sector selectedSector = gameRepository.findSector(selectedSectorId).orElse(null);
+        if (selectedSector == null) {
+            System.out.println("Sector not found");
+            return;
+        }
 
         // Display and select space object within sector
         System.out.println("\nAvailable objects in " + selectedSector.getName() + ":");
@@ -228,18 +235,19 @@ public class ConsoleUI {
         // Update player location and display information
         player.setCurrentSector(selectedSector.getId());
         player.setCurrentPlanet(selectedObject.getName());
+        authService.saveProgress(player);
 
         System.out.println("\nExploring " + selectedObject.getName());
         System.out.println("Type: " + selectedObject.getType().getDescription());
         System.out.println("Description: " + selectedObject.getDescription());
 
         System.out.println("\nAvailable resources:");
-        selectedObject.getResources().forEach(resource ->
+        selectedObject.forEachResource(resource ->
                 System.out.println("- " + resource.getDescription())
         );
 
         System.out.println("\nInteresting facts:");
-        selectedObject.getFacts().forEach(fact ->
+        selectedObject.forEachFact(fact ->
                 System.out.println("- " + fact)
         );
 
@@ -249,16 +257,16 @@ public class ConsoleUI {
 
     /**
      * Displays the player's inventory contents.
-     * Shows capacity and details of each item.
+     * Shows used slots and details of each item stack.
      *
      * @param player The player whose inventory to display
      */
     private void viewInventory(Player player) {
         System.out.println("\n=== Inventory ===");
         System.out.printf("Capacity: %d/%d%n",
-                player.getInventory().size(), player.getInventorySize());
+                player.usedInventorySlots(), player.getInventorySize());
 
-        List<Item> inventory = player.getInventory();
+        List<ItemStack> inventory = player.inventoryStacks();
         if (inventory.isEmpty()) {
             System.out.println("Inventory is empty");
             return;
@@ -266,8 +274,8 @@ public class ConsoleUI {
 
         System.out.println("\nItems:");
         for (int i = 0; i < inventory.size(); i++) {
-            Item item = inventory.get(i);
-            System.out.printf("%d. %s (%s)%n", i + 1, item.getName(), item.getType());
+            Item item = inventory.get(i).getItem();
+            System.out.printf("%d. %s x%d (%s)%n", i + 1, item.getName(), inventory.get(i).getCount(), item.getType());
             if (item.getDescription() != null) {
                 System.out.println("   Description: " + item.getDescription());
             }
@@ -286,19 +294,18 @@ public class ConsoleUI {
             return;
         }
 
-        var gameMap = gameRepository.findById("").orElse(null);
-        if (gameMap == null) {
+        if (!gameRepository.exists("")) {
             System.out.println("Error accessing game data");
             return;
         }
 
-        SpaceObject currentLocation = findCurrentLocation(gameMap, player);
+        SpaceObject currentLocation = findCurrentLocation(player);
         if (currentLocation == null) {
             System.out.println("Current location not found");
             return;
         }
 
-        List<ResourceType> availableResources = currentLocation.getResources();
+        List<ResourceType> availableResources = currentLocation.resourcesView();
         System.out.println("\n=== Available Resources on " + currentLocation.getName() + " ===");
         for (int i = 0; i < availableResources.size(); i++) {
             System.out.printf("%d. %s (%s)%n", i + 1,
@@ -310,14 +317,14 @@ public class ConsoleUI {
         if (selectedResource == null) return;
 
         try {
-            if (player.getInventory().size() >= player.getInventorySize()) {
+            Item item = itemRepository.getCatalog().resource(selectedResource);
+            if (!player.hasRoomFor(item, 1)) {
                 System.out.println("Inventory is full!");
                 return;
             }
 
-            Item item = new Item(selectedResource.name(), "RESOURCE");
-            item.setDescription(selectedResource.getDescription());
             player.addItem(item);
+            authService.saveProgress(player);
             System.out.println("Collected: " + selectedResource.getDescription());
 
             logger.info("Player {} collected {} from {}",
@@ -335,7 +342,7 @@ public class ConsoleUI {
      * @param player The player dropping an item
      */
     private void dropItem(Player player) {
-        List<Item> inventory = player.getInventory();
+        List<ItemStack> inventory = player.inventoryStacks();
         if (inventory.isEmpty()) {
             System.out.println("Inventory is empty");
             return;
@@ -343,16 +350,19 @@ public class ConsoleUI {
 
         System.out.println("\n=== Drop Item ===");
         for (int i = 0; i < inventory.size(); i++) {
-            System.out.printf("%d. %s (%s)%n", i + 1,
-                    inventory.get(i).getName(),
-                    inventory.get(i).getType());
+            System.out.printf("%d. %s x%d (%s)%n", i + 1,
+                    inventory.get(i).getItem().getName(),
+                    inventory.get(i).getCount(),
+                    inventory.get(i).getItem().getType());
         }
 
-        Item selectedItem = selectFromList("Choose item to drop", inventory);
-        if (selectedItem == null) return;
+        ItemStack selectedStack = selectFromList("Choose item to drop", inventory);
+        if (selectedStack == null) return;
+        Item selectedItem = selectedStack.getItem();
 
         try {
             player.removeItem(selectedItem);
+            authService.saveProgress(player);
             System.out.println("Dropped: " + selectedItem.getName());
             logger.info("Player {} dropped {}", player.getUsername(), selectedItem.getName());
         } catch (Exception e) {
@@ -375,23 +385,18 @@ public class ConsoleUI {
                 (player.getCurrentSector() != null ? player.getCurrentSector() : "Not in any sector"));
         System.out.println("Current location: " +
                 (player.getCurrentPlanet() != null ? player.getCurrentPlanet() : "Not at any location"));
-        System.out.printf("Inventory: %d/%d items%n",
-                player.getInventory().size(), player.getInventorySize());
+        System.out.printf("Inventory: %d items in %d/%d slots%n",
+                player.inventoryCount(), player.usedInventorySlots(), player.getInventorySize());
     }
 
     /**
      * Finds a space object at the player's current location.
      *
-     * @param gameMap The game map to search
      * @param player The player whose location to find
      * @return The space object at the player's location, or null if not found
      */
-    private SpaceObject findCurrentLocation(GameMap gameMap, Player player) {
-        return gameMap.getSectors().stream()
-                .filter(s -> s.getId().equals(player.getCurrentSector()))
-                .flatMap(s -> s.getObjects().stream())
-                .filter(o -> o.getName().equals(player.getCurrentPlanet()))
-                .findFirst()
+    private SpaceObject findCurrentLocation(Player player) {
+        return gameRepository.findSpaceObject(player.getCurrentSector(), player.getCurrentPlanet())
                 .orElse(null);
     }
 
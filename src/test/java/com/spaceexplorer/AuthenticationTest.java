@@ -3,13 +3,34 @@ package test.java.com.spaceexplorer;
 import main.java.com.spaceexplorer.model.Player;
 import main.java.com.spaceexplorer.repository.PlayerRepository;
 import main.java.com.spaceexplorer.service.auth.AuthService;
+import main.java.com.spaceexplorer.service.auth.Credentials;
+import main.java.com.spaceexplorer.service.auth.HashPolicy;
+import main.java.com.spaceexplorer.service.auth.LoginRateLimiter;
+import main.java.com.spaceexplorer.service.auth.PasswordHasher;
+import main.java.com.spaceexplorer.service.auth.PasswordHashingPool;
+import main.java.com.spaceexplorer.service.auth.SessionCache;
+import main.java.com.spaceexplorer.service.auth.TooManyAttemptsException;
 import org.junit.Before;
 import org.junit.After;
 import org.junit.Test;
 import org.junit.Rule;
 import org.junit.rules.TemporaryFolder;
 
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
 import java.io.File;
+import java.nio.file.Files;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.junit.Assert.*;
 
@@ -72,4 +93,243 @@ public class AuthenticationTest {
     public void testRegisterWithEmptyPassword() {
         authService.register("test_user", "");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testLoginThroughHashingPool() throws Exception {
+        try (PasswordHashingPool pool = new PasswordHashingPool(2, 16)) {
+            AuthService pooledService = new AuthService(playerRepository, pool);
+            Player registered = pooledService.register("pooled_user", "test123");
+            assertTrue(PasswordHasher.verifyPassword("test123", registered.getPassword()));
+            assertEquals(registered.getId(), pooledService.loginAsync("pooled_user", "test123").get().getId());
+            assertEquals(registered.getId(), pooledService.login("pooled_user", "test123").getId());
+            assertThrows(IllegalStateException.class, () -> pooledService.login("pooled_user", "wrong123"));
+            assertTrue(pool.verifyAsync("test123", registered.getPassword()).get());
+        }
+    }
+
+    @Test
+    public void testHashingPoolShedsLoadWhenSaturated() {
+        try (PasswordHashingPool pool = new PasswordHashingPool(1, 1)) {
+            List<CompletableFuture<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                futures.add(pool.hashAsync("password" + i));
+            }
+            int rejected = 0;
+            for (CompletableFuture<String> future : futures) {
+                try {
+                    assertNotNull(future.join());
+                } catch (CompletionException e) {
+                    assertTrue(e.getCause() instanceof RejectedExecutionException);
+                    rejected++;
+                }
+            }
+            assertTrue(rejected > 0);
+            assertEquals(rejected, pool.getRejectedCount());
+            assertEquals(20 - rejected, pool.getSubmittedCount());
+        }
+    }
+
+    @Test
+    public void testSaltedHashFormat() {
+        String first = PasswordHasher.hashPassword("test123");
+        String second = PasswordHasher.hashPassword("test123");
+        assertTrue(first.startsWith("$pbkdf2-sha256$10000$"));
+        assertNotEquals(first, second);
+        assertTrue(PasswordHasher.verifyPassword("test123", first));
+        assertTrue(PasswordHasher.verifyPassword("test123", second));
+        assertFalse(PasswordHasher.verifyPassword("test124", first));
+        assertFalse(PasswordHasher.verifyPassword("test123", "$pbkdf2-md5$1$abc$def"));
+        assertFalse(PasswordHasher.needsRehash(first));
+    }
+
+    @Test
+    public void testLegacyHashRehashedOnLogin() throws Exception {
+        PBEKeySpec spec = new PBEKeySpec("test123".toCharArray(), "SpaceExplorerSalt123".getBytes(), 10000, 256);
+        String legacyHash = Base64.getEncoder().encodeToString(
+                SecretKeyFactory.getInstance("PBKDF2WithHmacSHA1").generateSecret(spec).getEncoded());
+        playerRepository.save(new Player("legacy_user", legacyHash));
+        assertTrue(PasswordHasher.verifyPassword("test123", legacyHash));
+        assertTrue(PasswordHasher.needsRehash(legacyHash));
+
+        Player player = authService.login("legacy_user", "test123");
+        String upgraded = player.getPassword();
+        assertNotEquals(legacyHash, upgraded);
+        assertFalse(PasswordHasher.needsRehash(upgraded));
+        assertEquals(upgraded, playerRepository.findByUsername("legacy_user").get().getPassword());
+        assertEquals(player.getId(), authService.login("legacy_user", "test123").getId());
+    }
+
+    @Test
+    public void testPolicyChangeRehashesOnLogin() {
+        authService.register("test_user", "test123");
+        HashPolicy original = PasswordHasher.getPolicy();
+        try {
+            PasswordHasher.setPolicy(original.withIterations(12000));
+            String before = playerRepository.findByUsername("test_user").get().getPassword();
+            assertTrue(PasswordHasher.needsRehash(before));
+            String after = authService.login("test_user", "test123").getPassword();
+            assertTrue(after.startsWith("$pbkdf2-sha256$12000$"));
+        } finally {
+            PasswordHasher.setPolicy(original);
+        }
+    }
+
+    @Test
+    public void testVerifyMatchesJcaKeyFactories() throws Exception {
+        byte[] salt = "per-user-salt".getBytes();
+        String password = "пароль-test123";
+        for (HashPolicy.Algorithm algorithm : HashPolicy.Algorithm.values()) {
+            // 512-bit keys span several HMAC blocks for SHA-1 and SHA-256
+            PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, 1000, 512);
+            byte[] expected = SecretKeyFactory.getInstance(algorithm.getJcaName()).generateSecret(spec).getEncoded();
+            String stored = "$" + algorithm.getId() + "$1000$" + Base64.getEncoder().encodeToString(salt)
+                    + "$" + Base64.getEncoder().encodeToString(expected);
+            assertTrue(algorithm.getId(), PasswordHasher.verifyPassword(password, stored));
+            assertFalse(algorithm.getId(), PasswordHasher.verifyPassword(password + "!", stored));
+        }
+    }
+
+    @Test
+    public void testSessionTokens() {
+        Player player = authService.register("test_user", "test123");
+        String token = authService.createSession("test_user", "test123");
+        assertEquals(player.getId(), authService.authenticate(token).get().getId());
+        assertFalse(authService.authenticate("unknown").isPresent());
+
+        authService.logout(token);
+        assertFalse(authService.authenticate(token).isPresent());
+
+        String second = authService.createSession("test_user", "test123");
+        authService.invalidateSessions(player.getId());
+        assertFalse(authService.authenticate(second).isPresent());
+    }
+
+    @Test
+    public void testSessionInvalidatedByPasswordChangeAndDeletion() {
+        Player player = authService.register("test_user", "test123");
+        String token = authService.createSession("test_user", "test123");
+        player.setPassword(PasswordHasher.hashPassword("changed123"));
+        playerRepository.update(player.getId(), player);
+        assertFalse(authService.authenticate(token).isPresent());
+
+        String second = authService.createSession("test_user", "changed123");
+        assertTrue(authService.authenticate(second).isPresent());
+        playerRepository.delete(player.getId());
+        assertFalse(authService.authenticate(second).isPresent());
+    }
+
+    @Test
+    public void testSessionCacheExpiryAndEviction() {
+        Instant[] now = {Instant.parse("2024-01-01T00:00:00Z")};
+        Clock clock = new Clock() {
+            @Override public ZoneOffset getZone() { return ZoneOffset.UTC; }
+            @Override public Clock withZone(java.time.ZoneId zone) { return this; }
+            @Override public Instant instant() { return now[0]; }
+        };
+        SessionCache cache = new SessionCache(2, Duration.ofMinutes(5), clock);
+        String first = cache.issue("p1", "hash");
+        String second = cache.issue("p2", "hash");
+        assertNotNull(cache.get(first));
+        cache.issue("p3", "hash");
+        // second was least recently used
+        assertNull(cache.get(second));
+        assertNotNull(cache.get(first));
+
+        now[0] = now[0].plus(Duration.ofMinutes(6));
+        assertNull(cache.get(first));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testFailedLoginsThrottledPerUser() {
+        long[] now = {0};
+        LoginRateLimiter limiter = new LoginRateLimiter(1.0, 3, 1000.0, 1000, () -> now[0]);
+        AuthService limitedService = new AuthService(playerRepository, null, new SessionCache(), limiter);
+        limitedService.register("test_user", "test123");
+        limitedService.register("other_user", "test123");
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(IllegalStateException.class, () -> limitedService.login("test_user", "wrong123"));
+        }
+        assertThrows(TooManyAttemptsException.class, () -> limitedService.login("test_user", "test123"));
+        assertEquals(1, limiter.getRejectedByUserCount());
+        // Other accounts are unaffected
+        assertNotNull(limitedService.login("other_user", "test123"));
+
+        // Tokens refill over time and a successful login clears the history
+        now[0] += 1_000_000_000L;
+        assertNotNull(limitedService.login("test_user", "test123"));
+        for (int i = 0; i < 3; i++) {
+            assertThrows(IllegalStateException.class, () -> limitedService.login("test_user", "wrong123"));
+        }
+    }
+
+    @Test
+    public void testGlobalLoginLimit() {
+        long[] now = {0};
+        LoginRateLimiter limiter = new LoginRateLimiter(100.0, 100, 1.0, 1, () -> now[0]);
+        limiter.acquire("first");
+        assertThrows(TooManyAttemptsException.class, () -> limiter.acquire("second"));
+        assertEquals(1, limiter.getAllowedCount());
+        assertEquals(1, limiter.getRejectedGloballyCount());
+        now[0] += 1_000_000_000L;
+        limiter.acquire("second");
+    }
+
+    @Test
+    public void testRejectedUsernamesAreNotTracked() {
+        long[] now = {0};
+        LoginRateLimiter limiter = new LoginRateLimiter(1.0, 3, 1.0, 1, () -> now[0]);
+        limiter.acquire("first");
+        for (int i = 0; i < 100; i++) {
+            String username = "random" + i;
+            assertThrows(TooManyAttemptsException.class, () -> limiter.acquire(username));
+        }
+        assertEquals(1, limiter.getTrackedUserCount());
+        assertEquals(100, limiter.getRejectedGloballyCount());
+    }
+
+    @Test
+    public void testRegisterAll() {
+        List<Player> players = authService.registerAll(Arrays.asList(
+                new Credentials("bulk_one", "test123"), new Credentials("bulk_two", "test456")));
+        assertEquals(2, players.size());
+        assertEquals("bulk_one", players.get(0).getUsername());
+        assertEquals(players.get(1).getId(), authService.login("bulk_two", "test456").getId());
+
+        assertThrows(IllegalStateException.class, () -> authService.registerAll(Arrays.asList(
+                new Credentials("bulk_three", "test123"), new Credentials("bulk_one", "test123"))));
+        assertThrows(IllegalArgumentException.class, () -> authService.registerAll(Arrays.asList(
+                new Credentials("bulk_four", "test123"), new Credentials("bulk_five", "short"))));
+        assertFalse(playerRepository.findByUsername("bulk_three").isPresent());
+        assertFalse(playerRepository.findByUsername("bulk_four").isPresent());
+    }
+
+    @Test
+    public void testImportAccounts() throws Exception {
+        File file = tempFolder.newFile("accounts.csv");
+        Files.write(file.toPath(), Arrays.asList(
+                "username,password",
+                "csv_user,pass,with,commas",
+                "",
+                "# comment",
+                "{\"username\": \"json_user\", \"password\": \"test123\"}",
+                "third_user,test123"));
+        assertEquals(3, authService.importAccounts(file.toPath(), 2));
+        assertNotNull(authService.login("csv_user", "pass,with,commas"));
+        assertNotNull(authService.login("json_user", "test123"));
+        assertEquals(3, new PlayerRepository(testFile.getAbsolutePath()).findAll().size());
+    }
+
+    @Test
+    public void testImportKeepsPasswordWhitespaceAndHeaderlessFirstAccount() throws Exception {
+        File file = tempFolder.newFile("accounts.csv");
+        Files.write(file.toPath(), Arrays.asList(
+                "username,secret123",
+                " spaced_user ,  pass with spaces  "));
+        assertEquals(2, authService.importAccounts(file.toPath(), 10));
+        assertNotNull(authService.login("username", "secret123"));
+        assertNotNull(authService.login("spaced_user", "  pass with spaces  "));
+        assertThrows(IllegalStateException.class, () -> authService.login("spaced_user", "pass with spaces"));
+    }
+}
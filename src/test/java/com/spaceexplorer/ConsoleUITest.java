@@ -100,6 +100,27 @@ public class ConsoleUITest {
                 output.contains("Welcome back, testuser!"));
     }
 
+    @Test
+    public void testExploreAndCollect() {
+        String input = String.join("\n",
+                "2", "explorer", "password",
+                "1", "explorer", "password",
+                "1", "1", "1",  // Explore the first sector and its first object
+                "4", "2",       // Collect the second resource
+                "2",            // View inventory
+                "6", "3"
+        ) + "\n";
+        System.setIn(new ByteArrayInputStream(input.getBytes()));
+
+        ConsoleUI ui = new ConsoleUI(authService, gameRepository, itemRepository);
+        ui.start();
+
+        String output = outputStream.toString();
+        assertTrue(output.contains("Exploring Test Planet"));
+        assertTrue(output.contains("Collected: Water"));
+        assertTrue(output.contains("Capacity: 1/10"));
+    }
+
     @Test
     public void testInvalidLogin() {
         String input = "1\nnonexistent\nwrong\n3\n";
@@ -0,0 +1,288 @@
+package test.java.com.spaceexplorer;
+
+import main.java.com.spaceexplorer.model.Player;
+import main.java.com.spaceexplorer.repository.Durability;
+import main.java.com.spaceexplorer.repository.JournaledPlayerRepository;
+import main.java.com.spaceexplorer.repository.PlayerRepository;
+import main.java.com.spaceexplorer.repository.ShardedPlayerRepository;
+import main.java.com.spaceexplorer.repository.WorkingSetPlayerRepository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Hammers a shared PlayerRepository from many threads and checks the
+ * invariants concurrent sessions rely on: unique usernames, indexes that agree
+ * with each other, all-or-nothing batches in {@code findAll} snapshots, and
+ * persisted data that matches memory once the writers stop.
+ */
+public class PlayerRepositoryStressTest {
+    private static final int THREADS = 8;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private ExecutorService executor;
+
+    private final List<PlayerRepository> writeBehindRepositories = new ArrayList<>();
+
+    @Before
+    public void setup() {
+        executor = Executors.newFixedThreadPool(THREADS + 2);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        writeBehindRepositories.forEach(PlayerRepository::disableWriteBehind);
+        executor.shutdownNow();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testUsernameRegisteredOnlyOnce() throws Exception {
+        PlayerRepository repository = newRepository("players.json");
+        int names = 200;
+        AtomicInteger registered = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(THREADS, thread -> {
+            for (int i = 0; i < names; i++) {
+                try {
+                    repository.save(new Player("pilot" + i, "password"));
+                    registered.incrementAndGet();
+                } catch (IllegalStateException e) {
+                    rejected.incrementAndGet();
+                }
+            }
+        });
+
+        assertEquals(names, registered.get());
+        assertEquals(names * (THREADS - 1), rejected.get());
+        assertIndexesConsistent(repository, names);
+    }
+
+    @Test
+    public void testFindAllSeesWholeBatches() throws Exception {
+        PlayerRepository repository = newRepository("players.json");
+        int batchSize = 10;
+        int batchesPerWriter = 100;
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ConcurrentLinkedQueue<String> violations = new ConcurrentLinkedQueue<>();
+
+        List<Future<?>> readers = new ArrayList<>();
+        for (int r = 0; r < 2; r++) {
+            readers.add(executor.submit(() -> {
+                while (writing.get()) {
+                    List<Player> snapshot = repository.findAll();
+                    if (snapshot.size() % batchSize != 0) {
+                        violations.add("Partial batch in snapshot of " + snapshot.size());
+                    }
+                    Set<String> usernames = new HashSet<>();
+                    for (Player player : snapshot) {
+                        if (!usernames.add(player.getUsername())) {
+                            violations.add("Duplicate username " + player.getUsername());
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        runConcurrently(THREADS, thread -> {
+            for (int b = 0; b < batchesPerWriter; b++) {
+                List<Player> batch = new ArrayList<>();
+                for (int i = 0; i < batchSize; i++) {
+                    batch.add(new Player("w" + thread + "-b" + b + "-" + i, "password"));
+                }
+                repository.saveAll(batch);
+            }
+        });
+        writing.set(false);
+        for (Future<?> reader : readers) {
+            reader.get(30, TimeUnit.SECONDS);
+        }
+
+        assertTrue(violations.toString(), violations.isEmpty());
+        assertIndexesConsistent(repository, THREADS * batchesPerWriter * batchSize);
+    }
+
+    @Test
+    public void testConcurrentRenamesAndDeletes() throws Exception {
+        PlayerRepository repository = newRepository("players.json");
+        verifyRenamesAndDeletes(repository);
+        repository.disableWriteBehind();
+        assertSameContent(repository,
+                new PlayerRepository(new File(tempFolder.getRoot(), "players.json").getAbsolutePath()));
+    }
+
+    @Test
+    public void testConcurrentJournaledMutationsReplayInOrder() throws Exception {
+        String snapshot = new File(tempFolder.getRoot(), "journaled.json").getAbsolutePath();
+        JournaledPlayerRepository repository = new JournaledPlayerRepository(snapshot, 500);
+        repository.setDurability(Durability.NONE);
+        verifyRenamesAndDeletes(repository);
+        repository.close();
+
+        JournaledPlayerRepository reopened = new JournaledPlayerRepository(snapshot);
+        assertSameContent(repository, reopened);
+        reopened.close();
+    }
+
+    @Test
+    public void testConcurrentShardedMutations() throws Exception {
+        String manifest = new File(tempFolder.getRoot(), "sharded.json").getAbsolutePath();
+        ShardedPlayerRepository repository = new ShardedPlayerRepository(manifest, 5);
+        repository.setDurability(Durability.NONE);
+        repository.enableWriteBehind(20);
+        writeBehindRepositories.add(repository);
+        verifyRenamesAndDeletes(repository);
+        repository.disableWriteBehind();
+        assertSameContent(repository, new ShardedPlayerRepository(manifest));
+    }
+
+    @Test
+    public void testConcurrentMutationsWithSmallWorkingSet() throws Exception {
+        String manifest = new File(tempFolder.getRoot(), "working-set.json").getAbsolutePath();
+        WorkingSetPlayerRepository repository = new WorkingSetPlayerRepository(manifest, 5, 6);
+        repository.setDurability(Durability.NONE);
+        repository.enableWriteBehind(20);
+        writeBehindRepositories.add(repository);
+        mutateConcurrently(repository);
+        // Unloaded players are found as new instances, so compare by ID
+        Set<String> usernames = new HashSet<>();
+        for (Player player : repository.findAll()) {
+            assertTrue("Duplicate username " + player.getUsername(), usernames.add(player.getUsername()));
+            assertEquals(player.getId(), repository.findById(player.getId()).get().getId());
+            assertEquals(player.getId(), repository.findByUsername(player.getUsername()).get().getId());
+        }
+        assertTrue(repository.getResidentPlayerCount() <= 6);
+        repository.disableWriteBehind();
+        assertSameContent(repository, new WorkingSetPlayerRepository(manifest));
+    }
+
+    /**
+     * Threads rename players into a small pool of usernames, delete them and
+     * register them again, so username conflicts and stale lookups are frequent.
+     */
+    private void verifyRenamesAndDeletes(PlayerRepository repository) throws Exception {
+        mutateConcurrently(repository);
+        assertIndexesConsistent(repository, -1);
+    }
+
+    private void mutateConcurrently(PlayerRepository repository) throws Exception {
+        int players = 40;
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < players; i++) {
+            Player player = new Player("player" + i, "password");
+            repository.save(player);
+            ids.add(player.getId());
+        }
+
+        runConcurrently(THREADS, thread -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < 500; i++) {
+                String id = ids.get(random.nextInt(players));
+                String username = "name" + random.nextInt(players + players / 2);
+                try {
+                    switch (random.nextInt(3)) {
+                        case 0:
+                            Player renamed = new Player(username, "password");
+                            renamed.setId(id);
+                            repository.update(id, renamed);
+                            break;
+                        case 1:
+                            repository.delete(id);
+                            break;
+                        default:
+                            Player registered = new Player(username, "password");
+                            registered.setId(id);
+                            if (!repository.exists(id)) {
+                                repository.save(registered);
+                            }
+                    }
+                } catch (IllegalStateException | IllegalArgumentException e) {
+                    // Username taken, or the player was deleted by another thread
+                }
+            }
+        });
+    }
+
+    private PlayerRepository newRepository(String fileName) {
+        PlayerRepository repository = new PlayerRepository(new File(tempFolder.getRoot(), fileName).getAbsolutePath());
+        repository.setDurability(Durability.NONE);
+        repository.enableWriteBehind(20);
+        writeBehindRepositories.add(repository);
+        return repository;
+    }
+
+    /**
+     * Checks that every player in a snapshot can be found under its ID and
+     * username, and that no username is used twice.
+     */
+    private void assertIndexesConsistent(PlayerRepository repository, int expectedCount) {
+        List<Player> all = repository.findAll();
+        if (expectedCount >= 0) {
+            assertEquals(expectedCount, all.size());
+        }
+        Set<String> usernames = new HashSet<>();
+        for (Player player : all) {
+            assertTrue("Duplicate username " + player.getUsername(), usernames.add(player.getUsername()));
+            assertSame(player, repository.findById(player.getId()).orElse(null));
+            assertSame(player, repository.findByUsername(player.getUsername()).orElse(null));
+        }
+    }
+
+    private void assertSameContent(PlayerRepository expected, PlayerRepository actual) {
+        Map<String, String> expectedUsernames = new HashMap<>();
+        expected.findAll().forEach(p -> expectedUsernames.put(p.getId(), p.getUsername()));
+        Map<String, String> actualUsernames = new HashMap<>();
+        actual.findAll().forEach(p -> actualUsernames.put(p.getId(), p.getUsername()));
+        assertEquals(expectedUsernames, actualUsernames);
+    }
+
+    /**
+     * Runs a task on several threads that are released at the same moment,
+     * and rethrows the first failure.
+     */
+    private void runConcurrently(int threads, ThreadTask task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit((Callable<Void>) () -> {
+                start.await();
+                task.run(thread);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+    }
+
+    private interface ThreadTask {
+        void run(int thread) throws Exception;
+    }
+}
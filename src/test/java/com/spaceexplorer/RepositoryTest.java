@@ -8,6 +8,12 @@ import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
 import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -76,6 +82,186 @@ public class RepositoryTest {
         assertFalse(gameRepository.exists(""));
     }
 
+    @Test
+    public void testGameMapCache() {
+        GameMap gameMap = new GameMap();
+        Sector sector = new Sector();
+        sector.setId("cached");
+        sector.setName("Cached Sector");
+        sector.setObjects(Arrays.asList());
+        gameMap.addSector(sector);
+        gameRepository.save(gameMap);
+
+        // Served from memory after save
+        assertSame(gameMap, gameRepository.findById("").get());
+        assertSame(gameMap, gameRepository.findAll().get(0));
+        assertEquals(2, gameRepository.getCacheHits());
+        assertEquals(0, gameRepository.getCacheMisses());
+
+        // A write through another repository changes the file and forces a reload
+        sector.setName("Changed Elsewhere");
+        new GameRepository(TEST_GAME_MAP).save(gameMap);
+        GameMap reloaded = gameRepository.findById("").get();
+        assertNotSame(gameMap, reloaded);
+        assertEquals("Changed Elsewhere", reloaded.getSectors().get(0).getName());
+        assertEquals(1, gameRepository.getCacheMisses());
+        assertEquals(1, gameRepository.getCacheReloads());
+
+        gameRepository.delete("");
+        assertFalse(gameRepository.findById("").isPresent());
+    }
+
+    @Test
+    public void testGameMapLocationIndex() {
+        Sector sector = new Sector();
+        sector.setId("indexed_sector");
+        SpaceObject station = new SpaceObject();
+        station.setName("Station");
+        station.setType(ObjectType.SPACE_STATION);
+        sector.setObjects(Arrays.asList(station));
+
+        GameMap gameMap = new GameMap();
+        gameMap.addSector(sector);
+        assertSame(sector, gameMap.getSector("indexed_sector"));
+        assertSame(station, gameMap.getSpaceObject("indexed_sector", "Station"));
+        assertNull(gameMap.getSpaceObject("indexed_sector", "Missing"));
+
+        gameMap.removeSector(sector);
+        assertNull(gameMap.getSector("indexed_sector"));
+        assertNull(gameMap.getSpaceObject("indexed_sector", "Station"));
+
+        // Indexes are rebuilt when the map is loaded from disk
+        gameMap.setSectors(Arrays.asList(sector));
+        gameRepository.save(gameMap);
+        GameMap loaded = new GameRepository(TEST_GAME_MAP).findById("").get();
+        assertEquals("Station", loaded.getSpaceObject("indexed_sector", "Station").getName());
+        assertTrue(gameRepository.findSpaceObject("indexed_sector", "Station").isPresent());
+    }
+
+    @Test
+    public void testSpaceObjectResourceSet() {
+        SpaceObject planet = new SpaceObject();
+        planet.setResources(Arrays.asList(ResourceType.WATER, ResourceType.IRON, ResourceType.WATER));
+        // The list keeps the map data's order and duplicates; queries use the mask
+        assertEquals(Arrays.asList(ResourceType.WATER, ResourceType.IRON, ResourceType.WATER),
+                planet.getResources());
+        assertEquals(planet.getResources(), planet.resourcesView());
+        assertEquals(3, planet.resourceCount());
+        assertTrue(planet.hasResource(ResourceType.WATER));
+        assertFalse(planet.hasResource(ResourceType.HELIUM));
+        assertTrue(planet.hasAllResources(Arrays.asList(ResourceType.IRON, ResourceType.WATER)));
+        assertFalse(planet.hasAllResources(Arrays.asList(ResourceType.IRON, ResourceType.HELIUM)));
+        assertTrue(planet.hasAnyResource(Arrays.asList(ResourceType.HELIUM, ResourceType.WATER)));
+
+        SpaceObject moon = new SpaceObject();
+        moon.setResources(Arrays.asList(ResourceType.WATER, ResourceType.HELIUM));
+        assertEquals(ResourceType.fromMask(ResourceType.WATER.mask()), planet.sharedResources(moon));
+
+        // Resources are still stored as a JSON array of names
+        Sector sector = new Sector();
+        sector.setId("resource_sector");
+        planet.setName("Resource Planet");
+        planet.setType(ObjectType.PLANET);
+        sector.setObjects(Arrays.asList(planet));
+        GameMap gameMap = new GameMap();
+        gameMap.addSector(sector);
+        gameRepository.save(gameMap);
+        SpaceObject loaded = new GameRepository(TEST_GAME_MAP)
+                .findSpaceObject("resource_sector", "Resource Planet").get();
+        assertEquals(planet.getResources(), loaded.getResources());
+        assertEquals(planet.resourceMask(), loaded.resourceMask());
+    }
+
+    @Test
+    public void testResourceIndexQueries() {
+        SpaceObject mine = new SpaceObject();
+        mine.setName("Mine");
+        mine.setType(ObjectType.ASTEROID);
+        mine.setResources(Arrays.asList(ResourceType.IRON, ResourceType.NICKEL));
+        SpaceObject lake = new SpaceObject();
+        lake.setName("Lake");
+        lake.setType(ObjectType.PLANET);
+        lake.setResources(Arrays.asList(ResourceType.WATER, ResourceType.IRON));
+        Sector first = new Sector();
+        first.setId("first");
+        first.setObjects(Arrays.asList(mine, lake));
+
+        SpaceObject comet = new SpaceObject();
+        comet.setName("Comet");
+        comet.setType(ObjectType.ASTEROID);
+        comet.setResources(Arrays.asList(ResourceType.WATER, ResourceType.ICE, ResourceType.WATER));
+        Sector second = new Sector();
+        second.setId("second");
+        second.setObjects(Arrays.asList(comet));
+
+        GameMap gameMap = new GameMap();
+        gameMap.addSector(first);
+        gameMap.addSector(second);
+
+        // Comet lists water twice but is one location
+        assertEquals(2, gameMap.findResourceLocations(ResourceType.WATER).size());
+        assertEquals(1, gameMap.findLocationsWithAll(Arrays.asList(ResourceType.WATER, ResourceType.ICE)).size());
+        assertEquals(2, gameMap.findLocationsWithAny(Arrays.asList(ResourceType.WATER)).size());
+        assertTrue(gameMap.findResourceLocations(ResourceType.HELIUM).isEmpty());
+
+        List<ResourceLocation> both = gameMap.findLocationsWithAll(Arrays.asList(ResourceType.IRON, ResourceType.WATER));
+        assertEquals(1, both.size());
+        assertSame(lake, both.get(0).getSpaceObject());
+        assertEquals("first", both.get(0).getSectorId());
+
+        // Lake offers both resources but is reported once
+        List<ResourceLocation> either = gameMap.findLocationsWithAny(Arrays.asList(ResourceType.IRON, ResourceType.ICE));
+        assertEquals(3, either.size());
+
+        gameMap.removeSector(first);
+        assertEquals(1, gameMap.findResourceLocations(ResourceType.WATER).size());
+        assertTrue(gameMap.findLocationsWithAll(Arrays.asList(ResourceType.IRON, ResourceType.WATER)).isEmpty());
+
+        // The index is rebuilt when the map is loaded from disk
+        gameMap.addSector(first);
+        gameRepository.save(gameMap);
+        GameMap loaded = new GameRepository(TEST_GAME_MAP).findById("").get();
+        assertEquals(2, loaded.findResourceLocations(ResourceType.IRON).size());
+    }
+
+    @Test
+    public void testLazySectorLoading() {
+        GameMap gameMap = new GameMap();
+        for (String id : Arrays.asList("alpha", "beta", "gamma")) {
+            Sector sector = new Sector();
+            sector.setId(id);
+            sector.setName(id.toUpperCase());
+            SpaceObject object = new SpaceObject();
+            object.setName(id + " prime");
+            object.setType(ObjectType.ASTEROID);
+            object.setResources(Arrays.asList(ResourceType.MINERALS));
+            sector.setObjects(Arrays.asList(object));
+            gameMap.addSector(sector);
+        }
+        gameRepository.save(gameMap);
+
+        assertEquals(Arrays.asList("alpha", "beta", "gamma"),
+                new ArrayList<>(gameRepository.findSectorNames().keySet()));
+        assertEquals("BETA", gameRepository.findSectorNames().get("beta"));
+
+        Sector beta = gameRepository.findSector("beta").orElseThrow();
+        assertEquals("beta prime", beta.getObjects().get(0).getName());
+        assertEquals(Arrays.asList(ResourceType.MINERALS), beta.getObjects().get(0).getResources());
+        assertFalse(gameRepository.findSector("delta").isPresent());
+
+        // The index is rebuilt after the file changes
+        Sector delta = new Sector();
+        delta.setId("delta");
+        delta.setName("DELTA");
+        delta.setObjects(Arrays.asList());
+        gameMap.addSector(delta);
+        gameRepository.update("", gameMap);
+        assertTrue(gameRepository.findSector("delta").isPresent());
+
+        gameRepository.delete("");
+        assertTrue(gameRepository.findSectorNames().isEmpty());
+    }
+
     @Test
     public void testItemCRUD() {
         // Create
@@ -127,6 +313,280 @@ public class RepositoryTest {
         assertFalse(playerRepository.exists(playerId));
     }
 
+    @Test
+    public void testPlayerUsernameIndex() {
+        Player player = new Player("indexed", "password");
+        playerRepository.save(player);
+        assertSame(player, playerRepository.findByUsername("indexed").orElse(null));
+
+        // Renaming moves the player to the new username key
+        player.setUsername("renamed");
+        playerRepository.update(player.getId(), player);
+        assertFalse(playerRepository.findByUsername("indexed").isPresent());
+        assertSame(player, playerRepository.findByUsername("renamed").orElse(null));
+
+        playerRepository.delete(player.getId());
+        assertFalse(playerRepository.findByUsername("renamed").isPresent());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testDuplicateUsernameRejectedByRepository() {
+        playerRepository.save(new Player("duplicate", "password"));
+        playerRepository.save(new Player("duplicate", "password"));
+    }
+
+    @Test
+    public void testPlayerWriteBehindFlush() {
+        int initialCount = playerRepository.findAll().size();
+        playerRepository.enableWriteBehind(60_000);
+        try {
+            playerRepository.save(new Player("first", "password"));
+            playerRepository.save(new Player("second", "password"));
+            assertTrue(playerRepository.isDirty());
+            assertFalse(new File(TEST_PLAYERS).exists());
+
+            playerRepository.flush();
+            assertFalse(playerRepository.isDirty());
+            assertEquals(initialCount + 2, new PlayerRepository(TEST_PLAYERS).findAll().size());
+        } finally {
+            playerRepository.disableWriteBehind();
+        }
+    }
+
+    @Test
+    public void testWriteBehindPersistsPlayersAsUpdated() {
+        playerRepository.enableWriteBehind(60_000);
+        try {
+            Player player = new Player("explorer", "password");
+            playerRepository.save(player);
+            player.setHealth(50);
+            playerRepository.update(player.getId(), player);
+
+            // Changes after the update are not persisted until the next update
+            player.setHealth(10);
+            player.setCurrentPlanet("Mars");
+            playerRepository.flush();
+        } finally {
+            playerRepository.disableWriteBehind();
+        }
+        Player stored = new PlayerRepository(TEST_PLAYERS).findByUsername("explorer").get();
+        assertEquals(50, stored.getHealth());
+        assertNull(stored.getCurrentPlanet());
+    }
+
+    @Test
+    public void testJournaledPlayerRepositoryReplay() throws Exception {
+        String snapshot = new File(tempFolder.getRoot(), "players.json").getAbsolutePath();
+
+        JournaledPlayerRepository repository = new JournaledPlayerRepository(snapshot);
+        Player kept = new Player("kept", "password");
+        Player removed = new Player("removed", "password");
+        repository.save(kept);
+        repository.save(removed);
+        kept.setHealth(75);
+        repository.update(kept.getId(), kept);
+        repository.delete(removed.getId());
+        assertEquals(4, repository.getJournalRecordCount());
+        repository.close();
+
+        // The snapshot was never written; state comes from replaying the journal
+        assertFalse(new File(snapshot).exists());
+        JournaledPlayerRepository reopened = new JournaledPlayerRepository(snapshot);
+        assertEquals(1, reopened.findAll().size());
+        assertEquals(75, reopened.findByUsername("kept").get().getHealth());
+        assertFalse(reopened.exists(removed.getId()));
+
+        // Startup compaction folds the journal into the snapshot
+        assertEquals(0, reopened.getJournalRecordCount());
+        assertEquals(1, new PlayerRepository(snapshot).findAll().size());
+        reopened.close();
+    }
+
+    @Test
+    public void testPlayerSaveAll() throws Exception {
+        int initialCount = playerRepository.findAll().size();
+        playerRepository.saveAll(Arrays.asList(new Player("bulk_one", "password"), new Player("bulk_two", "password")));
+        assertTrue(playerRepository.findByUsername("bulk_two").isPresent());
+        assertEquals(initialCount + 2, new PlayerRepository(TEST_PLAYERS).findAll().size());
+
+        // A taken username rejects the whole batch
+        assertThrows(IllegalStateException.class, () -> playerRepository.saveAll(
+                Arrays.asList(new Player("bulk_three", "password"), new Player("bulk_one", "password"))));
+        assertFalse(playerRepository.findByUsername("bulk_three").isPresent());
+        assertThrows(IllegalStateException.class, () -> playerRepository.saveAll(
+                Arrays.asList(new Player("bulk_four", "password"), new Player("bulk_four", "password"))));
+        assertFalse(playerRepository.findByUsername("bulk_four").isPresent());
+        assertEquals(initialCount + 2, playerRepository.findAll().size());
+
+        String snapshot = new File(tempFolder.getRoot(), "bulk_players.json").getAbsolutePath();
+        try (JournaledPlayerRepository journaled = new JournaledPlayerRepository(snapshot)) {
+            journaled.saveAll(Arrays.asList(new Player("one", "password"), new Player("two", "password")));
+            assertEquals(2, journaled.getJournalRecordCount());
+            assertEquals(1, journaled.getWriteMetrics().getWrites());
+        }
+        assertEquals(2, new JournaledPlayerRepository(snapshot).findAll().size());
+    }
+
+    @Test
+    public void testJournaledPlayerRepositoryCompaction() throws Exception {
+        String snapshot = new File(tempFolder.getRoot(), "players.json").getAbsolutePath();
+        JournaledPlayerRepository repository = new JournaledPlayerRepository(snapshot, 3);
+        repository.save(new Player("one", "password"));
+        repository.save(new Player("two", "password"));
+        assertFalse(new File(snapshot).exists());
+
+        repository.save(new Player("three", "password"));
+        assertEquals(0, repository.getJournalRecordCount());
+        assertEquals(3, new PlayerRepository(snapshot).findAll().size());
+        assertEquals(0, new File(snapshot + ".journal").length());
+        repository.close();
+    }
+
+    @Test
+    public void testJournaledPlayerRepositoryIgnoresTornRecord() throws Exception {
+        String snapshot = new File(tempFolder.getRoot(), "players.json").getAbsolutePath();
+        JournaledPlayerRepository repository = new JournaledPlayerRepository(snapshot);
+        repository.save(new Player("survivor", "password"));
+        repository.close();
+
+        // Simulate a crash in the middle of appending a record
+        try (FileWriter writer = new FileWriter(snapshot + ".journal", true)) {
+            writer.write("{\"op\":\"PUT\",\"id\":\"x\",\"player\":{\"userna");
+        }
+
+        JournaledPlayerRepository reopened = new JournaledPlayerRepository(snapshot);
+        assertEquals(1, reopened.findAll().size());
+        assertTrue(reopened.findByUsername("survivor").isPresent());
+        reopened.close();
+    }
+
+    @Test
+    public void testJournaledPlayerRepositoryDropsTornFirstRecord() throws Exception {
+        String snapshot = new File(tempFolder.getRoot(), "players.json").getAbsolutePath();
+        Files.write(Paths.get(snapshot + ".journal"), "{\"op\":\"PU".getBytes(StandardCharsets.UTF_8));
+
+        // Records appended after the torn one must not be glued onto it
+        JournaledPlayerRepository repository = new JournaledPlayerRepository(snapshot);
+        repository.save(new Player("alice", "password"));
+        repository.save(new Player("bob", "password"));
+        repository.close();
+
+        JournaledPlayerRepository reopened = new JournaledPlayerRepository(snapshot);
+        assertEquals(2, reopened.findAll().size());
+        assertTrue(reopened.findByUsername("bob").isPresent());
+        reopened.close();
+    }
+
+    @Test
+    public void testAtomicWriteDurabilityAndMetrics() throws Exception {
+        File directory = tempFolder.newFolder("atomic");
+        String path = new File(directory, "players.json").getAbsolutePath();
+
+        PlayerRepository repository = new PlayerRepository(path);
+        repository.setDurability(Durability.NONE);
+        repository.save(new Player("fast", "password"));
+        assertEquals(1, repository.getWriteMetrics().getWrites());
+        assertEquals(0, repository.getWriteMetrics().getFsyncs());
+
+        repository.setDurability(Durability.DATA_AND_METADATA);
+        repository.save(new Player("safe", "password"));
+        assertEquals(2, repository.getWriteMetrics().getWrites());
+        assertTrue(repository.getWriteMetrics().getFsyncs() >= 1);
+
+        // Only the target file remains; the temporary file was renamed over it
+        assertArrayEquals(new String[] {"players.json"}, directory.list());
+        assertEquals(2, new PlayerRepository(path).findAll().size());
+    }
+
+    @Test
+    public void testBinaryStorageFormat() throws Exception {
+        String binaryPath = new File(tempFolder.getRoot(), "players.sxb").getAbsolutePath();
+        PlayerRepository binary = new PlayerRepository(binaryPath);
+        assertSame(StorageCodec.BINARY, binary.getCodec());
+        Player pilot = new Player("pilot", "password");
+        pilot.addItem(new Item("Water", "RESOURCE"));
+        pilot.addItem(new Item("Hydrogen", "RESOURCE"));
+        binary.save(pilot);
+        binary.save(new Player("\u00e9toile \ud83d\ude80", "password"));
+
+        PlayerRepository reloaded = new PlayerRepository(binaryPath);
+        assertEquals(2, reloaded.findAll().size());
+        assertEquals(pilot.getInventory(), reloaded.findByUsername("pilot").get().getInventory());
+        assertTrue(reloaded.findByUsername("\u00e9toile \ud83d\ude80").isPresent());
+
+        // Converting to JSON and back preserves the content
+        File json = new File(tempFolder.getRoot(), "players.json");
+        StorageConverter.convert(Paths.get(binaryPath), json.toPath());
+        assertEquals(2, new PlayerRepository(json.getAbsolutePath()).findAll().size());
+        File copy = new File(tempFolder.getRoot(), "copy.sxb");
+        StorageConverter.convert(json.toPath(), copy.toPath());
+        assertArrayEquals(Files.readAllBytes(Paths.get(binaryPath)), Files.readAllBytes(copy.toPath()));
+
+        // Sector lookups on a binary game map come from the cached map
+        GameRepository maps = new GameRepository(new File(tempFolder.getRoot(), "map.sxb").getAbsolutePath());
+        GameMap gameMap = new GameMap();
+        Sector sector = new Sector();
+        sector.setId("alpha");
+        sector.setName("Alpha");
+        SpaceObject planet = new SpaceObject();
+        planet.setName("Alpha Prime");
+        planet.setType(ObjectType.PLANET);
+        planet.setResources(Arrays.asList(ResourceType.IRON, ResourceType.WATER));
+        sector.setObjects(Arrays.asList(planet));
+        gameMap.addSector(sector);
+        maps.save(gameMap);
+        assertEquals("Alpha", maps.findSectorNames().get("alpha"));
+        GameMap loaded = new GameRepository(new File(tempFolder.getRoot(), "map.sxb").getAbsolutePath())
+                .findById("").orElseThrow();
+        assertEquals("Alpha Prime", loaded.getSpaceObject("alpha", "Alpha Prime").getName());
+        assertEquals(Arrays.asList(ResourceType.IRON, ResourceType.WATER),
+                loaded.getSector("alpha").getObjects().get(0).getResources());
+    }
+
+    @Test
+    public void testStorageConverterPreservesTokens() throws Exception {
+        StringBuilder document = new StringBuilder("{\"numbers\":[0,-1,2147483648,-9223372036854775808,"
+                + "123456789012345678901234567890,1.5,-2.5E-300],\"flags\":[true,false,null],"
+                + "\"text\":\"caf\u00e9 \ud83d\ude80\",\"empty\":{},\"nested\":[[],[{\"a\":\"b\"}]],\"many\":{");
+        // More distinct names and values than the shared tables hold
+        for (int i = 0; i < 3000; i++) {
+            document.append(i == 0 ? "" : ",").append("\"k").append(i % 1500).append('_').append(i).append("\":\"v")
+                    .append(i % 1200).append('"');
+        }
+        document.append("},\"long\":\"").append("x".repeat(40_000)).append("\"}");
+        File source = new File(tempFolder.getRoot(), "source.json");
+        Files.writeString(source.toPath(), document);
+
+        File binary = new File(tempFolder.getRoot(), "converted.sxb");
+        File json = new File(tempFolder.getRoot(), "converted.json");
+        StorageConverter.convert(source.toPath(), binary.toPath());
+        StorageConverter.convert(binary.toPath(), json.toPath());
+        assertTrue(binary.length() < source.length());
+        assertEquals(JsonMappers.mapper().readTree(source), JsonMappers.mapper().readTree(json));
+
+        // A conversion onto its own source is rejected instead of truncating it
+        assertThrows(IllegalArgumentException.class,
+                () -> StorageConverter.convert(binary.toPath(), binary.toPath()));
+
+        // A corrupt length is reported, not allocated: 40000 (C0 B8 02) becomes 0x7FFFFFF0
+        byte[] bytes = Files.readAllBytes(binary.toPath());
+        String latin = new String(bytes, StandardCharsets.ISO_8859_1);
+        int length = latin.indexOf("\u00c0\u00b8\u0002xxxx");
+        assertTrue(length > 0);
+        byte[] corrupt = new byte[bytes.length + 2];
+        System.arraycopy(bytes, 0, corrupt, 0, length);
+        System.arraycopy(new byte[]{(byte) 0xF0, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07}, 0, corrupt, length, 5);
+        System.arraycopy(bytes, length + 3, corrupt, length + 5, bytes.length - length - 3);
+        Files.write(binary.toPath(), corrupt);
+        assertThrows(IOException.class, () -> StorageConverter.convert(binary.toPath(), json.toPath()));
+
+        // Truncated binary content is reported, not silently accepted, and the
+        // previous target is left in place
+        Files.write(binary.toPath(), Arrays.copyOf(bytes, bytes.length / 2));
+        assertThrows(IOException.class, () -> StorageConverter.convert(binary.toPath(), json.toPath()));
+        assertEquals(JsonMappers.mapper().readTree(source), JsonMappers.mapper().readTree(json));
+    }
+
     @Test
     public void testPlayerInventoryOperations() {
         Player player = new Player("testuser", "password");
@@ -154,6 +614,72 @@ public class RepositoryTest {
         assertEquals(1, loaded.get().getInventory().size());
     }
 
+    @Test
+    public void testStackedInventory() {
+        Player player = new Player("collector", "password");
+        player.setInventorySize(3);
+        Item water = new Item("Water", "RESOURCE");
+        Item artifact = new Item("Ancient Artifact", "ARTIFACT");
+
+        player.addItem(water, 150);
+        assertEquals(150, player.inventoryCount());
+        assertEquals(2, player.usedInventorySlots());
+        assertEquals(150, player.itemCount(new Item("Water", "RESOURCE")));
+        player.addItem(artifact);
+        assertFalse(player.hasRoomFor(new Item("Minerals", "RESOURCE"), 1));
+        assertTrue(player.hasRoomFor(water, 48));
+        try {
+            player.addItem(water, 49);
+            fail("A fourth slot must not be used");
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+
+        assertEquals(100, player.removeItem(water, 100));
+        assertEquals(2, player.usedInventorySlots());
+        player.removeItem(artifact);
+        assertFalse(player.hasItem(artifact));
+        assertEquals(50, player.getInventory().size());
+        assertEquals(Arrays.asList(new ItemStack(water, 50)), player.inventoryStacks());
+
+        // Quantities that would overflow the unit counts never fit
+        Player hoarder = new Player("hoarder", "password");
+        hoarder.setInventorySize(Integer.MAX_VALUE);
+        hoarder.addItem(water, 5);
+        assertFalse(hoarder.hasRoomFor(water, Integer.MAX_VALUE));
+        assertThrows(IllegalStateException.class, () -> hoarder.addItem(water, Integer.MAX_VALUE));
+        assertEquals(5, hoarder.inventoryCount());
+        assertEquals(1, hoarder.usedInventorySlots());
+    }
+
+    @Test
+    public void testInventoryStoredAsStacks() throws IOException {
+        Player player = new Player("collector", "password");
+        player.addItem(new Item("Water", "RESOURCE"), 40);
+        player.addItem(new Item("Space Map", "TOOL"));
+        playerRepository.save(player);
+        playerRepository.flush();
+
+        String json = new String(Files.readAllBytes(Paths.get(TEST_PLAYERS)), "UTF-8");
+        assertTrue(json, json.contains("\"inventory\":[{\"name\":\"Water\",\"type\":\"RESOURCE\",\"count\":40},"
+                + "{\"name\":\"Space Map\",\"type\":\"TOOL\"}]"));
+        Player reloaded = new PlayerRepository(TEST_PLAYERS).findByUsername("collector").get();
+        assertEquals(player.inventoryStacks(), reloaded.inventoryStacks());
+
+        // Inventories written before stacking hold one object per unit
+        try (FileWriter writer = new FileWriter(TEST_PLAYERS)) {
+            writer.write("[{\"id\":\"p1\",\"username\":\"veteran\",\"password\":\"hash\",\"health\":100,"
+                    + "\"inventorySize\":10,\"currentSector\":null,\"currentPlanet\":null,\"inventory\":["
+                    + "{\"name\":\"Water\",\"type\":\"RESOURCE\",\"description\":null},"
+                    + "{\"name\":\"Fuel\",\"type\":\"RESOURCE\",\"description\":\"Rocket fuel\"},"
+                    + "{\"name\":\"Water\",\"type\":\"RESOURCE\",\"description\":null}]}]");
+        }
+        Player veteran = new PlayerRepository(TEST_PLAYERS).findByUsername("veteran").get();
+        assertEquals(3, veteran.inventoryCount());
+        assertEquals(2, veteran.itemCount(new Item("Water", "RESOURCE")));
+        assertEquals("Rocket fuel", veteran.inventoryStacks().get(1).getItem().getDescription());
+    }
+
     @Test
     public void testItemFiltering() {
         itemRepository.clear(); // Очищаємо репозиторій перед тестом
@@ -167,6 +693,89 @@ public class RepositoryTest {
         assertTrue(resources.stream().allMatch(item -> item.getType().equals("RESOURCE")));
     }
 
+    @Test
+    public void testItemIndexes() {
+        itemRepository.clear();
+        List<Item> resources = itemRepository.findByType(ItemType.RESOURCE);
+        itemRepository.save(new Item("Water", "RESOURCE"));
+        itemRepository.save(new Item("Fuel", "RESOURCE"));
+        itemRepository.save(new Item("Space Map", "TOOL"));
+        assertEquals(2, resources.size());
+        assertSame(resources, itemRepository.findByType("resource"));
+        assertTrue(itemRepository.findByType("WEAPON").isEmpty());
+        try {
+            resources.add(new Item("Ice", "RESOURCE"));
+            fail("Type views must be read-only");
+        } catch (UnsupportedOperationException expected) {
+            // expected
+        }
+        try {
+            itemRepository.save(new Item("Water", "ARTIFACT"));
+            fail("Item names must be unique");
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+
+        Item fuel = itemRepository.findById("Fuel").get();
+        fuel.setType("ARTIFACT");
+        fuel.setName("Antimatter");
+        itemRepository.update("Fuel", fuel);
+        assertFalse(itemRepository.exists("Fuel"));
+        assertEquals(Arrays.asList(new Item("Water", "RESOURCE")), resources);
+        assertEquals(1, itemRepository.countByType(ItemType.ARTIFACT));
+        assertEquals(ItemType.ARTIFACT, itemRepository.getCatalog().find("Antimatter").get().itemType());
+        assertFalse(itemRepository.getCatalog().find("Fuel").isPresent());
+
+        itemRepository.delete("Water");
+        assertTrue(resources.isEmpty());
+        itemRepository.flush();
+        ItemRepository reloaded = new ItemRepository(TEST_ITEMS);
+        assertEquals(Arrays.asList("Antimatter", "Space Map"),
+                Arrays.asList(reloaded.findAll().get(0).getName(), reloaded.findAll().get(1).getName()));
+        assertEquals(1, reloaded.findByType(ItemType.TOOL).size());
+
+        itemRepository.clear();
+        assertEquals(0, itemRepository.countByType(ItemType.TOOL));
+        assertFalse(itemRepository.exists("Antimatter"));
+    }
+
+    @Test
+    public void testItemCatalogSharesInstances() {
+        ItemCatalog catalog = itemRepository.getCatalog();
+        Item water = catalog.intern(new Item("Water", "RESOURCE"));
+        assertSame(water, catalog.find("Water").orElse(null));
+        assertSame(water, catalog.intern(new Item("Water", "RESOURCE")));
+        assertSame(catalog.resource(ResourceType.IRON), catalog.resource(ResourceType.IRON));
+        assertEquals(ItemType.RESOURCE, catalog.resource(ResourceType.IRON).itemType());
+        try {
+            water.setDescription("Changed");
+            fail("Catalog items must be immutable");
+        } catch (UnsupportedOperationException expected) {
+            // expected
+        }
+
+        PlayerRepository repository = new PlayerRepository(TEST_PLAYERS, catalog);
+        for (int i = 0; i < 2; i++) {
+            Player player = new Player("collector" + i, "password123");
+            player.addItem(new Item("Water", "RESOURCE"));
+            player.addItem(new Item("Comet Dust", "resource"));
+            repository.save(player);
+        }
+        repository.flush();
+
+        PlayerRepository reloaded = new PlayerRepository(TEST_PLAYERS, catalog);
+        for (Player player : reloaded.findAll()) {
+            assertSame(water, player.inventoryView().get(0));
+            assertSame(catalog.find("Comet Dust").get(), player.inventoryView().get(1));
+            assertEquals("RESOURCE", player.inventoryView().get(1).getType());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownItemTypeRejected() {
+        new Item("Laser", "WEAPON");
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testInvalidGameMapValidation() {
         gameRepository.save(null);
@@ -0,0 +1,364 @@
+package test.java.com.spaceexplorer;
+
+import main.java.com.spaceexplorer.model.Item;
+import main.java.com.spaceexplorer.model.Player;
+import main.java.com.spaceexplorer.repository.ShardedPlayerRepository;
+import main.java.com.spaceexplorer.repository.WorkingSetPlayerRepository;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the sharded player store: lazy shard loading, username lookups
+ * across shards, persistence of changed shards only, recovery of the username
+ * directory, resharding, and the bounded working set of resident players.
+ */
+public class ShardedPlayerRepositoryTest {
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private String manifest;
+
+    @Before
+    public void setup() {
+        manifest = new File(tempFolder.getRoot(), "players.json").getAbsolutePath();
+    }
+
+    @Test
+    public void testShardsLoadLazily() {
+        ShardedPlayerRepository repository = new ShardedPlayerRepository(manifest, 8);
+        repository.saveAll(players(100));
+
+        ShardedPlayerRepository reopened = new ShardedPlayerRepository(manifest, 3);
+        assertEquals(8, reopened.getShardCount());
+        assertEquals(0, reopened.getLoadedShardCount());
+
+        Player pilot = reopened.findByUsername("pilot42").orElseThrow(AssertionError::new);
+        assertEquals(1, reopened.getLoadedShardCount());
+        assertSame(pilot, reopened.findById(pilot.getId()).orElse(null));
+        assertEquals(1, pilot.inventoryCount());
+        assertFalse(reopened.findByUsername("nobody").isPresent());
+
+        assertEquals(100, reopened.findAll().size());
+        assertEquals(8, reopened.getLoadedShardCount());
+    }
+
+    @Test
+    public void testUsernamesUniqueAcrossShards() {
+        ShardedPlayerRepository repository = new ShardedPlayerRepository(manifest, 4);
+        repository.saveAll(players(20));
+        try {
+            repository.save(new Player("pilot7", "password"));
+            fail("Username must be unique across shards");
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+
+        Player pilot = repository.findByUsername("pilot7").get();
+        pilot.setUsername("captain");
+        repository.update(pilot.getId(), pilot);
+        Player other = repository.findByUsername("pilot8").get();
+        other.setUsername("captain");
+        try {
+            repository.update(other.getId(), other);
+            fail("Rename onto a taken username must fail");
+        } catch (IllegalStateException expected) {
+            other.setUsername("pilot8");
+        }
+        repository.delete(repository.findByUsername("pilot9").get().getId());
+
+        ShardedPlayerRepository reopened = new ShardedPlayerRepository(manifest);
+        assertEquals(pilot.getId(), reopened.findByUsername("captain").get().getId());
+        assertFalse(reopened.findByUsername("pilot7").isPresent());
+        assertFalse(reopened.findByUsername("pilot9").isPresent());
+        assertEquals(19, reopened.findAll().size());
+        reopened.save(new Player("pilot7", "password"));
+    }
+
+    @Test
+    public void testOnlyChangedShardsAreWritten() {
+        ShardedPlayerRepository repository = new ShardedPlayerRepository(manifest, 8);
+        repository.saveAll(players(50));
+        Player pilot = repository.findByUsername("pilot3").get();
+
+        File pilotShard = null;
+        for (File file : tempFolder.getRoot().listFiles()) {
+            if (file.getName().matches("players\\.0\\.p\\d+\\.json")) {
+                if (file.getName().equals(shardFileOf(repository, pilot))) {
+                    pilotShard = file;
+                } else {
+                    assertTrue(file.delete());
+                }
+            }
+        }
+        assertNotNull(pilotShard);
+
+        pilot.setHealth(55);
+        repository.update(pilot.getId(), pilot);
+        assertEquals(1, shardFiles("players\\.0\\.p\\d+\\.json").size());
+        assertEquals(55, new ShardedPlayerRepository(manifest).findById(pilot.getId()).get().getHealth());
+    }
+
+    @Test
+    public void testReshardKeepsPlayersAndRemovesOldFiles() {
+        ShardedPlayerRepository repository = new ShardedPlayerRepository(manifest, 4);
+        repository.saveAll(players(60));
+        Player pilot = repository.findByUsername("pilot5").get();
+
+        repository.reshard(7);
+        assertEquals(7, repository.getShardCount());
+        assertSame(pilot, repository.findByUsername("pilot5").orElse(null));
+        assertTrue(shardFiles("players\\.0\\..*").isEmpty());
+        assertFalse(shardFiles("players\\.1\\.p\\d+\\.json").isEmpty());
+        repository.save(new Player("newcomer", "password"));
+
+        ShardedPlayerRepository reopened = new ShardedPlayerRepository(manifest);
+        assertEquals(7, reopened.getShardCount());
+        assertEquals(61, reopened.findAll().size());
+        for (int i = 0; i < 60; i++) {
+            assertTrue(reopened.findByUsername("pilot" + i).isPresent());
+        }
+        assertTrue(reopened.findByUsername("newcomer").isPresent());
+    }
+
+    @Test
+    public void testUsernameDirectoryRebuiltAfterUncleanShutdown() throws IOException {
+        ShardedPlayerRepository repository = new ShardedPlayerRepository(manifest, 4);
+        repository.saveAll(players(20));
+        repository.flush();
+        Map<Path, byte[]> directory = new HashMap<>();
+        for (String name : shardFiles("players\\.0\\.u\\d+\\.json")) {
+            Path file = tempFolder.getRoot().toPath().resolve(name);
+            directory.put(file, Files.readAllBytes(file));
+        }
+
+        // Stop after the player shard was written but before its directory entry
+        // was, leaving the manifest as the mutation found it
+        repository.save(new Player("newcomer", "password"));
+        for (Map.Entry<Path, byte[]> entry : directory.entrySet()) {
+            Files.write(entry.getKey(), entry.getValue());
+        }
+        Files.delete(directory.keySet().iterator().next());
+        setManifestClean(false);
+
+        ShardedPlayerRepository reopened = new ShardedPlayerRepository(manifest);
+        assertEquals(0, reopened.getLoadedShardCount());
+        assertTrue(reopened.findByUsername("newcomer").isPresent());
+        for (int i = 0; i < 20; i++) {
+            assertTrue(reopened.findByUsername("pilot" + i).isPresent());
+        }
+        try {
+            reopened.save(new Player("newcomer", "password"));
+            fail("A recovered username must stay unique");
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testManifestMarkedCleanAfterWrites() throws IOException {
+        ShardedPlayerRepository repository = new ShardedPlayerRepository(manifest, 4);
+        repository.saveAll(players(50));
+        assertTrue(isManifestClean());
+        Player pilot = repository.findByUsername("pilot3").get();
+        pilot.setUsername("captain");
+        repository.update(pilot.getId(), pilot);
+        assertTrue(isManifestClean());
+
+        repository.enableWriteBehind(60_000);
+        repository.delete(pilot.getId());
+        assertFalse(isManifestClean());
+        repository.close();
+        assertTrue(isManifestClean());
+
+        // A clean manifest is trusted: the directory is not rebuilt from the players
+        ShardedPlayerRepository reopened = new ShardedPlayerRepository(manifest);
+        assertFalse(reopened.findByUsername("captain").isPresent());
+        assertEquals(49, reopened.findAll().size());
+    }
+
+    @Test
+    public void testWorkingSetFaultsInColdPlayers() {
+        WorkingSetPlayerRepository repository = new WorkingSetPlayerRepository(manifest, 4, 10);
+        repository.saveAll(players(100));
+        assertEquals(10, repository.getResidentPlayerCount());
+
+        WorkingSetPlayerRepository reopened = new WorkingSetPlayerRepository(manifest, 4, 10);
+        assertEquals(0, reopened.getResidentPlayerCount());
+        for (int i = 0; i < 100; i++) {
+            Player pilot = reopened.findByUsername("pilot" + i).orElseThrow(AssertionError::new);
+            assertEquals(1, pilot.inventoryCount());
+            assertTrue(reopened.getResidentPlayerCount() <= 10);
+        }
+        Player pilot = reopened.findByUsername("pilot3").get();
+        assertSame(pilot, reopened.findById(pilot.getId()).orElse(null));
+        assertFalse(reopened.findByUsername("nobody").isPresent());
+        assertEquals(100, reopened.findAll().size());
+        assertTrue(reopened.getResidentPlayerCount() <= 10);
+
+        try {
+            reopened.save(new Player("pilot50", "password"));
+            fail("Username of a cold player must stay taken");
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+        Player duplicate = new Player("someone", "password");
+        duplicate.setId(reopened.findByUsername("pilot60").get().getId());
+        for (int i = 0; i < 20; i++) {
+            reopened.findByUsername("pilot" + i);
+        }
+        try {
+            reopened.saveAll(Arrays.asList(duplicate));
+            fail("ID of a cold player must stay taken");
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testWorkingSetBoundedWhenOperationsFail() {
+        WorkingSetPlayerRepository repository = new WorkingSetPlayerRepository(manifest, 4, 5);
+        List<Player> pilots = players(50);
+        repository.saveAll(pilots);
+
+        WorkingSetPlayerRepository reopened = new WorkingSetPlayerRepository(manifest, 4, 5);
+        for (int i = 0; i < pilots.size(); i++) {
+            // Each save loads the stored player with the same ID before failing
+            Player duplicate = new Player("duplicate" + i, "password");
+            duplicate.setId(pilots.get(i).getId());
+            try {
+                reopened.save(duplicate);
+                fail("Player IDs must be unique");
+            } catch (IllegalStateException expected) {
+                // expected
+            }
+            assertTrue(reopened.getResidentPlayerCount() <= 5);
+        }
+        for (int i = 0; i < pilots.size(); i++) {
+            Player renamed = new Player("pilot" + ((i + 1) % pilots.size()), "password");
+            try {
+                reopened.update(pilots.get(i).getId(), renamed);
+                fail("Rename onto a taken username must fail");
+            } catch (IllegalStateException expected) {
+                // expected
+            }
+            assertTrue(reopened.getResidentPlayerCount() <= 5);
+        }
+        assertEquals(50, reopened.findAll().size());
+    }
+
+    @Test
+    public void testWorkingSetKeepsChangesOfUnloadedPlayers() {
+        WorkingSetPlayerRepository repository = new WorkingSetPlayerRepository(manifest, 2, 3);
+        repository.saveAll(players(30));
+        repository.enableWriteBehind(60_000);
+
+        Player pilot = repository.findByUsername("pilot1").get();
+        pilot.setHealth(42);
+        pilot.setUsername("captain");
+        repository.update(pilot.getId(), pilot);
+        String deletedId = repository.findByUsername("pilot2").get().getId();
+        repository.delete(deletedId);
+        Player restored = new Player("pilot2", "password");
+        restored.setId(deletedId);
+        repository.save(restored);
+        repository.delete(repository.findByUsername("pilot4").get().getId());
+        for (int i = 10; i < 30; i++) {
+            repository.findByUsername("pilot" + i);
+        }
+        assertTrue(repository.getResidentPlayerCount() <= 3);
+
+        assertEquals(42, repository.findByUsername("captain").get().getHealth());
+        assertFalse(repository.findByUsername("pilot1").isPresent());
+        assertEquals(deletedId, repository.findByUsername("pilot2").get().getId());
+        repository.flush();
+
+        WorkingSetPlayerRepository reopened = new WorkingSetPlayerRepository(manifest, 2, 3);
+        assertEquals(42, reopened.findByUsername("captain").get().getHealth());
+        assertFalse(reopened.findByUsername("pilot1").isPresent());
+        assertEquals(deletedId, reopened.findByUsername("pilot2").get().getId());
+        assertFalse(reopened.findByUsername("pilot4").isPresent());
+        assertEquals(29, reopened.findAll().size());
+
+        reopened.reshard(5);
+        assertEquals(0, reopened.getResidentPlayerCount());
+        assertEquals(29, new WorkingSetPlayerRepository(manifest).findAll().size());
+    }
+
+    @Test
+    public void testWorkingSetReadsColdPlayersAfterShardWrites() {
+        for (String extension : Arrays.asList("json", "sxb")) {
+            String path = new File(tempFolder.getRoot(), "cold." + extension).getAbsolutePath();
+            WorkingSetPlayerRepository repository = new WorkingSetPlayerRepository(path, 2, 3);
+            repository.saveAll(players(40));
+            for (int i = 0; i < 40; i += 4) {
+                // Each update rewrites a shard, moving the records of the cold players
+                Player pilot = repository.findByUsername("pilot" + i).get();
+                pilot.setHealth(i);
+                repository.update(pilot.getId(), pilot);
+            }
+            for (int i = 0; i < 40; i++) {
+                Player pilot = repository.findByUsername("pilot" + i).orElseThrow(AssertionError::new);
+                assertEquals(extension, "pilot" + i, pilot.getUsername());
+                assertEquals(1, pilot.inventoryCount());
+                if (i % 4 == 0) {
+                    assertEquals(i, pilot.getHealth());
+                }
+            }
+            assertTrue(repository.getResidentPlayerCount() <= 3);
+            assertEquals(40, new WorkingSetPlayerRepository(path, 2, 3).findAll().size());
+        }
+    }
+
+    private boolean isManifestClean() throws IOException {
+        return new String(Files.readAllBytes(Paths.get(manifest)), StandardCharsets.UTF_8).contains("\"clean\":true");
+    }
+
+    private void setManifestClean(boolean clean) throws IOException {
+        String content = new String(Files.readAllBytes(Paths.get(manifest)), StandardCharsets.UTF_8);
+        Files.write(Paths.get(manifest), content.replace("\"clean\":" + !clean, "\"clean\":" + clean)
+                .getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String shardFileOf(ShardedPlayerRepository repository, Player player) {
+        int shard = Math.floorMod(player.getId().hashCode(), repository.getShardCount());
+        return "players.0.p" + shard + ".json";
+    }
+
+    private Set<String> shardFiles(String pattern) {
+        Set<String> names = new TreeSet<>();
+        for (String name : tempFolder.getRoot().list()) {
+            if (name.matches(pattern)) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    private List<Player> players(int count) {
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Player player = new Player("pilot" + i, "password");
+            player.setInventory(Arrays.asList(new Item("Water", "RESOURCE")));
+            players.add(player);
+        }
+        return players;
+    }
+}
@@ -0,0 +1,134 @@
+package test.java.com.spaceexplorer.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.function.LongSupplier;
+
+/**
+ * Minimal micro-benchmark harness used by the benchmarks in this package.
+ * Runs an operation through warmup and measurement rounds and reports
+ * throughput and heap bytes allocated per operation, measured with the
+ * HotSpot per-thread allocation counter.
+ *
+ * Benchmarks are plain main classes so they can be run without extra
+ * dependencies, e.g. {@code java -cp <classpath> test.java.com.spaceexplorer.benchmark.ModelAccessBenchmark}.
+ */
+public final class BenchmarkSupport {
+    /** Sink for operation results so the JIT cannot eliminate the measured work */
+    private static volatile long sink;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private BenchmarkSupport() {}
+
+    /**
+     * Measures an operation and prints one result line.
+     *
+     * @param name Label for the result line
+     * @param operations Number of operations per round
+     * @param operation The operation; its result is consumed to keep it alive
+     * @return The measured result
+     */
+    public static Result run(String name, int operations, LongSupplier operation) {
+        for (int round = 0; round < 5; round++) {
+            runRound(operations, operation);
+        }
+        long threadId = Thread.currentThread().getId();
+        long bytesBefore = THREADS.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        int rounds = 10;
+        for (int round = 0; round < rounds; round++) {
+            runRound(operations, operation);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = THREADS.getThreadAllocatedBytes(threadId) - bytesBefore;
+
+        long total = (long) operations * rounds;
+        Result result = new Result(name, total * 1_000_000_000.0 / elapsed, (double) allocated / total);
+        System.out.println(result);
+        return result;
+    }
+
+    private static void runRound(int operations, LongSupplier operation) {
+        long accumulator = 0;
+        for (int i = 0; i < operations; i++) {
+            accumulator += operation.getAsLong();
+        }
+        sink += accumulator;
+    }
+
+    /**
+     * Measures wall-clock time of a single, long-running task such as a file load.
+     *
+     * @param name Label for the result line
+     * @param task The task to time
+     * @return Elapsed time in milliseconds
+     */
+    public static long time(String name, Runnable task) {
+        long start = System.nanoTime();
+        task.run();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        System.out.printf("%-45s %10d ms%n", name, millis);
+        return millis;
+    }
+
+    /**
+     * Runs a task once and reports its wall-clock time and the peak heap usage
+     * reached while it ran, summed over all heap memory pools. A full GC is
+     * requested before the task so earlier garbage does not count; run one task
+     * per JVM for the most reliable figures.
+     *
+     * @param name Label for the result line
+     * @param task The task to measure
+     * @return Peak heap usage in bytes
+     */
+    public static long peakHeap(String name, Runnable task) {
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+        long start = System.nanoTime();
+        task.run();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        System.out.printf("%-45s %10d ms %10d MB peak heap%n", name, millis, peak / (1024 * 1024));
+        return peak;
+    }
+
+    /**
+     * Throughput and allocation figures of one benchmark.
+     */
+    public static final class Result {
+        private final String name;
+        private final double opsPerSecond;
+        private final double bytesPerOp;
+
+        Result(String name, double opsPerSecond, double bytesPerOp) {
+            this.name = name;
+            this.opsPerSecond = opsPerSecond;
+            this.bytesPerOp = bytesPerOp;
+        }
+
+        public double getOpsPerSecond() {
+            return opsPerSecond;
+        }
+
+        public double getBytesPerOp() {
+            return bytesPerOp;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-45s %14.0f ops/s %10.1f B/op", name, opsPerSecond, bytesPerOp);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package test.java.com.spaceexplorer.benchmark;
+
+import main.java.com.spaceexplorer.model.Item;
+import main.java.com.spaceexplorer.model.Player;
+import main.java.com.spaceexplorer.repository.ItemRepository;
+import main.java.com.spaceexplorer.repository.PlayerRepository;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Measures the heap retained by a loaded player repository whose players all
+ * carry the same few items, with every inventory item bound as its own object
+ * versus interned through the item catalog.
+ *
+ * Usage: {@code ItemCatalogBenchmark [playerCount] [itemsPerPlayer]}.
+ */
+public class ItemCatalogBenchmark {
+    private static final String[] RESOURCES = {"WATER", "IRON", "GOLD", "PLATINUM", "OXYGEN"};
+
+    /** Holds the measured object until its heap has been sampled */
+    private static volatile Object keepAlive;
+
+    public static void main(String[] args) throws IOException {
+        int playerCount = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int itemsPerPlayer = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        File players = File.createTempFile("catalog-benchmark", ".json");
+        File items = File.createTempFile("catalog-benchmark-items", ".json");
+        Files.delete(players.toPath());
+        Files.delete(items.toPath());
+        BenchmarkSupport.time("Generate " + playerCount + " players",
+                () -> new PlayerRepository(players.getAbsolutePath()).saveAll(players(playerCount, itemsPerPlayer)));
+        ItemRepository itemRepository = new ItemRepository(items.getAbsolutePath());
+
+        retainedHeap("Load, item per inventory slot",
+                () -> new PlayerRepository(players.getAbsolutePath()));
+        retainedHeap("Load, items interned through catalog",
+                () -> new PlayerRepository(players.getAbsolutePath(), itemRepository.getCatalog()));
+
+        Files.deleteIfExists(players.toPath());
+        Files.deleteIfExists(items.toPath());
+    }
+
+    /**
+     * Prints the heap still in use after the supplied object is created and
+     * all garbage is collected, while the object is kept reachable.
+     */
+    private static void retainedHeap(String name, Supplier<Object> load) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long before = memory.getHeapMemoryUsage().getUsed();
+        Object retained = load.get();
+        System.gc();
+        long after = memory.getHeapMemoryUsage().getUsed();
+        System.out.printf("%-45s %10d MB retained%n", name, (after - before) / (1024 * 1024));
+        keepAlive = retained;
+        keepAlive = null;
+    }
+
+    private static List<Player> players(int count, int itemsPerPlayer) {
+        List<Player> players = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Player player = new Player("player" + i, "$pbkdf2-sha256$10000$c2FsdHNhbHRzYWx0c2FsdA==$aGFzaGhhc2hoYXNoaGFzaGhhc2hoYXNoaGFzaGhhc2g=");
+            player.setId(UUID.randomUUID().toString());
+            player.setInventorySize(itemsPerPlayer);
+            for (int j = 0; j < itemsPerPlayer; j++) {
+                Item item = new Item(RESOURCES[(i + j) % RESOURCES.length], "RESOURCE");
+                item.setDescription("Collected resource");
+                player.addItem(item);
+            }
+            players.add(player);
+        }
+        return players;
+    }
+}
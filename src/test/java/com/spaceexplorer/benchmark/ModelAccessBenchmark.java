@@ -0,0 +1,95 @@
+package test.java.com.spaceexplorer.benchmark;
+
+import main.java.com.spaceexplorer.model.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares the copy-returning model getters with the read-only views,
+ * counts and visitors, in throughput and bytes allocated per call.
+ */
+public class ModelAccessBenchmark {
+    private static final int OPERATIONS = 200_000;
+
+    public static void main(String[] args) {
+        GameMap gameMap = new GameMap();
+        List<Sector> sectors = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Sector sector = new Sector();
+            sector.setId("sector_" + i);
+            sectors.add(sector);
+        }
+        gameMap.setSectors(sectors);
+
+        SpaceObject planet = new SpaceObject();
+        planet.setName("Earth");
+        planet.setType(ObjectType.PLANET);
+        planet.setResources(Arrays.asList(ResourceType.WATER, ResourceType.MINERALS, ResourceType.OXYGEN));
+        planet.setFacts(Arrays.asList("Fact one", "Fact two", "Fact three"));
+
+        Player player = new Player("benchmark", "password");
+        for (int i = 0; i < 10; i++) {
+            player.addItem(new Item("Item " + i, "RESOURCE"));
+        }
+
+        BenchmarkSupport.run("GameMap.getSectors().size()", OPERATIONS, () -> gameMap.getSectors().size());
+        BenchmarkSupport.run("GameMap.sectorCount()", OPERATIONS, gameMap::sectorCount);
+
+        BenchmarkSupport.run("Player.getInventory().size()", OPERATIONS, () -> player.getInventory().size());
+        BenchmarkSupport.run("Player.inventoryCount()", OPERATIONS, player::inventoryCount);
+
+        BenchmarkSupport.run("Player.getInventory() iteration", OPERATIONS, () -> {
+            long total = 0;
+            for (Item item : player.getInventory()) {
+                total += item.getName().length();
+            }
+            return total;
+        });
+        BenchmarkSupport.run("Player.inventoryItemAt() iteration", OPERATIONS, () -> {
+            long total = 0;
+            for (int i = 0; i < player.inventoryCount(); i++) {
+                total += player.inventoryItemAt(i).getName().length();
+            }
+            return total;
+        });
+
+        Player collector = new Player("collector", "password");
+        collector.setInventorySize(200);
+        Item water = new Item("Water", "RESOURCE");
+        for (int i = 0; i < 100; i++) {
+            collector.addItem(new Item("Resource " + i, "RESOURCE"), 99);
+        }
+        collector.addItem(water, 5_000);
+        BenchmarkSupport.run("Heavy collector addItem()+removeItem()", OPERATIONS, () -> {
+            collector.addItem(water);
+            collector.removeItem(water);
+            return collector.inventoryCount();
+        });
+        BenchmarkSupport.run("Heavy collector itemCount()", OPERATIONS, () -> collector.itemCount(water));
+
+        BenchmarkSupport.run("SpaceObject.getResources() iteration", OPERATIONS, () -> {
+            long total = 0;
+            for (ResourceType resource : planet.getResources()) {
+                total += resource.ordinal();
+            }
+            return total;
+        });
+        BenchmarkSupport.run("SpaceObject.resourcesView() iteration", OPERATIONS, () -> {
+            long total = 0;
+            for (ResourceType resource : planet.resourcesView()) {
+                total += resource.ordinal();
+            }
+            return total;
+        });
+
+        BenchmarkSupport.run("SpaceObject.getResources().contains()", OPERATIONS,
+                () -> planet.getResources().contains(ResourceType.OXYGEN) ? 1 : 0);
+        BenchmarkSupport.run("SpaceObject.hasResource()", OPERATIONS,
+                () -> planet.hasResource(ResourceType.OXYGEN) ? 1 : 0);
+
+        BenchmarkSupport.run("SpaceObject.getFacts().size()", OPERATIONS, () -> planet.getFacts().size());
+        BenchmarkSupport.run("SpaceObject.factCount()", OPERATIONS, planet::factCount);
+    }
+}
@@ -0,0 +1,44 @@
+package test.java.com.spaceexplorer.benchmark;
+
+import main.java.com.spaceexplorer.service.auth.HashPolicy;
+import main.java.com.spaceexplorer.service.auth.PasswordHasher;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.util.Base64;
+
+/**
+ * Compares password verification as implemented in version 1.0 (a fresh
+ * SecretKeyFactory per call, Base64 re-encoding and String.equals) with the
+ * current constant-time verification, in throughput and bytes allocated per call.
+ * Both sides use the version 1.0 parameters so the key derivation work is equal.
+ */
+public class PasswordVerifyBenchmark {
+    private static final int OPERATIONS = 50;
+
+    public static void main(String[] args) throws Exception {
+        String legacyHash = legacyHash("benchmark123");
+        BenchmarkSupport.run("1.0 verifyPassword (legacy hash)", OPERATIONS,
+                () -> legacyHash("benchmark123").equals(legacyHash) ? 1 : 0);
+        BenchmarkSupport.run("verifyPassword (legacy hash)", OPERATIONS,
+                () -> PasswordHasher.verifyPassword("benchmark123", legacyHash) ? 1 : 0);
+
+        PasswordHasher.setPolicy(new HashPolicy(HashPolicy.Algorithm.PBKDF2_SHA1, 10000, 16, 256));
+        String saltedHash = PasswordHasher.hashPassword("benchmark123");
+        BenchmarkSupport.run("verifyPassword (salted hash)", OPERATIONS,
+                () -> PasswordHasher.verifyPassword("benchmark123", saltedHash) ? 1 : 0);
+    }
+
+    /**
+     * The hashing code of version 1.0.
+     */
+    private static String legacyHash(String password) {
+        try {
+            PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), "SpaceExplorerSalt123".getBytes(), 10000, 256);
+            SecretKeyFactory factory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA1");
+            return Base64.getEncoder().encodeToString(factory.generateSecret(spec).getEncoded());
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package test.java.com.spaceexplorer.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import main.java.com.spaceexplorer.model.Item;
+import main.java.com.spaceexplorer.model.Player;
+import main.java.com.spaceexplorer.repository.PlayerRepository;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Measures startup of a player repository over a large players file:
+ * binding the whole {@code List<Player>} before indexing (the 1.0 approach)
+ * versus streaming the array into the indexes one player at a time.
+ *
+ * Usage: {@code PlayerLoadBenchmark [bind|stream] [playerCount]}. Without a mode
+ * both are run in one JVM; pass a mode to measure each in a fresh JVM, which
+ * gives more reliable peak heap figures.
+ */
+public class PlayerLoadBenchmark {
+    public static void main(String[] args) throws IOException {
+        String mode = args.length > 0 ? args[0] : "both";
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+
+        File file = File.createTempFile("players-benchmark", ".json");
+        file.deleteOnExit();
+        BenchmarkSupport.time("Generate " + count + " players", () -> generate(file, count));
+        System.out.printf("File size: %d MB%n", file.length() / (1024 * 1024));
+
+        if (!mode.equals("stream")) {
+            BenchmarkSupport.peakHeap("Whole-document bind, then index", () -> {
+                PlayerRepository repository = new WholeDocumentPlayerRepository(file.getAbsolutePath());
+                if (repository.findAll().size() != count) {
+                    throw new IllegalStateException("Unexpected player count");
+                }
+            });
+        }
+        if (!mode.equals("bind")) {
+            BenchmarkSupport.peakHeap("Streaming PlayerRepository load", () -> {
+                PlayerRepository repository = new PlayerRepository(file.getAbsolutePath());
+                if (repository.findAll().size() != count) {
+                    throw new IllegalStateException("Unexpected player count");
+                }
+            });
+        }
+        Files.deleteIfExists(file.toPath());
+    }
+
+    /**
+     * Player repository loading the way version 1.0 did: bind the whole list, then index it.
+     */
+    private static final class WholeDocumentPlayerRepository extends PlayerRepository {
+        WholeDocumentPlayerRepository(String filePath) {
+            super(filePath, true);
+        }
+
+        @Override
+        protected void loadAll(Consumer<Player> sink) {
+            List<Player> players = readFromFile(new TypeReference<List<Player>>() {});
+            if (players != null) {
+                players.forEach(sink);
+            }
+        }
+    }
+
+    private static void generate(File file, int count) {
+        ObjectMapper mapper = new ObjectMapper().disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(file, com.fasterxml.jackson.core.JsonEncoding.UTF8)) {
+            generator.writeStartArray();
+            for (int i = 0; i < count; i++) {
+                Player player = new Player("player" + i, "$pbkdf2-sha256$10000$c2FsdHNhbHRzYWx0c2FsdA==$aGFzaGhhc2hoYXNoaGFzaGhhc2hoYXNoaGFzaGhhc2g=");
+                player.setId(UUID.randomUUID().toString());
+                player.addItem(new Item("Water", "RESOURCE"));
+                mapper.writeValue(generator, player);
+            }
+            generator.writeEndArray();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
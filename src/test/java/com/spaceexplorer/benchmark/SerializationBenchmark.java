@@ -0,0 +1,83 @@
+package test.java.com.spaceexplorer.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import main.java.com.spaceexplorer.model.Item;
+import main.java.com.spaceexplorer.model.Player;
+import main.java.com.spaceexplorer.repository.JsonMappers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.UUID;
+
+/**
+ * Compares JSON (de)serialization of a player as done in version 1.0 (an
+ * ObjectMapper per repository, {@code readValue}/{@code writeValueAsBytes}
+ * with the type passed on every call) with the shared mapper and the cached
+ * per-type reader and writer of {@link JsonMappers}.
+ *
+ * Run with the {@code startup} argument in a fresh JVM to compare the cost of
+ * the first read, which includes building the mapper and its deserializers.
+ */
+public class SerializationBenchmark {
+    private static final int OPERATIONS = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        byte[] json = JsonMappers.writerFor(Player.class).writeValueAsBytes(samplePlayer());
+
+        if (args.length > 0 && args[0].equals("startup")) {
+            BenchmarkSupport.time("First read, new ObjectMapper", () -> read(new ObjectMapper(), json));
+            BenchmarkSupport.time("First read, second new ObjectMapper", () -> read(new ObjectMapper(), json));
+            BenchmarkSupport.time("First read, cached reader", () -> read(JsonMappers.readerFor(Player.class), json));
+            return;
+        }
+
+        ObjectMapper mapper = new ObjectMapper();
+        Player player = samplePlayer();
+        BenchmarkSupport.run("1.0 mapper.readValue(bytes, Player.class)", OPERATIONS,
+                () -> read(mapper, json).getInventory().size());
+        ObjectReader reader = JsonMappers.readerFor(Player.class);
+        BenchmarkSupport.run("Cached reader.readValue(bytes)", OPERATIONS,
+                () -> read(reader, json).getInventory().size());
+
+        BenchmarkSupport.run("1.0 mapper.writeValueAsBytes(player)", OPERATIONS,
+                () -> write(mapper.writer(), player).length);
+        ObjectWriter writer = JsonMappers.writerFor(Player.class);
+        BenchmarkSupport.run("Cached writer.writeValueAsBytes(player)", OPERATIONS,
+                () -> write(writer, player).length);
+    }
+
+    private static Player samplePlayer() {
+        Player player = new Player("benchmark", "$pbkdf2-sha256$10000$c2FsdHNhbHRzYWx0c2FsdA==$aGFzaGhhc2hoYXNoaGFzaGhhc2hoYXNoaGFzaGhhc2g=");
+        player.setId(UUID.randomUUID().toString());
+        for (int i = 0; i < 8; i++) {
+            player.addItem(new Item("Item " + i, "RESOURCE"));
+        }
+        return player;
+    }
+
+    private static Player read(ObjectMapper mapper, byte[] json) {
+        try {
+            return mapper.readValue(json, Player.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Player read(ObjectReader reader, byte[] json) {
+        try {
+            return reader.readValue(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] write(ObjectWriter writer, Player player) {
+        try {
+            return writer.writeValueAsBytes(player);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package test.java.com.spaceexplorer.benchmark;
+
+import main.java.com.spaceexplorer.model.Item;
+import main.java.com.spaceexplorer.model.Player;
+import main.java.com.spaceexplorer.repository.Durability;
+import main.java.com.spaceexplorer.repository.PlayerRepository;
+import main.java.com.spaceexplorer.repository.ShardedPlayerRepository;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compares a single-file player store with a sharded one holding the same
+ * players: time to open the store and look up one player, and time per update
+ * with write-through persistence.
+ *
+ * Usage: {@code ShardedStoreBenchmark [playerCount] [shardCount]}.
+ */
+public class ShardedStoreBenchmark {
+    private static final int UPDATES = 20;
+
+    public static void main(String[] args) throws IOException {
+        int playerCount = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int shardCount = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        File directory = Files.createTempDirectory("sharded-benchmark").toFile();
+        String single = new File(directory, "players.json").getAbsolutePath();
+        String sharded = new File(directory, "sharded.json").getAbsolutePath();
+
+        List<Player> players = players(playerCount);
+        BenchmarkSupport.time("Generate " + playerCount + " players, single file",
+                () -> new PlayerRepository(single).saveAll(players));
+        BenchmarkSupport.time("Generate " + playerCount + " players, " + shardCount + " shards",
+                () -> new ShardedPlayerRepository(sharded, shardCount).saveAll(players));
+
+        for (int round = 0; round < 2; round++) {
+            BenchmarkSupport.time("Open single file and find one player",
+                    () -> new PlayerRepository(single).findByUsername("player7").get());
+            BenchmarkSupport.time("Open sharded store and find one player",
+                    () -> new ShardedPlayerRepository(sharded).findByUsername("player7").get());
+        }
+
+        measureUpdates("single file", new PlayerRepository(single));
+        measureUpdates(shardCount + " shards", new ShardedPlayerRepository(sharded));
+
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    private static void measureUpdates(String label, PlayerRepository repository) {
+        repository.setDurability(Durability.NONE);
+        Player player = repository.findByUsername("player7").get();
+        repository.update(player.getId(), player);
+        long millis = BenchmarkSupport.time(UPDATES + " updates, " + label, () -> {
+            for (int i = 0; i < UPDATES; i++) {
+                player.setHealth(i % 100);
+                repository.update(player.getId(), player);
+            }
+        });
+        System.out.printf("%-45s %10.1f ms per update%n", label, (double) millis / UPDATES);
+    }
+
+    private static List<Player> players(int count) {
+        List<Player> players = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Player player = new Player("player" + i, "$pbkdf2-sha256$10000$c2FsdHNhbHRzYWx0c2FsdA==$aGFzaGhhc2hoYXNoaGFzaGhhc2hoYXNoaGFzaGhhc2g=");
+            player.setId(UUID.randomUUID().toString());
+            player.addItem(new Item("Water", "RESOURCE"), 12);
+            players.add(player);
+        }
+        return players;
+    }
+}
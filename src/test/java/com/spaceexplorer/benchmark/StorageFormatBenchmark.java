@@ -0,0 +1,133 @@
+package test.java.com.spaceexplorer.benchmark;
+
+import main.java.com.spaceexplorer.model.GameMap;
+import main.java.com.spaceexplorer.model.Item;
+import main.java.com.spaceexplorer.model.ObjectType;
+import main.java.com.spaceexplorer.model.Player;
+import main.java.com.spaceexplorer.model.ResourceType;
+import main.java.com.spaceexplorer.model.Sector;
+import main.java.com.spaceexplorer.model.SpaceObject;
+import main.java.com.spaceexplorer.repository.GameRepository;
+import main.java.com.spaceexplorer.repository.PlayerRepository;
+import main.java.com.spaceexplorer.repository.StorageConverter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Compares the JSON and binary storage formats over the same data: file size,
+ * and the time to load a player store and a game map through the repositories.
+ * The binary files are produced from the JSON files with {@link StorageConverter}.
+ *
+ * Usage: {@code StorageFormatBenchmark [playerCount] [sectorCount]}.
+ */
+public class StorageFormatBenchmark {
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws IOException {
+        int playerCount = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int sectorCount = args.length > 1 ? Integer.parseInt(args[1]) : 5_000;
+        Path directory = Files.createTempDirectory("storage-benchmark");
+
+        Path playersJson = directory.resolve("players.json");
+        Path playersBinary = directory.resolve("players.sxb");
+        BenchmarkSupport.time("Generate " + playerCount + " players",
+                () -> new PlayerRepository(playersJson.toString()).saveAll(players(playerCount)));
+        StorageConverter.convert(playersJson, playersBinary);
+
+        Path mapJson = directory.resolve("game_map.json");
+        Path mapBinary = directory.resolve("game_map.sxb");
+        BenchmarkSupport.time("Generate " + sectorCount + " sectors",
+                () -> new GameRepository(mapJson.toString()).save(gameMap(sectorCount)));
+        StorageConverter.convert(mapJson, mapBinary);
+
+        printSizes("Players", playersJson, playersBinary);
+        printSizes("Game map", mapJson, mapBinary);
+
+        compare("Load players", () -> new PlayerRepository(playersJson.toString()).findAll().size(),
+                () -> new PlayerRepository(playersBinary.toString()).findAll().size());
+        compare("Load game map", () -> new GameRepository(mapJson.toString()).findById("").get().sectorCount(),
+                () -> new GameRepository(mapBinary.toString()).findById("").get().sectorCount());
+
+        for (File file : directory.toFile().listFiles()) {
+            file.delete();
+        }
+        Files.delete(directory);
+    }
+
+    private static void printSizes(String label, Path json, Path binary) throws IOException {
+        long jsonSize = Files.size(json);
+        long binarySize = Files.size(binary);
+        System.out.printf("%-12s json %,d bytes, binary %,d bytes (%.0f%%)%n",
+                label, jsonSize, binarySize, 100.0 * binarySize / jsonSize);
+    }
+
+    /**
+     * Loads with each format in turn, discarding the first rounds as warmup,
+     * and prints the best time of each.
+     */
+    private static void compare(String label, Supplier<Integer> json, Supplier<Integer> binary) {
+        long bestJson = Long.MAX_VALUE;
+        long bestBinary = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS + 2; round++) {
+            long jsonTime = timed(json);
+            long binaryTime = timed(binary);
+            if (round >= 2) {
+                bestJson = Math.min(bestJson, jsonTime);
+                bestBinary = Math.min(bestBinary, binaryTime);
+            }
+        }
+        System.out.printf("%-45s json %6d ms, binary %6d ms%n", label + " (best of " + ROUNDS + ")",
+                bestJson, bestBinary);
+    }
+
+    private static long timed(Supplier<Integer> load) {
+        long start = System.nanoTime();
+        if (load.get() <= 0) {
+            throw new IllegalStateException("Nothing loaded");
+        }
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private static List<Player> players(int count) {
+        List<Player> players = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Player player = new Player("player" + i, "$pbkdf2-sha256$10000$c2FsdHNhbHRzYWx0c2FsdA==$aGFzaGhhc2hoYXNoaGFzaGhhc2hoYXNoaGFzaGhhc2g=");
+            player.setId(UUID.randomUUID().toString());
+            player.addItem(new Item("Water", "RESOURCE"));
+            player.addItem(new Item("Iron Ore", "RESOURCE"));
+            players.add(player);
+        }
+        return players;
+    }
+
+    private static GameMap gameMap(int sectorCount) {
+        ResourceType[] resources = ResourceType.values();
+        ObjectType[] types = ObjectType.values();
+        GameMap map = new GameMap();
+        for (int s = 0; s < sectorCount; s++) {
+            Sector sector = new Sector();
+            sector.setId("sector-" + s);
+            sector.setName("Sector " + s);
+            List<SpaceObject> objects = new ArrayList<>();
+            for (int o = 0; o < 20; o++) {
+                SpaceObject object = new SpaceObject();
+                object.setName("Object " + s + "-" + o);
+                object.setType(types[(s + o) % types.length]);
+                object.setResources(Arrays.asList(resources[o % resources.length],
+                        resources[(s + o + 1) % resources.length]));
+                objects.add(object);
+            }
+            sector.setObjects(objects);
+            map.addSector(sector);
+        }
+        return map;
+    }
+}
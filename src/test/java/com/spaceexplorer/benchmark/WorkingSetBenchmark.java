@@ -0,0 +1,92 @@
+package test.java.com.spaceexplorer.benchmark;
+
+import main.java.com.spaceexplorer.model.Item;
+import main.java.com.spaceexplorer.model.Player;
+import main.java.com.spaceexplorer.repository.PlayerRepository;
+import main.java.com.spaceexplorer.repository.ShardedPlayerRepository;
+import main.java.com.spaceexplorer.repository.WorkingSetPlayerRepository;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Measures the heap retained by a sharded player store after a number of
+ * players, spread over all shards, have logged in: with whole shards kept in
+ * memory versus a bounded working set of resident players. Also prints the
+ * time taken by the logins, most of which read a cold player from disk in the
+ * working set case.
+ *
+ * Usage: {@code WorkingSetBenchmark [playerCount] [shardCount] [logins] [maxResidentPlayers]}.
+ */
+public class WorkingSetBenchmark {
+    /** Holds the measured repository until its heap has been sampled */
+    private static volatile Object keepAlive;
+
+    public static void main(String[] args) throws IOException {
+        int playerCount = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int shardCount = args.length > 1 ? Integer.parseInt(args[1]) : 1024;
+        int logins = args.length > 2 ? Integer.parseInt(args[2]) : 20_000;
+        int maxResident = args.length > 3 ? Integer.parseInt(args[3]) : 5_000;
+        File directory = Files.createTempDirectory("working-set-benchmark").toFile();
+        String manifest = new File(directory, "players.json").getAbsolutePath();
+
+        BenchmarkSupport.time("Generate " + playerCount + " players, " + shardCount + " shards", () -> {
+            ShardedPlayerRepository generated = new ShardedPlayerRepository(manifest, shardCount);
+            generated.saveAll(players(playerCount));
+            generated.flush();
+        });
+
+        retainedHeap(logins + " logins, whole shards in memory", playerCount, logins,
+                () -> new ShardedPlayerRepository(manifest));
+        retainedHeap(logins + " logins, " + maxResident + " resident players", playerCount, logins,
+                () -> new WorkingSetPlayerRepository(manifest, shardCount, maxResident));
+
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    /**
+     * Opens the store, logs in random players, and prints the heap still in
+     * use afterwards while the repository is kept reachable.
+     */
+    private static void retainedHeap(String name, int playerCount, int logins,
+                                     Supplier<PlayerRepository> open) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long before = memory.getHeapMemoryUsage().getUsed();
+        PlayerRepository repository = open.get();
+        Random random = new Random(7);
+        BenchmarkSupport.time(name, () -> {
+            for (int i = 0; i < logins; i++) {
+                repository.findByUsername("player" + random.nextInt(playerCount)).get();
+            }
+        });
+        System.gc();
+        long after = memory.getHeapMemoryUsage().getUsed();
+        System.out.printf("%-45s %10d MB retained%n", name, (after - before) / (1024 * 1024));
+        keepAlive = repository;
+        keepAlive = null;
+    }
+
+    private static List<Player> players(int count) {
+        List<Player> players = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Player player = new Player("player" + i, "$pbkdf2-sha256$10000$c2FsdHNhbHRzYWx0c2FsdA==$aGFzaGhhc2hoYXNoaGFzaGhhc2hoYXNoaGFzaGhhc2g=");
+            player.setId(UUID.randomUUID().toString());
+            player.addItem(new Item("Water", "RESOURCE"), 12);
+            player.addItem(new Item("Space Map", "TOOL"));
+            players.add(player);
+        }
+        return players;
+    }
+}